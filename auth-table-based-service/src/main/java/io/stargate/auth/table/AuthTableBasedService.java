@@ -19,6 +19,7 @@ import com.datastax.oss.driver.shaded.guava.common.base.Strings;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.auth.StoredCredentials;
 import io.stargate.auth.UnauthorizedException;
+import io.stargate.auth.table.TokenRefresher.CachedToken;
 import io.stargate.db.Persistence;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.ResultSet;
@@ -26,6 +27,7 @@ import io.stargate.db.datastore.Row;
 import io.stargate.db.datastore.query.WhereCondition;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.mindrot.jbcrypt.BCrypt;
@@ -46,6 +48,34 @@ public class AuthTableBasedService implements AuthenticationService {
   private static final boolean shouldInitializeAuthKeyspace =
       Boolean.parseBoolean(System.getProperty("stargate.auth_tablebased_init", "true"));
 
+  private static final String REFRESH_TTL_QUERY =
+      String.format(
+          "UPDATE %s.\"%s\" USING TTL ? SET username = ?, created_timestamp = ? "
+              + "WHERE auth_token = ?",
+          AUTH_KEYSPACE, AUTH_TABLE);
+
+  // Validated tokens are cached for at most half of their TTL, so that a cached token is always
+  // still present in the table (its TTL having been extended when it was first read). This is also
+  // how long a token deleted from the table can still be used.
+  private static final long TOKEN_CACHE_MAX_SIZE =
+      Long.getLong("stargate.auth_token_cache.max_size", 10_000);
+  private static final int TOKEN_CACHE_EXPIRY_SECONDS =
+      Math.min(
+          Integer.getInteger("stargate.auth_token_cache.expiry_seconds", 300), tokenTTL / 2);
+  // Uses of a cached token extend its TTL in the background, at most once per refresh window.
+  private static final int TOKEN_REFRESH_WINDOW_SECONDS =
+      Math.max(
+          1,
+          Math.min(
+              Integer.getInteger("stargate.auth_token_refresh_window_seconds", 60),
+              tokenTTL / 10));
+
+  private final TokenCache tokenCache =
+      new TokenCache(
+          TOKEN_CACHE_MAX_SIZE,
+          TOKEN_CACHE_EXPIRY_SECONDS,
+          new TokenRefresher(TOKEN_REFRESH_WINDOW_SECONDS, this::refreshTokenTtl));
+
   public Persistence getPersistence() {
     return persistence;
   }
@@ -214,7 +244,14 @@ public class AuthTableBasedService implements AuthenticationService {
       throw new UnauthorizedException("authorization failed - bad token");
     }
 
+    CachedToken cached = tokenCache.get(uuid, this::queryToken);
+
     StoredCredentials storedCredentials = new StoredCredentials();
+    storedCredentials.setRoleName(cached.username);
+    return storedCredentials;
+  }
+
+  private CachedToken queryToken(UUID uuid) throws UnauthorizedException {
     try {
       ResultSet resultSet =
           dataStore
@@ -234,28 +271,43 @@ public class AuthTableBasedService implements AuthenticationService {
         throw new RuntimeException("unable to get username from token table");
       }
 
-      int timestamp = row.getInt("created_timestamp");
-      String username = row.getString("username");
-
-      storedCredentials.setRoleName(username);
-
-      final ResultSet r =
-          dataStore
-              .query()
-              .update(AUTH_KEYSPACE, AUTH_TABLE)
-              .ttl(tokenTTL)
-              .value("username", username)
-              .value("created_timestamp", timestamp)
-              .where("auth_token", WhereCondition.Predicate.Eq, UUID.fromString(token))
-              .consistencyLevel(ConsistencyLevel.LOCAL_QUORUM)
-              .execute();
-    } catch (UnauthorizedException uae) {
-      throw uae;
+      return new CachedToken(row.getString("username"), row.getInt("created_timestamp"));
     } catch (InterruptedException | ExecutionException e) {
       logger.error("Failed to validate token", e);
       throw new RuntimeException(e);
     }
+  }
 
-    return storedCredentials;
+  /** The ratio of token validations that were served from the in-process token cache. */
+  public double tokenCacheHitRatio() {
+    return tokenCache.hitRatio();
+  }
+
+  /**
+   * How late, in milliseconds, the oldest TTL refresh written by the last background flush was
+   * compared to the moment it was requested.
+   */
+  public long tokenRefreshLagMillis() {
+    return tokenCache.refreshLagMillis();
+  }
+
+  /** The number of tokens currently waiting for a background TTL refresh. */
+  public int pendingTokenRefreshes() {
+    return tokenCache.pendingRefreshes();
+  }
+
+  /** Stops the background token TTL refreshes. */
+  public void close() {
+    tokenCache.close();
+  }
+
+  private CompletableFuture<ResultSet> refreshTokenTtl(UUID token, CachedToken cached) {
+    return dataStore.query(
+        REFRESH_TTL_QUERY,
+        ConsistencyLevel.LOCAL_QUORUM,
+        tokenTTL,
+        cached.username,
+        cached.createdTimestamp,
+        token);
   }
 }
@@ -15,7 +15,10 @@
  */
 package io.stargate.auth.table;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import io.stargate.auth.AuthenticationService;
+import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.Persistence;
 import java.util.Hashtable;
 import org.osgi.framework.BundleActivator;
@@ -31,9 +34,16 @@ import org.slf4j.LoggerFactory;
 public class AuthTableBasedServiceActivator implements BundleActivator, ServiceListener {
   private static final Logger log = LoggerFactory.getLogger(AuthTableBasedServiceActivator.class);
 
+  private static final String TOKEN_CACHE_HIT_RATIO = "token-cache.hit-ratio";
+  private static final String TOKEN_REFRESH_LAG = "token-refresh.lag-millis";
+  private static final String TOKEN_REFRESH_PENDING = "token-refresh.pending";
+
   private BundleContext context;
   private final AuthTableBasedService authTableBasedService = new AuthTableBasedService();
   private ServiceReference persistenceReference;
+  private ServiceReference<?> metricsReference;
+  // The registry the gauges were registered in, or null if they are not registered.
+  private MetricRegistry metricRegistry;
   private ServiceRegistration<?> registration;
   static Hashtable<String, String> props = new Hashtable<>();
   static String PERSISTENCE_IDENTIFIER =
@@ -50,7 +60,10 @@ public class AuthTableBasedServiceActivator implements BundleActivator, ServiceL
 
     synchronized (authTableBasedService) {
       try {
-        context.addServiceListener(this, String.format("(Identifier=%s)", PERSISTENCE_IDENTIFIER));
+        String persistenceFilter = String.format("(Identifier=%s)", PERSISTENCE_IDENTIFIER);
+        String metricsFilter = String.format("(objectClass=%s)", Metrics.class.getName());
+        context.addServiceListener(
+            this, String.format("(|%s%s)", persistenceFilter, metricsFilter));
       } catch (InvalidSyntaxException ise) {
         throw new RuntimeException(ise);
       }
@@ -63,6 +76,12 @@ public class AuthTableBasedServiceActivator implements BundleActivator, ServiceL
             (Persistence) context.getService(persistenceReference));
       }
 
+      metricsReference = context.getServiceReference(Metrics.class.getName());
+      if (metricsReference != null) {
+        log.info("Setting metrics in AuthTableBasedServiceActivator");
+        registerMetrics((Metrics) context.getService(metricsReference));
+      }
+
       if (persistenceReference != null) {
         log.info("Registering authTableBasedService in AuthTableBasedServiceActivator");
         registration =
@@ -74,9 +93,25 @@ public class AuthTableBasedServiceActivator implements BundleActivator, ServiceL
 
   @Override
   public void stop(BundleContext context) {
+    authTableBasedService.close();
+
+    synchronized (authTableBasedService) {
+      // The registry outlives this bundle, and registering a gauge again would fail on restart.
+      if (metricRegistry != null) {
+        metricRegistry.remove(TOKEN_CACHE_HIT_RATIO);
+        metricRegistry.remove(TOKEN_REFRESH_LAG);
+        metricRegistry.remove(TOKEN_REFRESH_PENDING);
+        metricRegistry = null;
+      }
+    }
+
     if (persistenceReference != null) {
       context.ungetService(persistenceReference);
     }
+
+    if (metricsReference != null) {
+      context.ungetService(metricsReference);
+    }
     // Do not need to unregister the service, because the OSGi framework will automatically do so
   }
 
@@ -93,6 +128,9 @@ public class AuthTableBasedServiceActivator implements BundleActivator, ServiceL
           if (service instanceof Persistence) {
             log.info("Setting persistence in RestApiActivator");
             this.authTableBasedService.setPersistence((Persistence) service);
+          } else if (service instanceof Metrics) {
+            log.info("Setting metrics in AuthTableBasedServiceActivator");
+            registerMetrics((Metrics) service);
           }
 
           if (this.authTableBasedService.getPersistence() != null && registration == null) {
@@ -115,4 +153,18 @@ public class AuthTableBasedServiceActivator implements BundleActivator, ServiceL
       }
     }
   }
+
+  private void registerMetrics(Metrics metrics) {
+    if (metricRegistry != null) {
+      return;
+    }
+    MetricRegistry registry = metrics.getRegistry("authTableBasedService");
+    registry.register(
+        TOKEN_CACHE_HIT_RATIO, (Gauge<Double>) authTableBasedService::tokenCacheHitRatio);
+    registry.register(
+        TOKEN_REFRESH_LAG, (Gauge<Long>) authTableBasedService::tokenRefreshLagMillis);
+    registry.register(
+        TOKEN_REFRESH_PENDING, (Gauge<Integer>) authTableBasedService::pendingTokenRefreshes);
+    metricRegistry = registry;
+  }
 }
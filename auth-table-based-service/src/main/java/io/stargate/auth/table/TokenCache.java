@@ -0,0 +1,103 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.auth.table;
+
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import com.datastax.oss.driver.shaded.guava.common.base.Ticker;
+import com.datastax.oss.driver.shaded.guava.common.cache.Cache;
+import com.datastax.oss.driver.shaded.guava.common.cache.CacheBuilder;
+import io.stargate.auth.UnauthorizedException;
+import io.stargate.auth.table.TokenRefresher.CachedToken;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The validated tokens of {@link AuthTableBasedService}.
+ *
+ * <p>A token is only read from the token table on a miss, and then served from memory until it
+ * expires from the cache. Consequently, a token deleted from the table (or whose role was dropped)
+ * is still accepted for up to the cache expiry. Every use of a token extends its TTL in the table
+ * through the provided {@link TokenRefresher}.
+ */
+class TokenCache {
+
+  @FunctionalInterface
+  interface TokenLoader {
+    CachedToken load(UUID token) throws UnauthorizedException;
+  }
+
+  private final Cache<UUID, CachedToken> tokens;
+  private final TokenRefresher refresher;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  TokenCache(long maxSize, int expirySeconds, TokenRefresher refresher) {
+    this(maxSize, expirySeconds, refresher, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  TokenCache(long maxSize, int expirySeconds, TokenRefresher refresher, Ticker ticker) {
+    this.tokens =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(expirySeconds, TimeUnit.SECONDS)
+            .ticker(ticker)
+            .build();
+    this.refresher = refresher;
+  }
+
+  /**
+   * Returns the provided token, loading it with {@code loader} if it isn't cached.
+   *
+   * @throws UnauthorizedException if the token isn't cached and {@code loader} rejects it. Rejected
+   *     tokens are not cached.
+   */
+  CachedToken get(UUID token, TokenLoader loader) throws UnauthorizedException {
+    CachedToken cached = tokens.getIfPresent(token);
+    if (cached != null) {
+      hits.increment();
+      refresher.maybeScheduleRefresh(token, cached);
+    } else {
+      misses.increment();
+      cached = loader.load(token);
+      tokens.put(token, cached);
+      refresher.refreshNow(token, cached);
+    }
+    return cached;
+  }
+
+  /** The ratio of lookups that were served from the cache. */
+  double hitRatio() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 0.0 : (double) hitCount / total;
+  }
+
+  long refreshLagMillis() {
+    return refresher.lastLagMillis();
+  }
+
+  int pendingRefreshes() {
+    return refresher.pendingCount();
+  }
+
+  /** Empties the cache and stops the background TTL refreshes. */
+  void close() {
+    tokens.invalidateAll();
+    refresher.close();
+  }
+}
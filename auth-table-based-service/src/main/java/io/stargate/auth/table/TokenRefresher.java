@@ -0,0 +1,174 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.auth.table;
+
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import io.stargate.db.datastore.ResultSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Extends the TTL of used tokens in the background.
+ *
+ * <p>Uses of a token are coalesced so that each token is written at most once per refresh window:
+ * a use only schedules a refresh if the token was not refreshed during the current window, and all
+ * scheduled refreshes are flushed together once per window.
+ */
+class TokenRefresher {
+
+  private static final Logger logger = LoggerFactory.getLogger(TokenRefresher.class);
+
+  private final long windowNanos;
+  private final BiFunction<UUID, CachedToken, CompletableFuture<ResultSet>> writer;
+  private final LongSupplier nanoClock;
+  private final ScheduledExecutorService executor;
+  private final Map<UUID, PendingRefresh> pending = new ConcurrentHashMap<>();
+  private volatile long lastLagMillis;
+
+  TokenRefresher(
+      int windowSeconds, BiFunction<UUID, CachedToken, CompletableFuture<ResultSet>> writer) {
+    this(
+        windowSeconds,
+        writer,
+        System::nanoTime,
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "auth-token-refresher");
+              thread.setDaemon(true);
+              return thread;
+            }));
+  }
+
+  @VisibleForTesting
+  TokenRefresher(
+      int windowSeconds,
+      BiFunction<UUID, CachedToken, CompletableFuture<ResultSet>> writer,
+      LongSupplier nanoClock,
+      ScheduledExecutorService executor) {
+    this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+    this.writer = writer;
+    this.nanoClock = nanoClock;
+    this.executor = executor;
+    executor.scheduleWithFixedDelay(this::flush, windowSeconds, windowSeconds, TimeUnit.SECONDS);
+  }
+
+  /** Writes the TTL extension of the provided token immediately (but asynchronously). */
+  void refreshNow(UUID token, CachedToken cached) {
+    cached.lastRefreshNanos = nanoClock.getAsLong();
+    write(token, cached);
+  }
+
+  /** Schedules a TTL extension of the provided token if it wasn't refreshed in this window. */
+  void maybeScheduleRefresh(UUID token, CachedToken cached) {
+    long now = nanoClock.getAsLong();
+    if (now - cached.lastRefreshNanos >= windowNanos) {
+      pending.putIfAbsent(token, new PendingRefresh(cached, now));
+    }
+  }
+
+  int pendingCount() {
+    return pending.size();
+  }
+
+  long lastLagMillis() {
+    return lastLagMillis;
+  }
+
+  /**
+   * Stops the background flushes. Refreshes still pending are dropped: their tokens keep the TTL
+   * they were last written with.
+   */
+  void close() {
+    executor.shutdownNow();
+  }
+
+  @VisibleForTesting
+  void flush() {
+    try {
+      long now = nanoClock.getAsLong();
+      long maxLag = 0;
+      List<CompletableFuture<ResultSet>> writes = new ArrayList<>(pending.size());
+      Iterator<Map.Entry<UUID, PendingRefresh>> iterator = pending.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<UUID, PendingRefresh> entry = iterator.next();
+        iterator.remove();
+        PendingRefresh refresh = entry.getValue();
+        maxLag = Math.max(maxLag, now - refresh.requestedNanos);
+        refresh.cached.lastRefreshNanos = now;
+        writes.add(write(entry.getKey(), refresh.cached));
+      }
+      lastLagMillis = TimeUnit.NANOSECONDS.toMillis(maxLag);
+      // Wait for this window's writes to complete so flushes don't pile up on a slow cluster.
+      CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]))
+          .exceptionally(e -> null)
+          .get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      logger.error("Failed to flush token TTL refreshes", e);
+    }
+  }
+
+  private CompletableFuture<ResultSet> write(UUID token, CachedToken cached) {
+    CompletableFuture<ResultSet> future;
+    try {
+      future = writer.apply(token, cached);
+    } catch (Exception e) {
+      future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+    }
+    return future.whenComplete(
+        (r, e) -> {
+          if (e != null) {
+            logger.warn("Failed to refresh TTL of token for role {}", cached.username, e);
+          }
+        });
+  }
+
+  /** A validated token, as cached by {@link AuthTableBasedService}. */
+  static class CachedToken {
+    final String username;
+    final int createdTimestamp;
+    volatile long lastRefreshNanos;
+
+    CachedToken(String username, int createdTimestamp) {
+      this.username = username;
+      this.createdTimestamp = createdTimestamp;
+    }
+  }
+
+  private static class PendingRefresh {
+    private final CachedToken cached;
+    private final long requestedNanos;
+
+    private PendingRefresh(CachedToken cached, long requestedNanos) {
+      this.cached = cached;
+      this.requestedNanos = requestedNanos;
+    }
+  }
+}
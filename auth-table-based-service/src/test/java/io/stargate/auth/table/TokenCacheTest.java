@@ -0,0 +1,162 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.auth.table;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.driver.shaded.guava.common.base.Ticker;
+import io.stargate.auth.UnauthorizedException;
+import io.stargate.auth.table.TokenRefresher.CachedToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TokenCacheTest {
+
+  private static final int EXPIRY_SECONDS = 300;
+  private static final int REFRESH_WINDOW_SECONDS = 60;
+
+  private static final UUID TOKEN = UUID.randomUUID();
+
+  private long nanos = 1;
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos;
+        }
+      };
+
+  // The tokens loaded from, and refreshed in, the (fake) token table, in order.
+  private final List<UUID> loads = new ArrayList<>();
+  private final List<UUID> refreshes = new ArrayList<>();
+
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+  private final TokenRefresher refresher =
+      new TokenRefresher(
+          REFRESH_WINDOW_SECONDS,
+          (token, cached) -> {
+            refreshes.add(token);
+            return CompletableFuture.completedFuture(null);
+          },
+          ticker::read,
+          executor);
+  private final TokenCache cache = new TokenCache(100, EXPIRY_SECONDS, refresher, ticker);
+
+  @AfterEach
+  public void closeCache() {
+    cache.close();
+  }
+
+  private CachedToken load(UUID token) {
+    loads.add(token);
+    return new CachedToken("role", 0);
+  }
+
+  private void advanceSeconds(long seconds) {
+    nanos += TimeUnit.SECONDS.toNanos(seconds);
+  }
+
+  @Test
+  public void loadsAndRefreshesOnMiss() throws UnauthorizedException {
+    CachedToken cached = cache.get(TOKEN, this::load);
+
+    assertThat(cached.username).isEqualTo("role");
+    assertThat(loads).containsExactly(TOKEN);
+    assertThat(refreshes).containsExactly(TOKEN);
+    assertThat(cache.hitRatio()).isEqualTo(0.0);
+  }
+
+  @Test
+  public void servesHitsFromMemory() throws UnauthorizedException {
+    CachedToken cached = cache.get(TOKEN, this::load);
+
+    assertThat(cache.get(TOKEN, this::load)).isSameAs(cached);
+    assertThat(loads).containsExactly(TOKEN);
+    assertThat(cache.hitRatio()).isEqualTo(0.5);
+  }
+
+  @Test
+  public void reloadsExpiredTokens() throws UnauthorizedException {
+    cache.get(TOKEN, this::load);
+
+    advanceSeconds(EXPIRY_SECONDS - 1);
+    cache.get(TOKEN, this::load);
+    assertThat(loads).containsExactly(TOKEN);
+
+    advanceSeconds(1);
+    cache.get(TOKEN, this::load);
+    assertThat(loads).containsExactly(TOKEN, TOKEN);
+  }
+
+  @Test
+  public void doesNotCacheRejectedTokens() {
+    TokenCache.TokenLoader rejecting =
+        token -> {
+          loads.add(token);
+          throw new UnauthorizedException("authorization failed");
+        };
+
+    assertThatThrownBy(() -> cache.get(TOKEN, rejecting))
+        .isInstanceOf(UnauthorizedException.class);
+    assertThatThrownBy(() -> cache.get(TOKEN, rejecting))
+        .isInstanceOf(UnauthorizedException.class);
+    assertThat(loads).containsExactly(TOKEN, TOKEN);
+    assertThat(refreshes).isEmpty();
+  }
+
+  @Test
+  public void refreshesHitsAtMostOncePerWindow() throws UnauthorizedException {
+    cache.get(TOKEN, this::load);
+
+    // Still in the window of the refresh done on the miss.
+    cache.get(TOKEN, this::load);
+    assertThat(cache.pendingRefreshes()).isEqualTo(0);
+
+    advanceSeconds(REFRESH_WINDOW_SECONDS);
+    cache.get(TOKEN, this::load);
+    cache.get(TOKEN, this::load);
+    assertThat(cache.pendingRefreshes()).isEqualTo(1);
+    assertThat(refreshes).containsExactly(TOKEN);
+
+    advanceSeconds(2);
+    refresher.flush();
+    assertThat(cache.pendingRefreshes()).isEqualTo(0);
+    assertThat(refreshes).containsExactly(TOKEN, TOKEN);
+    assertThat(cache.refreshLagMillis()).isEqualTo(2000);
+
+    // Refreshed by the flush, so nothing to do until the next window.
+    cache.get(TOKEN, this::load);
+    assertThat(cache.pendingRefreshes()).isEqualTo(0);
+  }
+
+  @Test
+  public void closeStopsRefresher() throws UnauthorizedException {
+    cache.get(TOKEN, this::load);
+    cache.close();
+
+    assertThat(executor.isShutdown()).isTrue();
+    cache.get(TOKEN, this::load);
+    assertThat(loads).containsExactly(TOKEN, TOKEN);
+  }
+}
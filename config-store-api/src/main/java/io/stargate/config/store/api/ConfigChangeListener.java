@@ -0,0 +1,29 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.config.store.api;
+
+/** Gets notified when the settings of a module change in a {@link ConfigStore}. */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+  /**
+   * Called with the new settings of the module this listener was registered for.
+   *
+   * <p>It is invoked from the thread that detected the change, so implementations should return
+   * quickly and must not block.
+   */
+  void onConfigChange(ConfigWithOverrides newConfig);
+}
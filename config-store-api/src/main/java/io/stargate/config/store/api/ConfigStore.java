@@ -28,4 +28,19 @@ public interface ConfigStore {
    * call stack.
    */
   ConfigWithOverrides getConfigForModule(String moduleName) throws MissingModuleSettingsException;
+
+  /**
+   * It registers a listener that will be called every time the settings of a given module change,
+   * so that the module can react to them without polling {@link #getConfigForModule(String)}.
+   *
+   * <p>The default implementation does nothing, which is correct for stores whose settings never
+   * change.
+   */
+  default void registerChangeListener(String moduleName, ConfigChangeListener listener) {}
+
+  /**
+   * It unregisters a listener previously registered with {@link #registerChangeListener(String,
+   * ConfigChangeListener)}. It is a no-op if the listener is not registered.
+   */
+  default void unregisterChangeListener(String moduleName, ConfigChangeListener listener) {}
 }
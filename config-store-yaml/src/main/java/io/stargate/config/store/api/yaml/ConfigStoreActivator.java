@@ -31,6 +31,8 @@ public class ConfigStoreActivator implements BundleActivator {
 
   private final String configYamlLocation;
 
+  private ConfigStoreYaml configStoreYaml;
+
   // for testing purpose
   public ConfigStoreActivator(String configYamlLocation) {
     this.configYamlLocation = configYamlLocation;
@@ -48,13 +50,15 @@ public class ConfigStoreActivator implements BundleActivator {
     Hashtable<String, String> props = new Hashtable<>();
     props.put("Identifier", CONFIG_STORE_YAML_IDENTIFIER);
 
-    ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(Paths.get(configYamlLocation));
+    configStoreYaml = new ConfigStoreYaml(Paths.get(configYamlLocation));
     context.registerService(ConfigStore.class, configStoreYaml, props);
     logger.info("Started Config Store YAML....");
   }
 
   @Override
   public void stop(BundleContext context) {
-    // no-op
+    if (configStoreYaml != null) {
+      configStoreYaml.close();
+    }
   }
 }
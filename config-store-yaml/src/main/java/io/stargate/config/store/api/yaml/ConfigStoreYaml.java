@@ -19,19 +19,50 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.MapType;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.collect.ImmutableMap;
+import io.stargate.config.store.api.ConfigChangeListener;
 import io.stargate.config.store.api.ConfigStore;
 import io.stargate.config.store.api.ConfigWithOverrides;
 import io.stargate.config.store.api.MissingModuleSettingsException;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ConfigStore} backed by a YAML file.
+ *
+ * <p>The file is parsed once into an immutable snapshot, which {@link #getConfigForModule(String)}
+ * serves without any I/O. The file is then watched for changes: each change is parsed into a new
+ * snapshot that atomically replaces the previous one, and the listeners of the modules whose
+ * settings changed are notified. If a modified file cannot be parsed, the previous snapshot is
+ * kept.
+ */
+public class ConfigStoreYaml implements ConfigStore, AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(ConfigStoreYaml.class);
 
-public class ConfigStoreYaml implements ConfigStore {
   private final ObjectMapper mapper;
   private final Path configFilePath;
   private final MapType yamlConfigType;
+  private final Map<String, Set<ConfigChangeListener>> listeners = new ConcurrentHashMap<>();
+
+  private volatile Snapshot snapshot;
+
+  @Nullable private final WatchService watchService;
 
   public ConfigStoreYaml(Path configFilePath) {
     this.configFilePath = configFilePath;
@@ -43,24 +74,190 @@ public class ConfigStoreYaml implements ConfigStore {
             .getTypeFactory()
             .constructMapType(
                 HashMap.class, mapper.getTypeFactory().constructType(String.class), mapType);
+    snapshot = load();
+    watchService = startWatching();
   }
 
   @Override
   public ConfigWithOverrides getConfigForModule(String moduleName)
       throws MissingModuleSettingsException {
+    Snapshot current = snapshot;
+    if (current.error != null) {
+      String message = "Problem when processing yaml file from: " + configFilePath;
+      throw current.error instanceof IOException
+          ? new UncheckedIOException(message, (IOException) current.error)
+          : new IllegalStateException(message, current.error);
+    }
+    ConfigWithOverrides config = current.modules.get(moduleName);
+    if (config == null) {
+      throw new MissingModuleSettingsException(
+          String.format(
+              "The loaded configuration map: %s, does not contain settings from a given module: %s",
+              current.settings, moduleName));
+    }
+    return config;
+  }
+
+  @Override
+  public void registerChangeListener(String moduleName, ConfigChangeListener listener) {
+    listeners.computeIfAbsent(moduleName, k -> new CopyOnWriteArraySet<>()).add(listener);
+  }
+
+  @Override
+  public void unregisterChangeListener(String moduleName, ConfigChangeListener listener) {
+    Set<ConfigChangeListener> moduleListeners = listeners.get(moduleName);
+    if (moduleListeners != null) {
+      moduleListeners.remove(listener);
+    }
+  }
+
+  /** Stops watching the config file. The last loaded settings remain available. */
+  @Override
+  public void close() {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        logger.warn("Error while closing the watch service of {}", configFilePath, e);
+      }
+    }
+  }
+
+  private Snapshot load() {
     try {
-      Map<String, Map<String, Object>> result =
+      Map<String, Map<String, Object>> settings =
           mapper.readValue(configFilePath.toFile(), yamlConfigType);
-      if (!result.containsKey(moduleName)) {
-        throw new MissingModuleSettingsException(
-            String.format(
-                "The loaded configuration map: %s, does not contain settings from a given module: %s",
-                result, moduleName));
-      }
-      return new ConfigWithOverrides(ImmutableMap.copyOf(result.get(moduleName)));
+      return Snapshot.loaded(settings == null ? new HashMap<>() : settings);
+    } catch (IOException | RuntimeException e) {
+      return Snapshot.failed(e);
+    }
+  }
+
+  // Synchronized so that listeners get the changes in order.
+  private synchronized void reload() {
+    try {
+      doReload();
+    } catch (RuntimeException e) {
+      // Don't let the watcher thread die, or later changes would be ignored.
+      logger.warn("Unexpected error while reloading the config file {}", configFilePath, e);
+    }
+  }
+
+  private void doReload() {
+    Snapshot previous = snapshot;
+    Snapshot current = load();
+    if (current.error != null && previous.error == null) {
+      logger.warn(
+          "Could not reload the modified config file {}, keeping the previous settings",
+          configFilePath,
+          current.error);
+      return;
+    }
+    snapshot = current;
+    logger.info("Reloaded the config file {}", configFilePath);
+
+    listeners.forEach(
+        (moduleName, moduleListeners) -> {
+          ConfigWithOverrides config = current.modules.get(moduleName);
+          ConfigWithOverrides previousConfig = previous.modules.get(moduleName);
+          if (config == null
+              || (previousConfig != null
+                  && Objects.equals(config.getConfigMap(), previousConfig.getConfigMap()))) {
+            return;
+          }
+          for (ConfigChangeListener listener : moduleListeners) {
+            try {
+              listener.onConfigChange(config);
+            } catch (RuntimeException e) {
+              logger.warn("Unexpected error in config listener for module {}", moduleName, e);
+            }
+          }
+        });
+  }
+
+  @Nullable
+  private WatchService startWatching() {
+    // Messages keep the path as provided, but a relative one has no parent to watch.
+    Path directory = configFilePath.toAbsolutePath().getParent();
+    if (directory == null || !Files.isDirectory(directory)) {
+      logger.warn(
+          "The directory of config file {} does not exist, changes won't be detected",
+          configFilePath);
+      return null;
+    }
+    WatchService service;
+    try {
+      service = directory.getFileSystem().newWatchService();
+      directory.register(
+          service,
+          StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY,
+          StandardWatchEventKinds.ENTRY_DELETE);
     } catch (IOException e) {
-      throw new UncheckedIOException(
-          "Problem when processing yaml file from: " + configFilePath, e);
+      logger.warn("Could not watch config file {}, changes won't be detected", configFilePath, e);
+      return null;
+    }
+    Thread watcher = new Thread(() -> watch(service), "config-store-yaml-watcher");
+    watcher.setDaemon(true);
+    watcher.start();
+    return service;
+  }
+
+  private void watch(WatchService service) {
+    Path fileName = configFilePath.getFileName();
+    try {
+      while (true) {
+        WatchKey key = service.take();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          changed |=
+              event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+        }
+        if (changed) {
+          reload();
+        }
+        if (!key.reset()) {
+          logger.warn(
+              "The directory of config file {} is no longer accessible, changes won't be detected",
+              configFilePath);
+          return;
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // We've been closed
+    }
+  }
+
+  private static class Snapshot {
+    private final Map<String, Map<String, Object>> settings;
+    private final Map<String, ConfigWithOverrides> modules;
+    @Nullable private final Exception error;
+
+    private Snapshot(
+        Map<String, Map<String, Object>> settings,
+        Map<String, ConfigWithOverrides> modules,
+        @Nullable Exception error) {
+      this.settings = settings;
+      this.modules = modules;
+      this.error = error;
+    }
+
+    private static Snapshot loaded(Map<String, Map<String, Object>> settings) {
+      ImmutableMap.Builder<String, ConfigWithOverrides> modules = ImmutableMap.builder();
+      // Module settings are not copied to ImmutableMaps, as YAML settings can have null values.
+      settings.forEach(
+          (moduleName, moduleSettings) ->
+              modules.put(
+                  moduleName,
+                  new ConfigWithOverrides(
+                      moduleSettings == null
+                          ? Collections.emptyMap()
+                          : Collections.unmodifiableMap(new HashMap<>(moduleSettings)))));
+      return new Snapshot(settings, modules.build(), null);
+    }
+
+    private static Snapshot failed(Exception error) {
+      return new Snapshot(ImmutableMap.of(), ImmutableMap.of(), error);
     }
   }
 }
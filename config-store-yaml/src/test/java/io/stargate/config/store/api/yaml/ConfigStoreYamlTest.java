@@ -20,13 +20,19 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.stargate.config.store.api.ConfigWithOverrides;
 import io.stargate.config.store.api.MissingModuleSettingsException;
+import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class ConfigStoreYamlTest {
 
@@ -76,4 +82,94 @@ class ConfigStoreYamlTest {
         .isInstanceOf(UncheckedIOException.class)
         .hasMessageContaining("Problem when processing yaml file from: non-existing");
   }
+
+  @Test
+  public void shouldServeCachedConfigWhenFileIsRemoved(@TempDir Path dir) throws IOException {
+    // given
+    Path path = dir.resolve("stargate-config.yaml");
+    write(path, "extension-1:\n  a: 1\n");
+    try (ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path)) {
+      ConfigWithOverrides config = configStoreYaml.getConfigForModule("extension-1");
+
+      // when
+      Files.delete(path);
+
+      // then
+      assertThat(configStoreYaml.getConfigForModule("extension-1")).isSameAs(config);
+    }
+  }
+
+  @Test
+  public void shouldNotifyListenersWhenModuleSettingsChange(@TempDir Path dir) throws Exception {
+    // given
+    Path path = dir.resolve("stargate-config.yaml");
+    write(path, "extension-1:\n  a: 1\nextension-2:\n  a: 2\n");
+    try (ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path)) {
+      CompletableFuture<ConfigWithOverrides> changed = new CompletableFuture<>();
+      configStoreYaml.registerChangeListener("extension-1", changed::complete);
+      configStoreYaml.registerChangeListener(
+          "extension-2",
+          c -> changed.completeExceptionally(new AssertionError("extension-2 did not change")));
+
+      // when
+      write(path, "extension-1:\n  a: 3\nextension-2:\n  a: 2\n");
+
+      // then
+      ConfigWithOverrides newConfig = changed.get(30, TimeUnit.SECONDS);
+      assertThat(newConfig.getConfigMap()).containsOnly(new SimpleEntry<>("a", 3));
+      assertThat(configStoreYaml.getConfigForModule("extension-1")).isSameAs(newConfig);
+    }
+  }
+
+  @Test
+  public void shouldKeepNullSettings(@TempDir Path dir) throws IOException {
+    // given
+    Path path = dir.resolve("stargate-config.yaml");
+    write(path, "extension-1:\n  a: 1\n  b:\n  c: ~\nextension-2:\n");
+
+    // when
+    try (ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path)) {
+      // then
+      assertThat(configStoreYaml.getConfigForModule("extension-1").getConfigMap())
+          .containsOnly(
+              new SimpleEntry<>("a", 1),
+              new SimpleEntry<>("b", null),
+              new SimpleEntry<>("c", null));
+      assertThat(configStoreYaml.getConfigForModule("extension-2").getConfigMap()).isEmpty();
+    }
+  }
+
+  @Test
+  public void shouldKeepWatchingAfterReloadingNullSettings(@TempDir Path dir) throws Exception {
+    // given
+    Path path = dir.resolve("stargate-config.yaml");
+    write(path, "extension-1:\n  a: 1\n");
+    try (ConfigStoreYaml configStoreYaml = new ConfigStoreYaml(path)) {
+      CompletableFuture<ConfigWithOverrides> nullChange = new CompletableFuture<>();
+      CompletableFuture<ConfigWithOverrides> laterChange = new CompletableFuture<>();
+      configStoreYaml.registerChangeListener(
+          "extension-1",
+          c -> {
+            if (c.getConfigMap().containsKey("b")) {
+              laterChange.complete(c);
+            } else {
+              nullChange.complete(c);
+            }
+          });
+
+      // when
+      write(path, "extension-1:\n  a:\n");
+      assertThat(nullChange.get(30, TimeUnit.SECONDS).getConfigMap())
+          .containsOnly(new SimpleEntry<>("a", null));
+      write(path, "extension-1:\n  a: 1\n  b: 2\n");
+
+      // then
+      assertThat(laterChange.get(30, TimeUnit.SECONDS).getConfigMap())
+          .containsOnly(new SimpleEntry<>("a", 1), new SimpleEntry<>("b", 2));
+    }
+  }
+
+  private static void write(Path path, String content) throws IOException {
+    Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+  }
 }
@@ -22,18 +22,23 @@ package org.apache.cassandra.stargate.metrics;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.cassandra.metrics.DefaultNameFactory;
 import org.apache.cassandra.metrics.MetricNameFactory;
 import org.apache.cassandra.stargate.transport.internal.ClientStat;
 import org.apache.cassandra.stargate.transport.internal.ConnectedClient;
+import org.apache.cassandra.stargate.transport.internal.Message;
 import org.apache.cassandra.stargate.transport.internal.Server;
 
 public final class ClientMetrics {
@@ -41,6 +46,18 @@ public final class ClientMetrics {
 
   private static final MetricNameFactory factory = new DefaultNameFactory("Client");
 
+  private static final EnumSet<Message.Type> TIMED_REQUESTS =
+      EnumSet.of(
+          Message.Type.QUERY, Message.Type.EXECUTE, Message.Type.BATCH, Message.Type.PREPARE);
+
+  /** How a request ended, as far as the latency metrics are concerned. */
+  public enum RequestOutcome {
+    SUCCESS,
+    ERROR,
+    /** The request was rejected because Stargate or the backend was overloaded. */
+    OVERLOADED
+  }
+
   private volatile boolean initialized = false;
   private Collection<Server> servers = Collections.emptyList();
   private MetricRegistry metricRegistry;
@@ -52,6 +69,10 @@ public final class ClientMetrics {
   private Gauge<Integer> pausedConnectionsGauge;
   private Meter requestDiscarded;
 
+  // Indexed by RequestOutcome
+  private volatile Map<Message.Type, Timer[]> requestLatencies =
+      new EnumMap<>(Message.Type.class);
+
   private ClientMetrics() {}
 
   public void markAuthSuccess() {
@@ -74,6 +95,17 @@ public final class ClientMetrics {
     requestDiscarded.mark();
   }
 
+  /**
+   * Records the latency of a request, from the moment it is dispatched to the moment its response
+   * (or error) is ready. Only QUERY, EXECUTE, BATCH and PREPARE requests are timed.
+   */
+  public void recordRequest(Message.Type type, RequestOutcome outcome, long latencyNanos) {
+    Timer[] timers = requestLatencies.get(type);
+    if (timers != null) {
+      timers[outcome.ordinal()].update(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
   public List<ConnectedClient> allConnectedClients() {
     List<ConnectedClient> clients = new ArrayList<>();
 
@@ -100,6 +132,23 @@ public final class ClientMetrics {
     pausedConnectionsGauge = registerGauge("PausedConnections", pausedConnections::get);
     requestDiscarded = registerMeter("RequestDiscarded");
 
+    registerGauge("RequestsInFlight", Server.EndpointPayloadTracker::getGlobalRequestsInFlight);
+    registerGauge("RequestBytesInFlight", Server.EndpointPayloadTracker::getGlobalBytesInFlight);
+
+    Map<Message.Type, Timer[]> latencies = new EnumMap<>(Message.Type.class);
+    for (Message.Type type : TIMED_REQUESTS) {
+      Timer[] timers = new Timer[RequestOutcome.values().length];
+      for (RequestOutcome outcome : RequestOutcome.values()) {
+        timers[outcome.ordinal()] =
+            registerTimer(
+                String.format(
+                    "RequestLatency.%s.%s",
+                    type.name().toLowerCase(), outcome.name().toLowerCase()));
+      }
+      latencies.put(type, timers);
+    }
+    requestLatencies = latencies;
+
     initialized = true;
   }
 
@@ -151,4 +200,10 @@ public final class ClientMetrics {
   private Meter registerMeter(String name) {
     return metricRegistry.meter(factory.createMetricName(name).getMetricName());
   }
+
+  private Timer registerTimer(String name) {
+    return metricRegistry.register(
+        factory.createMetricName(name).getMetricName(),
+        new Timer(new RecentHdrHistogramReservoir()));
+  }
 }
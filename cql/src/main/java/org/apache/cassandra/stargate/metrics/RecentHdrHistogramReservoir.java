@@ -0,0 +1,159 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+/**
+ * A {@link Reservoir} for latencies (in nanoseconds) backed by HdrHistogram, which records values
+ * without allocating or locking and keeps every value rather than a sample of them, so that high
+ * percentiles are accurate.
+ *
+ * <p>Snapshots only cover recent values: those recorded during the current window and the previous
+ * one (windows are one minute long by default). Values are recorded with a microsecond resolution
+ * and 2 significant digits, and are capped to one hour.
+ */
+public class RecentHdrHistogramReservoir implements Reservoir {
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+  private final long windowNanos;
+
+  // Guarded by this
+  private Histogram interval;
+  private Histogram current = newHistogram();
+  private Histogram previous = newHistogram();
+  private long windowStartNanos = System.nanoTime();
+
+  public RecentHdrHistogramReservoir() {
+    this(1, TimeUnit.MINUTES);
+  }
+
+  public RecentHdrHistogramReservoir(long window, TimeUnit unit) {
+    this.windowNanos = unit.toNanos(window);
+  }
+
+  private static Histogram newHistogram() {
+    return new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+  }
+
+  @Override
+  public int size() {
+    return getSnapshot().size();
+  }
+
+  @Override
+  public void update(long valueNanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(valueNanos);
+    recorder.recordValue(Math.max(0, Math.min(micros, HIGHEST_TRACKABLE_MICROS)));
+  }
+
+  @Override
+  public synchronized Snapshot getSnapshot() {
+    interval = recorder.getIntervalHistogram(interval);
+
+    long now = System.nanoTime();
+    if (now - windowStartNanos >= windowNanos) {
+      Histogram expired = previous;
+      previous = current;
+      current = expired;
+      current.reset();
+      windowStartNanos = now;
+    }
+    current.add(interval);
+
+    Histogram recent = previous.copy();
+    recent.add(current);
+    return new HistogramSnapshot(recent);
+  }
+
+  private static class HistogramSnapshot extends Snapshot {
+    private final Histogram histogram;
+
+    private HistogramSnapshot(Histogram histogram) {
+      this.histogram = histogram;
+    }
+
+    private static long toNanos(long micros) {
+      return TimeUnit.MICROSECONDS.toNanos(micros);
+    }
+
+    @Override
+    public double getValue(double quantile) {
+      return toNanos(histogram.getValueAtPercentile(quantile * 100));
+    }
+
+    @Override
+    public long[] getValues() {
+      long[] values = new long[size()];
+      int i = 0;
+      for (HistogramIterationValue value : histogram.recordedValues()) {
+        long nanos = toNanos(value.getValueIteratedTo());
+        for (long count = 0;
+            count < value.getCountAtValueIteratedTo() && i < values.length;
+            count++) {
+          values[i++] = nanos;
+        }
+      }
+      return values;
+    }
+
+    @Override
+    public int size() {
+      return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getMax() {
+      return toNanos(histogram.getMaxValue());
+    }
+
+    @Override
+    public double getMean() {
+      return histogram.getTotalCount() == 0 ? 0 : toNanos(1) * histogram.getMean();
+    }
+
+    @Override
+    public long getMin() {
+      return histogram.getTotalCount() == 0 ? 0 : toNanos(histogram.getMinValue());
+    }
+
+    @Override
+    public double getStdDev() {
+      return histogram.getTotalCount() == 0 ? 0 : toNanos(1) * histogram.getStdDeviation();
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+      try (PrintWriter out =
+          new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+        for (long value : getValues()) {
+          out.printf("%d%n", value);
+        }
+      }
+    }
+  }
+}
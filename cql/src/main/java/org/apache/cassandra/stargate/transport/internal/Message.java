@@ -565,9 +565,20 @@ public abstract class Message {
 
     @Override
     public void channelRead0(ChannelHandlerContext ctx, Request request) {
+      long queryStartNanoTime = System.nanoTime();
+      boolean handle;
+      try {
+        handle = shouldHandleRequest(ctx, request);
+      } catch (Throwable t) {
+        ClientMetrics.instance.recordRequest(
+            request.type,
+            ClientMetrics.RequestOutcome.OVERLOADED,
+            System.nanoTime() - queryStartNanoTime);
+        throw t;
+      }
       // if we decide to handle this message, process it outside of the netty event loop
-      if (shouldHandleRequest(ctx, request)) {
-        processRequest(ctx, request);
+      if (handle) {
+        processRequest(ctx, request, queryStartNanoTime);
       }
     }
 
@@ -614,6 +625,7 @@ public abstract class Message {
       }
 
       channelPayloadBytesInFlight += frameSize;
+      Server.EndpointPayloadTracker.requestStarted();
       return true;
     }
 
@@ -631,6 +643,7 @@ public abstract class Message {
       channelPayloadBytesInFlight -= itemSize;
       ResourceLimits.Outcome endpointGlobalReleaseOutcome =
           endpointPayloadTracker.endpointAndGlobalPayloadsInFlight.release(itemSize);
+      Server.EndpointPayloadTracker.requestCompleted();
 
       // now check to see if we need to reenable the channel's autoRead.
       // If the current payload side is zero, we must reenable autoread as
@@ -648,9 +661,8 @@ public abstract class Message {
     }
 
     /** Note: nothing in this method should block the netty event loop */
-    void processRequest(ChannelHandlerContext ctx, Request request) {
+    void processRequest(ChannelHandlerContext ctx, Request request, long queryStartNanoTime) {
       final ServerConnection connection;
-      long queryStartNanoTime = System.nanoTime();
 
       try {
         assert request.connection() instanceof ServerConnection;
@@ -665,6 +677,7 @@ public abstract class Message {
 
         req.whenComplete(
             (response, err) -> {
+              recordLatency(request, response, err, queryStartNanoTime);
               if (err != null) {
                 handleError(ctx, request, err);
               } else {
@@ -689,10 +702,30 @@ public abstract class Message {
               }
             });
       } catch (Throwable t) {
+        recordLatency(request, null, t, queryStartNanoTime);
         handleError(ctx, request, t);
       }
     }
 
+    private static void recordLatency(
+        Request request, Response response, Throwable error, long queryStartNanoTime) {
+      ClientMetrics.RequestOutcome outcome = ClientMetrics.RequestOutcome.SUCCESS;
+      if (error instanceof ExecutionException || error instanceof CompletionException) {
+        error = error.getCause();
+      }
+      if (error == null && response instanceof ErrorMessage) {
+        error = ((ErrorMessage) response).error;
+      }
+      if (error != null) {
+        outcome =
+            error instanceof OverloadedException
+                ? ClientMetrics.RequestOutcome.OVERLOADED
+                : ClientMetrics.RequestOutcome.ERROR;
+      }
+      ClientMetrics.instance.recordRequest(
+          request.type, outcome, System.nanoTime() - queryStartNanoTime);
+    }
+
     private void handleError(ChannelHandlerContext ctx, Message.Request request, Throwable error) {
       try {
         if (logger.isTraceEnabled())
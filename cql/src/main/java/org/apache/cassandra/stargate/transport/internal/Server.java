@@ -66,6 +66,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.cassandra.config.EncryptionOptions;
 import org.apache.cassandra.net.ResourceLimits;
 import org.apache.cassandra.security.SSLFactory;
@@ -329,6 +330,9 @@ public class Server implements CassandraDaemon.Server {
     private static final ConcurrentMap<InetAddress, EndpointPayloadTracker>
         requestPayloadInFlightPerEndpoint = new ConcurrentHashMap<>();
 
+    // inflight requests across all channels across all endpoints
+    private static final AtomicLong globalRequestsInFlight = new AtomicLong();
+
     private final AtomicInteger refCount = new AtomicInteger(0);
     private final InetAddress endpoint;
 
@@ -353,6 +357,22 @@ public class Server implements CassandraDaemon.Server {
       }
     }
 
+    public static long getGlobalRequestsInFlight() {
+      return globalRequestsInFlight.get();
+    }
+
+    public static long getGlobalBytesInFlight() {
+      return globalRequestPayloadInFlight.using();
+    }
+
+    static void requestStarted() {
+      globalRequestsInFlight.incrementAndGet();
+    }
+
+    static void requestCompleted() {
+      globalRequestsInFlight.decrementAndGet();
+    }
+
     public static long getGlobalLimit() {
       return TransportDescriptor.getNativeTransportMaxConcurrentRequestsInBytes();
     }
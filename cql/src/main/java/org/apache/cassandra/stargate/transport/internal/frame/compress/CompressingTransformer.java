@@ -20,6 +20,7 @@ package org.apache.cassandra.stargate.transport.internal.frame.compress;
 
 import io.netty.buffer.ByteBuf;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.EnumSet;
 import org.apache.cassandra.stargate.transport.ProtocolException;
 import org.apache.cassandra.stargate.transport.internal.CBUtil;
@@ -64,21 +65,20 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
   // length of the uncompressed bytes. This length is explicitly big-endian
   // as the native protocol is entirely big-endian, so it feels like putting
   // little-endian here would be a annoying trap for client writer
+  //
+  // Both transformers compress straight from and into the (pooled, usually direct) frame buffers
+  // through NIO views of them, rather than copying the frames to and from heap arrays.
   private static class LZ4 extends CompressingTransformer {
     public ByteBuf transformOutbound(ByteBuf inputBuf) throws IOException {
-      byte[] input = CBUtil.readRawBytes(inputBuf);
-      int maxCompressedLength = LZ4Compressor.INSTANCE.maxCompressedLength(input.length);
-      ByteBuf outputBuf = CBUtil.allocator.heapBuffer(Integer.BYTES + maxCompressedLength);
-      byte[] output = outputBuf.array();
-      int outputOffset = outputBuf.arrayOffset();
-      output[outputOffset] = (byte) (input.length >>> 24);
-      output[outputOffset + 1] = (byte) (input.length >>> 16);
-      output[outputOffset + 2] = (byte) (input.length >>> 8);
-      output[outputOffset + 3] = (byte) (input.length);
+      int uncompressedLength = inputBuf.readableBytes();
+      int maxCompressedLength = LZ4Compressor.INSTANCE.maxCompressedLength(uncompressedLength);
+      ByteBuf outputBuf = CBUtil.allocator.buffer(Integer.BYTES + maxCompressedLength);
       try {
+        outputBuf.writeInt(uncompressedLength);
         int written =
             LZ4Compressor.INSTANCE.compress(
-                input, 0, input.length, output, Integer.BYTES + outputOffset);
+                inputBuf.nioBuffer(), outputBuf.nioBuffer(Integer.BYTES, maxCompressedLength));
+        inputBuf.skipBytes(uncompressedLength);
         outputBuf.writerIndex(Integer.BYTES + written);
         return outputBuf;
       } catch (IOException e) {
@@ -88,17 +88,14 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
     }
 
     ByteBuf transformInbound(ByteBuf inputBuf) throws IOException {
-      byte[] input = CBUtil.readRawBytes(inputBuf);
-      int uncompressedLength =
-          ((input[0] & 0xFF) << 24)
-              | ((input[1] & 0xFF) << 16)
-              | ((input[2] & 0xFF) << 8)
-              | ((input[3] & 0xFF));
-      ByteBuf outputBuf = CBUtil.allocator.heapBuffer(uncompressedLength);
+      int uncompressedLength = inputBuf.readInt();
+      ByteBuf outputBuf = CBUtil.allocator.buffer(uncompressedLength);
       try {
-        outputBuf.writeBytes(
+        int written =
             LZ4Compressor.INSTANCE.decompress(
-                input, Integer.BYTES, input.length - Integer.BYTES, uncompressedLength));
+                inputBuf.nioBuffer(), outputBuf.nioBuffer(0, uncompressedLength));
+        inputBuf.skipBytes(inputBuf.readableBytes());
+        outputBuf.writerIndex(written);
         return outputBuf;
       } catch (IOException e) {
         outputBuf.release();
@@ -110,14 +107,14 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
   // Simple Snappy encoding simply writes the compressed bytes, without the preceding length
   private static class Snappy extends CompressingTransformer {
     public ByteBuf transformOutbound(ByteBuf inputBuf) throws IOException {
-      byte[] input = CBUtil.readRawBytes(inputBuf);
-      int uncompressedLength = input.length;
+      int uncompressedLength = inputBuf.readableBytes();
       int maxCompressedLength = SnappyCompressor.INSTANCE.maxCompressedLength(uncompressedLength);
-      ByteBuf outputBuf = CBUtil.allocator.heapBuffer(maxCompressedLength);
+      ByteBuf outputBuf = CBUtil.allocator.buffer(maxCompressedLength);
       try {
         int written =
             SnappyCompressor.INSTANCE.compress(
-                input, 0, uncompressedLength, outputBuf.array(), outputBuf.arrayOffset());
+                inputBuf.nioBuffer(), outputBuf.nioBuffer(0, maxCompressedLength));
+        inputBuf.skipBytes(uncompressedLength);
         outputBuf.writerIndex(written);
         return outputBuf;
       } catch (IOException e) {
@@ -127,12 +124,15 @@ public abstract class CompressingTransformer implements FrameBodyTransformer {
     }
 
     ByteBuf transformInbound(ByteBuf inputBuf) throws IOException {
-      byte[] input = CBUtil.readRawBytes(inputBuf);
-      int uncompressedLength = org.xerial.snappy.Snappy.uncompressedLength(input);
-      ByteBuf outputBuf = CBUtil.allocator.heapBuffer(uncompressedLength);
+      ByteBuffer input = inputBuf.nioBuffer();
+      int uncompressedLength = SnappyCompressor.INSTANCE.uncompressedLength(input);
+      ByteBuf outputBuf = CBUtil.allocator.buffer(uncompressedLength);
       try {
-        outputBuf.writeBytes(
-            SnappyCompressor.INSTANCE.decompress(input, 0, input.length, uncompressedLength));
+        int written =
+            SnappyCompressor.INSTANCE.decompress(
+                input, outputBuf.nioBuffer(0, uncompressedLength));
+        inputBuf.skipBytes(inputBuf.readableBytes());
+        outputBuf.writerIndex(written);
         return outputBuf;
       } catch (IOException e) {
         outputBuf.release();
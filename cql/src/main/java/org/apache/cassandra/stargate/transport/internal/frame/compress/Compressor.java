@@ -19,6 +19,7 @@
 package org.apache.cassandra.stargate.transport.internal.frame.compress;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Analogous to {@link org.apache.cassandra.io.compress.ICompressor}, but different enough that it's
@@ -62,4 +63,29 @@ public interface Compressor {
    */
   byte[] decompress(byte[] src, int srcOffset, int length, int expectedDecompressedLength)
       throws IOException;
+
+  /**
+   * Compresses without going through intermediate arrays, so that (pooled) direct buffers can be
+   * used end-to-end. The positions and limits of the provided buffers are left unchanged.
+   *
+   * @param src the bytes to be compressed, from its position to its limit
+   * @param dest the buffer to write the compressed bytes to, starting at its position. Its
+   *     remaining space must be at least {@link #maxCompressedLength} of the input length.
+   * @return the length of resulting compressed bytes written into the dest buffer
+   * @throws IOException if the compression implementation failed while compressing the input bytes
+   */
+  int compress(ByteBuffer src, ByteBuffer dest) throws IOException;
+
+  /**
+   * Decompresses without going through intermediate arrays, so that (pooled) direct buffers can be
+   * used end-to-end. The positions and limits of the provided buffers are left unchanged.
+   *
+   * @param src the compressed bytes, from its position to its limit
+   * @param dest the buffer to write the decompressed bytes to, starting at its position. Its
+   *     remaining space must be the expected decompressed length.
+   * @return the length of resulting decompressed bytes written into the dest buffer
+   * @throws IOException thrown if the compression implementation failed to decompress the provided
+   *     input bytes
+   */
+  int decompress(ByteBuffer src, ByteBuffer dest) throws IOException;
 }
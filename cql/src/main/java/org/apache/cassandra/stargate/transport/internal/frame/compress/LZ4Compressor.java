@@ -19,6 +19,7 @@
 package org.apache.cassandra.stargate.transport.internal.frame.compress;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
 
@@ -57,4 +58,22 @@ public class LZ4Compressor implements Compressor {
       throw new IOException("Error caught during LZ4 decompression", t);
     }
   }
+
+  public int compress(ByteBuffer src, ByteBuffer dest) throws IOException {
+    try {
+      return compressor.compress(
+          src, src.position(), src.remaining(), dest, dest.position(), dest.remaining());
+    } catch (Throwable t) {
+      throw new IOException("Error caught during LZ4 compression", t);
+    }
+  }
+
+  public int decompress(ByteBuffer src, ByteBuffer dest) throws IOException {
+    try {
+      return decompressor.decompress(
+          src, src.position(), src.remaining(), dest, dest.position(), dest.remaining());
+    } catch (Throwable t) {
+      throw new IOException("Error caught during LZ4 decompression", t);
+    }
+  }
 }
@@ -19,6 +19,7 @@
 package org.apache.cassandra.stargate.transport.internal.frame.compress;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.xerial.snappy.Snappy;
 import org.xerial.snappy.SnappyError;
 
@@ -52,18 +53,93 @@ public class SnappyCompressor implements Compressor {
   @Override
   public int compress(byte[] src, int srcOffset, int length, byte[] dest, int destOffset)
       throws IOException {
-    return Snappy.compress(src, 0, src.length, dest, destOffset);
+    return Snappy.compress(src, srcOffset, length, dest, destOffset);
   }
 
   @Override
   public byte[] decompress(byte[] src, int offset, int length, int expectedDecompressedLength)
       throws IOException {
-    if (!Snappy.isValidCompressedBuffer(src, 0, length))
+    if (!Snappy.isValidCompressedBuffer(src, offset, length))
       throw new IOException("Provided frame does not appear to be Snappy compressed");
 
-    int uncompressedLength = Snappy.uncompressedLength(src);
+    int uncompressedLength = Snappy.uncompressedLength(src, offset, length);
     byte[] output = new byte[uncompressedLength];
     Snappy.uncompress(src, offset, length, output, 0);
     return output;
   }
+
+  // Snappy only handles ByteBuffers that are direct, heap ones go through their backing array.
+
+  @Override
+  public int compress(ByteBuffer src, ByteBuffer dest) throws IOException {
+    if (src.isDirect() && dest.isDirect()) {
+      // Sets the limit of dest to the end of the compressed bytes, so work on a view.
+      return Snappy.compress(src.duplicate(), dest.duplicate());
+    }
+    byte[] input = toArray(src);
+    if (dest.hasArray()) {
+      return Snappy.compress(
+          input, 0, input.length, dest.array(), dest.arrayOffset() + dest.position());
+    }
+    byte[] output = new byte[dest.remaining()];
+    int written = Snappy.compress(input, 0, input.length, output, 0);
+    dest.duplicate().put(output, 0, written);
+    return written;
+  }
+
+  @Override
+  public int decompress(ByteBuffer src, ByteBuffer dest) throws IOException {
+    if (src.isDirect() && dest.isDirect()) {
+      if (!Snappy.isValidCompressedBuffer(src))
+        throw new IOException("Provided frame does not appear to be Snappy compressed");
+      checkUncompressedLength(Snappy.uncompressedLength(src), dest);
+      return Snappy.uncompress(src.duplicate(), dest.duplicate());
+    }
+    byte[] input = toArray(src);
+    if (!Snappy.isValidCompressedBuffer(input, 0, input.length))
+      throw new IOException("Provided frame does not appear to be Snappy compressed");
+    int uncompressedLength = Snappy.uncompressedLength(input, 0, input.length);
+    checkUncompressedLength(uncompressedLength, dest);
+    if (dest.hasArray()) {
+      return Snappy.uncompress(
+          input, 0, input.length, dest.array(), dest.arrayOffset() + dest.position());
+    }
+    byte[] output = new byte[uncompressedLength];
+    Snappy.uncompress(input, 0, input.length, output, 0);
+    dest.duplicate().put(output);
+    return uncompressedLength;
+  }
+
+  private static void checkUncompressedLength(int uncompressedLength, ByteBuffer dest)
+      throws IOException {
+    if (uncompressedLength > dest.remaining())
+      throw new IOException(
+          String.format(
+              "Snappy frame decompresses to %d bytes, but only %d were expected",
+              uncompressedLength, dest.remaining()));
+  }
+
+  /**
+   * The length the provided compressed bytes (from the position to the limit of the buffer) will
+   * decompress to.
+   */
+  public int uncompressedLength(ByteBuffer src) throws IOException {
+    if (src.isDirect()) {
+      return Snappy.uncompressedLength(src);
+    }
+    byte[] input = toArray(src);
+    return Snappy.uncompressedLength(input, 0, input.length);
+  }
+
+  private static byte[] toArray(ByteBuffer buffer) {
+    if (buffer.hasArray()
+        && buffer.arrayOffset() == 0
+        && buffer.position() == 0
+        && buffer.remaining() == buffer.array().length) {
+      return buffer.array();
+    }
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
 }
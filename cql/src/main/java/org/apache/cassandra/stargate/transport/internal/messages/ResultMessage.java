@@ -245,6 +245,8 @@ public class ResultMessage extends Message.Response {
       Result.Rows rows = (Result.Rows) result;
       METADATA_CODEC.encode(rows.resultMetadata, dest, version);
       dest.writeInt(rows.rows.size());
+      // The persistence implementations hand over the backend's own cell buffers without copying
+      // them (see their Conversion.toResult), so this is the only copy of the cells.
       for (List<ByteBuffer> row : rows.rows) {
         for (int i = 0; i < rows.resultMetadata.columnCount; ++i)
           CBUtil.writeValue(row.get(i), dest);
@@ -256,6 +258,7 @@ public class ResultMessage extends Message.Response {
       assert result instanceof Result.Rows;
       Result.Rows rows = (Result.Rows) result;
       int size = METADATA_CODEC.encodedSize(rows.resultMetadata, version);
+      size += 4; // row count
       for (List<ByteBuffer> row : rows.rows) {
         for (int i = 0; i < rows.resultMetadata.columnCount; ++i)
           size += CBUtil.sizeOfValue(row.get(i));
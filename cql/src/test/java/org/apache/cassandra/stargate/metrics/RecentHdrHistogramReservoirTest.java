@@ -0,0 +1,51 @@
+package org.apache.cassandra.stargate.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.codahale.metrics.Snapshot;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class RecentHdrHistogramReservoirTest {
+
+  @Test
+  public void percentiles() {
+    RecentHdrHistogramReservoir reservoir = new RecentHdrHistogramReservoir();
+    for (int i = 1; i <= 1000; i++) {
+      reservoir.update(TimeUnit.MILLISECONDS.toNanos(i));
+    }
+
+    Snapshot snapshot = reservoir.getSnapshot();
+    assertThat(snapshot.size()).isEqualTo(1000);
+    assertThat(snapshot.getValues()).hasSize(1000);
+    // 2 significant digits: values are within 1%
+    assertThat(snapshot.getMedian()).isCloseTo(TimeUnit.MILLISECONDS.toNanos(500), within(5e6));
+    assertThat(snapshot.get99thPercentile())
+        .isCloseTo(TimeUnit.MILLISECONDS.toNanos(990), within(1e7));
+    assertThat((double) snapshot.getMax())
+        .isCloseTo(TimeUnit.SECONDS.toNanos(1), within(1e7));
+  }
+
+  @Test
+  public void onlyKeepsRecentWindows() throws InterruptedException {
+    RecentHdrHistogramReservoir reservoir =
+        new RecentHdrHistogramReservoir(50, TimeUnit.MILLISECONDS);
+    reservoir.update(TimeUnit.MILLISECONDS.toNanos(1));
+    assertThat(reservoir.getSnapshot().size()).isEqualTo(1);
+
+    // The value moves to the previous window, then expires.
+    Thread.sleep(60);
+    assertThat(reservoir.getSnapshot().size()).isEqualTo(1);
+    Thread.sleep(60);
+    assertThat(reservoir.getSnapshot().size()).isEqualTo(0);
+  }
+
+  @Test
+  public void emptySnapshot() {
+    Snapshot snapshot = new RecentHdrHistogramReservoir().getSnapshot();
+    assertThat(snapshot.size()).isEqualTo(0);
+    assertThat(snapshot.getMin()).isEqualTo(0);
+    assertThat(snapshot.getMean()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,82 @@
+package org.apache.cassandra.stargate.transport.internal.frame.compress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.cassandra.stargate.transport.internal.CBUtil;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class CompressingTransformerTest {
+
+  private static byte[] frameBody(int size) {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; body.length() < size; i++) {
+      body.append("row-").append(i).append(",value-").append(i * 31 % 7).append(';');
+    }
+    return body.substring(0, size).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void roundTrip(Compressor compressor, ByteBuf input) throws Exception {
+    CompressingTransformer transformer = CompressingTransformer.getTransformer(compressor);
+    byte[] expected = ByteBufUtil.getBytes(input);
+
+    ByteBuf compressed = transformer.transformOutbound(input);
+    assertThat(input.readableBytes()).isZero();
+    ByteBuf decompressed = transformer.transformInbound(compressed, null);
+    try {
+      assertThat(compressed.readableBytes()).isZero();
+      assertThat(ByteBufUtil.getBytes(decompressed)).isEqualTo(expected);
+    } finally {
+      compressed.release();
+      decompressed.release();
+      input.release();
+    }
+  }
+
+  private static ByteBuf directBuffer(byte[] bytes) {
+    ByteBuf buf = CBUtil.allocator.directBuffer(bytes.length);
+    buf.writeBytes(bytes);
+    return buf;
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 100, 64 * 1024})
+  public void lz4RoundTrip(int size) throws Exception {
+    roundTrip(LZ4Compressor.INSTANCE, directBuffer(frameBody(size)));
+    roundTrip(LZ4Compressor.INSTANCE, Unpooled.wrappedBuffer(frameBody(size)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 100, 64 * 1024})
+  public void snappyRoundTrip(int size) throws Exception {
+    assumeTrue(SnappyCompressor.INSTANCE != null, "Snappy is not available on this platform");
+    roundTrip(SnappyCompressor.INSTANCE, directBuffer(frameBody(size)));
+    roundTrip(SnappyCompressor.INSTANCE, Unpooled.wrappedBuffer(frameBody(size)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {100, 64 * 1024})
+  public void lz4MatchesArrayCompression(int size) throws Exception {
+    byte[] input = frameBody(size);
+    byte[] expected = new byte[LZ4Compressor.INSTANCE.maxCompressedLength(size)];
+    int expectedLength = LZ4Compressor.INSTANCE.compress(input, 0, size, expected, 0);
+
+    ByteBuf inputBuf = directBuffer(input);
+    ByteBuf compressed =
+        CompressingTransformer.getTransformer(LZ4Compressor.INSTANCE).transformOutbound(inputBuf);
+    try {
+      assertThat(compressed.readInt()).isEqualTo(size);
+      assertThat(ByteBufUtil.getBytes(compressed))
+          .isEqualTo(Arrays.copyOf(expected, expectedLength));
+    } finally {
+      compressed.release();
+      inputBuf.release();
+    }
+  }
+}
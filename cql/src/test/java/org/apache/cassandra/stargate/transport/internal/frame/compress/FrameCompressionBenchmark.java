@@ -0,0 +1,125 @@
+package org.apache.cassandra.stargate.transport.internal.frame.compress;
+
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.stargate.transport.internal.CBUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures LZ4 frame compression and decompression through {@link CompressingTransformer}, which
+ * works on NIO views of the pooled frame buffers, against the previous approach of copying the
+ * frames to and from heap arrays ({@code *Arrays} benchmarks).
+ *
+ * <p>Frames hold rows of text and numbers, from a small response to a large result page. Run with
+ * {@code -prof gc} to compare allocation rates.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.apache.cassandra.stargate.transport.internal.frame.compress.FrameCompressionBenchmark}
+ * or from the IDE.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrameCompressionBenchmark {
+
+  @Param({"512", "8192", "65536", "1048576"})
+  public int frameSize;
+
+  private final CompressingTransformer transformer =
+      CompressingTransformer.getTransformer(LZ4Compressor.INSTANCE);
+
+  private ByteBuf uncompressed;
+  private ByteBuf compressed;
+
+  @Setup
+  public void setup() throws IOException {
+    Random random = new Random(42);
+    uncompressed = CBUtil.allocator.directBuffer(frameSize);
+    for (int i = 0; uncompressed.writableBytes() >= 36; i++) {
+      // [value] cells: an id, some text and a number, like a ROWS body
+      byte[] name =
+          String.format("user-%07d", random.nextInt(1000)).getBytes(StandardCharsets.US_ASCII);
+      uncompressed.writeInt(8).writeLong(i);
+      uncompressed.writeInt(name.length).writeBytes(name);
+      uncompressed.writeInt(4).writeInt(random.nextInt(100));
+    }
+    uncompressed.writeZero(uncompressed.writableBytes());
+    compressed = transformer.transformOutbound(uncompressed.duplicate());
+  }
+
+  @TearDown
+  public void tearDown() {
+    uncompressed.release();
+    compressed.release();
+  }
+
+  @Benchmark
+  public int compress() throws IOException {
+    ByteBuf output = transformer.transformOutbound(uncompressed.duplicate());
+    int size = output.readableBytes();
+    output.release();
+    return size;
+  }
+
+  @Benchmark
+  public int decompress() throws IOException {
+    ByteBuf output = transformer.transformInbound(compressed.duplicate(), null);
+    int size = output.readableBytes();
+    output.release();
+    return size;
+  }
+
+  @Benchmark
+  public int compressArrays() throws IOException {
+    byte[] input = CBUtil.readRawBytes(uncompressed.duplicate());
+    int maxCompressedLength = LZ4Compressor.INSTANCE.maxCompressedLength(input.length);
+    ByteBuf output = CBUtil.allocator.heapBuffer(Integer.BYTES + maxCompressedLength);
+    output.writeInt(input.length);
+    int written =
+        LZ4Compressor.INSTANCE.compress(
+            input, 0, input.length, output.array(), output.arrayOffset() + Integer.BYTES);
+    output.writerIndex(Integer.BYTES + written);
+    int size = output.readableBytes();
+    output.release();
+    return size;
+  }
+
+  @Benchmark
+  public int decompressArrays() throws IOException {
+    ByteBuf input = compressed.duplicate();
+    int uncompressedLength = input.readInt();
+    byte[] bytes = CBUtil.readRawBytes(input);
+    ByteBuf output = CBUtil.allocator.heapBuffer(uncompressedLength);
+    output.writeBytes(
+        LZ4Compressor.INSTANCE.decompress(bytes, 0, bytes.length, uncompressedLength));
+    int size = output.readableBytes();
+    output.release();
+    return size;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder().include(FrameCompressionBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,48 @@
+package org.apache.cassandra.stargate.transport.internal.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.stargate.db.Result;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import org.apache.cassandra.stargate.transport.ProtocolVersion;
+import org.junit.jupiter.api.Test;
+
+public class ResultMessageTest {
+  private static final Result.ResultMetadata METADATA =
+      new Result.ResultMetadata(EnumSet.of(Result.Flag.NO_METADATA), 2, null, null, null);
+
+  private static ByteBuffer bytes(String value) {
+    return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void assertEncodedSizeIsExact(Result result) {
+    ResultMessage message = new ResultMessage(result);
+    ByteBuf buf = Unpooled.buffer();
+    ResultMessage.codec.encode(message, buf, ProtocolVersion.V4);
+    assertThat(ResultMessage.codec.encodedSize(message, ProtocolVersion.V4))
+        .isEqualTo(buf.readableBytes());
+  }
+
+  @Test
+  public void rowsEncodedSizeIncludesRowCount() {
+    List<List<ByteBuffer>> rows =
+        Arrays.asList(
+            Arrays.asList(bytes("a"), bytes("first")),
+            Arrays.asList(bytes("b"), null),
+            Arrays.asList(bytes("c"), ByteBuffer.allocate(0)));
+
+    assertEncodedSizeIsExact(new Result.Rows(rows, METADATA));
+  }
+
+  @Test
+  public void emptyRowsEncodedSizeIncludesRowCount() {
+    assertEncodedSizeIsExact(new Result.Rows(Collections.emptyList(), METADATA));
+  }
+}
@@ -28,6 +28,7 @@ import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.Row;
 import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Keyspace;
+import io.stargate.graphql.graphqlservlet.DocumentCache;
 import io.stargate.graphql.graphqlservlet.GraphqlCustomContextBuilder;
 import io.stargate.graphql.graphqlservlet.StargateGraphqlErrorHandler;
 import io.stargate.graphql.schema.SchemaFactory;
@@ -36,8 +37,8 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.regex.Pattern;
 import javax.servlet.Servlet;
 import javax.servlet.http.HttpServlet;
@@ -51,12 +52,22 @@ public class CustomGraphQLServlet extends HttpServlet implements Servlet, EventL
 
   private static final Logger LOG = LoggerFactory.getLogger(CustomGraphQLServlet.class);
   private static final Pattern KEYSPACE_NAME_PATTERN = Pattern.compile("\\w+");
+  // How long schema change events are coalesced before a keyspace's handler gets refreshed.
+  private static final long SCHEMA_REFRESH_DELAY_MS =
+      Long.getLong("stargate.graphql.schema_refresh_delay_ms", 500);
 
   private final Persistence persistence;
   private final AuthenticationService authenticationService;
   private final String defaultKeyspace;
 
-  private final ConcurrentMap<String, RequestHandlerReference> keyspaceHandlers;
+  private final ScheduledExecutorService schemaRefreshExecutor =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "graphql-schema-refresh");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final KeyspaceHandlers keyspaceHandlers;
 
   public CustomGraphQLServlet(
       Persistence persistence, AuthenticationService authenticationService) {
@@ -64,7 +75,13 @@ public class CustomGraphQLServlet extends HttpServlet implements Servlet, EventL
     this.authenticationService = authenticationService;
     DataStore dataStore = DataStore.create(persistence);
     this.defaultKeyspace = findDefaultKeyspace(dataStore);
-    this.keyspaceHandlers = initKeyspaceHandlers(persistence, dataStore, authenticationService);
+    this.keyspaceHandlers =
+        new KeyspaceHandlers(
+            name -> persistence.schema().keyspace(name),
+            keyspace -> new RequestHandlerReference(keyspace, persistence, authenticationService),
+            schemaRefreshExecutor,
+            SCHEMA_REFRESH_DELAY_MS);
+    initKeyspaceHandlers(dataStore);
 
     persistence.registerEventListener(this);
   }
@@ -85,7 +102,14 @@ public class CustomGraphQLServlet extends HttpServlet implements Servlet, EventL
       // Do not reflect back the value, to avoid XSS attacks
       response.setStatus(500);
     } else {
-      RequestHandlerReference requestHandlerRef = keyspaceHandlers.get(keyspaceName);
+      RequestHandlerReference requestHandlerRef;
+      try {
+        requestHandlerRef = keyspaceHandlers.get(keyspaceName);
+      } catch (Exception e) {
+        LOG.error("Error refreshing the GraphQL schema", e);
+        response.setStatus(500);
+        return;
+      }
       if (requestHandlerRef == null) {
         failOnUnknownKeyspace(keyspaceName, response);
       } else {
@@ -173,50 +197,39 @@ public class CustomGraphQLServlet extends HttpServlet implements Servlet, EventL
     }
   }
 
-  private static ConcurrentMap<String, RequestHandlerReference> initKeyspaceHandlers(
-      Persistence persistence, DataStore dataStore, AuthenticationService authenticationService) {
-
-    ConcurrentMap<String, RequestHandlerReference> map = new ConcurrentHashMap<>();
-
+  private void initKeyspaceHandlers(DataStore dataStore) {
     for (Keyspace keyspace : dataStore.schema().keyspaces()) {
       // TODO not sure about toLowerCase, check how case sensitive keyspaces are handled
       String keyspaceName = keyspace.name().toLowerCase();
       LOG.debug("Prepare handler for {}", keyspaceName);
-      map.put(
-          keyspaceName, new RequestHandlerReference(keyspace, persistence, authenticationService));
+      keyspaceHandlers.add(keyspaceName, keyspace);
     }
-    return map;
   }
 
+  /**
+   * Schedules the refresh of a keyspace's handler. See {@link KeyspaceHandlers} for how events are
+   * coalesced.
+   */
   private void addOrReplaceKeyspaceHandler(
       String keyspaceName, String reason, String... reasonArguments) {
+    boolean scheduled = keyspaceHandlers.scheduleRefresh(keyspaceName);
     if (LOG.isDebugEnabled()) {
       LOG.debug(
-          "Refreshing handler for keyspace {} because {}",
+          "{} refresh of handler for keyspace {} because {}",
+          scheduled ? "Scheduled" : "Coalesced",
           keyspaceName,
           String.format(reason, reasonArguments));
     }
-    try {
-      DataStore dataStore = DataStore.create(persistence);
-      Keyspace keyspace = dataStore.schema().keyspace(keyspaceName);
-      if (keyspace == null) {
-        // This happens when come from a notification for a keyspace that was just dropped
-        LOG.debug("Removing handler for keyspace {} because it was dropped", keyspaceName);
-        keyspaceHandlers.remove(keyspaceName);
-      } else {
-        keyspaceHandlers.put(
-            keyspaceName,
-            new RequestHandlerReference(keyspace, persistence, authenticationService));
-      }
-      LOG.debug("Done refreshing handler for keyspace {}", keyspaceName);
-    } catch (Exception e) {
-      LOG.error("Error while refreshing handler for keyspace {}", keyspaceName, e);
-    }
+  }
+
+  @Override
+  public void destroy() {
+    schemaRefreshExecutor.shutdownNow();
+    super.destroy();
   }
 
   // Schema change callbacks: we refresh a keyspace whenever it gets created or dropped, or anything
   // inside it changes.
-  // TODO maybe add debouncing mechanism to amortize quick event bursts
 
   @Override
   public void onCreateKeyspace(String keyspaceName) {
@@ -349,6 +362,8 @@ public class CustomGraphQLServlet extends HttpServlet implements Servlet, EventL
                   GraphQLQueryInvoker.newBuilder()
                       .withExecutionStrategyProvider(
                           new DefaultExecutionStrategyProvider(new AsyncExecutionStrategy()))
+                      // Bound to this schema: replacing the handler also drops the cache
+                      .withPreparsedDocumentProvider(new DocumentCache())
                       .build())
               .with(new GraphqlCustomContextBuilder())
               .with(
@@ -0,0 +1,165 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package graphql.kickstart.servlet;
+
+import graphql.kickstart.servlet.CustomGraphQLServlet.RequestHandlerReference;
+import io.stargate.db.schema.Keyspace;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The request handlers of the keyspaces exposed by {@link CustomGraphQLServlet}, refreshed when
+ * their schema changes.
+ *
+ * <p>Schema change events are coalesced: the first event for a keyspace schedules a refresh after
+ * a short delay, and the events that arrive before it runs are folded into it, so that a burst of
+ * DDL statements only causes one rebuild. That rebuild happens in the background, while the
+ * previous handler keeps serving requests.
+ *
+ * <p>However, a request never gets a handler that is older than the last notified change: if it
+ * targets a keyspace with a pending refresh, or a keyspace that exists but has no handler yet, the
+ * refresh runs right away on the request thread. This way clients can read their own DDL changes.
+ */
+class KeyspaceHandlers {
+  private static final Logger LOG = LoggerFactory.getLogger(KeyspaceHandlers.class);
+
+  private final Function<String, Keyspace> keyspaceLookup;
+  private final Function<Keyspace, RequestHandlerReference> handlerFactory;
+  private final ScheduledExecutorService executor;
+  private final long refreshDelayMillis;
+
+  private final ConcurrentMap<String, RequestHandlerReference> handlers = new ConcurrentHashMap<>();
+  // The keyspaces that had a change notified since their handler was last built.
+  private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+  // Refreshes of a keyspace are serialized, but don't wait for those of other keyspaces. Locks are
+  // never removed, as there are only as many as the keyspaces that ever got a handler.
+  private final ConcurrentMap<String, Object> refreshLocks = new ConcurrentHashMap<>();
+
+  /**
+   * @param keyspaceLookup returns the current definition of a keyspace, or null if it doesn't
+   *     exist.
+   * @param handlerFactory creates the (lazy) handler of a keyspace.
+   * @param executor the executor that runs the background refreshes.
+   * @param refreshDelayMillis how long events are coalesced before a refresh.
+   */
+  KeyspaceHandlers(
+      Function<String, Keyspace> keyspaceLookup,
+      Function<Keyspace, RequestHandlerReference> handlerFactory,
+      ScheduledExecutorService executor,
+      long refreshDelayMillis) {
+    this.keyspaceLookup = keyspaceLookup;
+    this.handlerFactory = handlerFactory;
+    this.executor = executor;
+    this.refreshDelayMillis = refreshDelayMillis;
+  }
+
+  /** Registers the handler of a keyspace; its schema will be built the first time it's queried. */
+  void add(String keyspaceName, Keyspace keyspace) {
+    handlers.put(keyspaceName, handlerFactory.apply(keyspace));
+  }
+
+  /** Returns the up-to-date handler of a keyspace, or null if the keyspace doesn't exist. */
+  RequestHandlerReference get(String keyspaceName) {
+    RequestHandlerReference handler = handlers.get(keyspaceName);
+    boolean pending = pendingRefreshes.contains(keyspaceName);
+    if (handler != null && !pending) {
+      return handler;
+    }
+    if (handler == null && !pending && keyspaceLookup.apply(keyspaceName) == null) {
+      return null;
+    }
+    return refresh(keyspaceName);
+  }
+
+  /**
+   * Schedules the refresh of a keyspace's handler.
+   *
+   * @return whether a new refresh was scheduled (false if the event was coalesced into a pending
+   *     one).
+   */
+  boolean scheduleRefresh(String keyspaceName) {
+    if (!pendingRefreshes.add(keyspaceName)) {
+      return false;
+    }
+    try {
+      executor.schedule(
+          () -> {
+            try {
+              refresh(keyspaceName);
+            } catch (Exception e) {
+              LOG.error("Error while refreshing handler for keyspace {}", keyspaceName, e);
+            }
+          },
+          refreshDelayMillis,
+          TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // We're shutting down. Leave the keyspace pending so that requests refresh it themselves.
+    }
+    return true;
+  }
+
+  RequestHandlerReference remove(String keyspaceName) {
+    return handlers.remove(keyspaceName);
+  }
+
+  void remove(String keyspaceName, RequestHandlerReference handler) {
+    handlers.remove(keyspaceName, handler);
+  }
+
+  private RequestHandlerReference refresh(String keyspaceName) {
+    synchronized (refreshLocks.computeIfAbsent(keyspaceName, k -> new Object())) {
+      return refreshLocked(keyspaceName);
+    }
+  }
+
+  private RequestHandlerReference refreshLocked(String keyspaceName) {
+    RequestHandlerReference current = handlers.get(keyspaceName);
+    if (current != null && !pendingRefreshes.contains(keyspaceName)) {
+      // Another request, or the scheduled refresh, got there first
+      return current;
+    }
+    // Any event received from now on might not be reflected in the schema we're about to read, so
+    // it must trigger another refresh.
+    pendingRefreshes.remove(keyspaceName);
+
+    LOG.debug("Refreshing handler for keyspace {}", keyspaceName);
+    Keyspace keyspace = keyspaceLookup.apply(keyspaceName);
+    if (keyspace == null) {
+      // This happens when come from a notification for a keyspace that was just dropped
+      LOG.debug("Removing handler for keyspace {} because it was dropped", keyspaceName);
+      handlers.remove(keyspaceName);
+      return null;
+    }
+    RequestHandlerReference handler = handlerFactory.apply(keyspace);
+    // Build the new schema before installing the handler. If that fails, the handler is still
+    // installed, and the error will surface (and be retried) when it's queried.
+    try {
+      handler.get();
+    } catch (Exception e) {
+      LOG.warn("Error building the GraphQL schema for keyspace {}", keyspaceName, e);
+    }
+    handlers.put(keyspaceName, handler);
+    LOG.debug("Done refreshing handler for keyspace {}", keyspaceName);
+    return handler;
+  }
+}
@@ -16,9 +16,11 @@
 package graphql.kickstart.servlet;
 
 import graphql.kickstart.execution.GraphQLObjectMapper;
+import graphql.kickstart.execution.GraphQLQueryInvoker;
 import graphql.schema.GraphQLSchema;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.db.Persistence;
+import io.stargate.graphql.graphqlservlet.DocumentCache;
 import io.stargate.graphql.graphqlservlet.GraphqlCustomContextBuilder;
 import io.stargate.graphql.graphqlservlet.StargateGraphqlErrorHandler;
 import io.stargate.graphql.schema.SchemaFactory;
@@ -36,6 +38,10 @@ public class SchemaGraphQLServlet extends SimpleGraphQLHttpServlet {
   @Override
   protected GraphQLConfiguration getConfiguration() {
     return GraphQLConfiguration.with(createSchema())
+        .with(
+            GraphQLQueryInvoker.newBuilder()
+                .withPreparsedDocumentProvider(new DocumentCache())
+                .build())
         .with(new GraphqlCustomContextBuilder())
         .with(
             GraphQLObjectMapper.newBuilder()
@@ -15,6 +15,7 @@
  */
 package io.stargate.graphql;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.servlet.InstrumentedFilter;
 import graphql.kickstart.servlet.CustomGraphQLServlet;
@@ -22,6 +23,8 @@ import graphql.kickstart.servlet.SchemaGraphQLServlet;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.Persistence;
+import io.stargate.db.datastore.PreparedStatementCache;
+import io.stargate.graphql.schema.fetchers.CassandraFetcher;
 import java.io.IOException;
 import java.util.EnumSet;
 import javax.servlet.DispatcherType;
@@ -35,10 +38,17 @@ import org.osgi.framework.FrameworkUtil;
 
 public class WebImpl {
 
+  private static final String PREPARED_CACHE_HITS = "prepared-statement-cache.hits";
+  private static final String PREPARED_CACHE_MISSES = "prepared-statement-cache.misses";
+  private static final String PREPARED_CACHE_SIZE = "prepared-statement-cache.size";
+
   private final Server server;
+  private final Persistence persistence;
+  private final MetricRegistry metricRegistry;
 
   public WebImpl(Persistence persistence, Metrics metrics, AuthenticationService authentication)
       throws IOException {
+    this.persistence = persistence;
     server = new Server();
 
     ServerConnector connector = new ServerConnector(server);
@@ -78,9 +88,16 @@ public class WebImpl {
         .addFilter(InstrumentedFilter.class, "/graphql-schema/*", allDispatcherTypes)
         .setInitParameter("name-prefix", "io.stargate.GraphQLSchema");
 
-    MetricRegistry metricRegistry = metrics.getRegistry("graphql");
+    metricRegistry = metrics.getRegistry("graphql");
     context.setAttribute(InstrumentedFilter.REGISTRY_ATTRIBUTE, metricRegistry);
 
+    // The cache is shared by all the APIs using the persistence, so these are the same counts as
+    // the REST API ones.
+    PreparedStatementCache preparedCache = PreparedStatementCache.forPersistence(persistence);
+    metricRegistry.register(PREPARED_CACHE_HITS, (Gauge<Long>) preparedCache::hitCount);
+    metricRegistry.register(PREPARED_CACHE_MISSES, (Gauge<Long>) preparedCache::missCount);
+    metricRegistry.register(PREPARED_CACHE_SIZE, (Gauge<Long>) preparedCache::size);
+
     server.setHandler(context);
   }
 
@@ -92,5 +109,11 @@ public class WebImpl {
     if (server != null) {
       server.stop();
     }
+    CassandraFetcher.releaseConnections(persistence);
+    CassandraFetcher.shutdownResultExecutor();
+    // The registry outlives this server, and registering a gauge again would fail on restart.
+    metricRegistry.remove(PREPARED_CACHE_HITS);
+    metricRegistry.remove(PREPARED_CACHE_MISSES);
+    metricRegistry.remove(PREPARED_CACHE_SIZE);
   }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.graphql.graphqlservlet;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Caches parsed and validated GraphQL documents, so that the queries that clients send repeatedly
+ * are only parsed and validated once.
+ *
+ * <p>An instance must only be used with a single GraphQL schema: when a keyspace's schema changes,
+ * the servlet builds a new handler with a new cache, and the old entries go away with the old one.
+ *
+ * <p>This also implements the <a
+ * href="https://github.com/apollographql/apollo-link-persisted-queries">persisted queries</a>
+ * protocol: a client can send {@code extensions: { persistedQuery: { sha256Hash: "..." } }}
+ * instead of the query text. If the hash is unknown, the request fails with a {@code
+ * PersistedQueryNotFound} error, and the client is expected to retry with both the text and the
+ * hash, which registers the query.
+ */
+public class DocumentCache implements PreparsedDocumentProvider {
+
+  private static final long MAX_DOCUMENTS =
+      Long.getLong("stargate.graphql.document_cache.max_size", 1000);
+  private static final long MAX_PERSISTED_QUERIES =
+      Long.getLong("stargate.graphql.persisted_queries.max_size", 10_000);
+
+  static final String PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+
+  // The text of a query doesn't depend on the schema, so this is shared by all instances.
+  private static final Cache<String, String> PERSISTED_QUERIES =
+      CacheBuilder.newBuilder().maximumSize(MAX_PERSISTED_QUERIES).build();
+
+  private final Cache<String, PreparsedDocumentEntry> documents =
+      CacheBuilder.newBuilder().maximumSize(MAX_DOCUMENTS).build();
+
+  @Override
+  public PreparsedDocumentEntry getDocument(
+      ExecutionInput executionInput,
+      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+
+    String query = executionInput.getQuery();
+    String hash = getPersistedQueryHash(executionInput);
+    if (hash != null) {
+      if (query == null || query.isEmpty()) {
+        query = PERSISTED_QUERIES.getIfPresent(hash);
+        if (query == null) {
+          return new PreparsedDocumentEntry(
+              GraphqlErrorBuilder.newError().message(PERSISTED_QUERY_NOT_FOUND).build());
+        }
+        String persistedQuery = query;
+        executionInput = executionInput.transform(builder -> builder.query(persistedQuery));
+      } else if (hash.equals(sha256(query))) {
+        PERSISTED_QUERIES.put(hash, query);
+      } else {
+        return new PreparsedDocumentEntry(
+            GraphqlErrorBuilder.newError()
+                .message("The persisted query hash does not match the query")
+                .build());
+      }
+    }
+
+    ExecutionInput input = executionInput;
+    try {
+      return documents.get(query, () -> parseAndValidateFunction.apply(input));
+    } catch (ExecutionException e) {
+      // Parse and validation errors are returned in the entry, so this is unexpected
+      throw new IllegalStateException("Error while parsing the query", e.getCause());
+    }
+  }
+
+  private static String getPersistedQueryHash(ExecutionInput executionInput) {
+    Map<String, Object> extensions = executionInput.getExtensions();
+    Object persistedQuery = extensions == null ? null : extensions.get("persistedQuery");
+    if (persistedQuery instanceof Map) {
+      Object hash = ((Map<?, ?>) persistedQuery).get("sha256Hash");
+      if (hash instanceof String) {
+        return (String) hash;
+      }
+    }
+    return null;
+  }
+
+  static String sha256(String query) {
+    return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+  }
+}
@@ -19,13 +19,20 @@ import graphql.kickstart.execution.context.GraphQLContext;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.impl.DefaultClaims;
+import io.stargate.auth.AuthenticationService;
+import io.stargate.auth.StoredCredentials;
+import io.stargate.auth.UnauthorizedException;
+import io.stargate.db.Persistence;
 import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.PreparedStatement;
 import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.datastore.RoleConnectionCache;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import javax.security.auth.Subject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -48,6 +55,9 @@ public class HTTPAwareContextImpl implements GraphQLContext {
   // For more information.
   private final BatchContext batchContext = new BatchContext();
 
+  // The fetchers of all the selections of the request share the same authenticated connection.
+  private final ConnectionContext connectionContext = new ConnectionContext(this::getAuthToken);
+
   private static final String HEADER = "Authorization";
   private static final String PREFIX = "Bearer ";
 
@@ -116,12 +126,64 @@ public class HTTPAwareContextImpl implements GraphQLContext {
     return batchContext;
   }
 
+  public ConnectionContext getConnectionContext() {
+    return connectionContext;
+  }
+
+  /**
+   * Resolves the credentials of a request, and the connection logged in with them, the first time
+   * a fetcher of that request needs them, so that they are shared by all the other fetchers.
+   */
+  public static class ConnectionContext {
+    private final Supplier<String> authToken;
+
+    // All guarded by this
+    private StoredCredentials storedCredentials;
+    private UnauthorizedException authenticationFailure;
+    private Persistence.Connection connection;
+
+    public ConnectionContext(Supplier<String> authToken) {
+      this.authToken = authToken;
+    }
+
+    /**
+     * Returns the credentials for the auth token of the request. The token is only validated on the
+     * first call (a failure is also remembered for the rest of the request).
+     */
+    public synchronized StoredCredentials getStoredCredentials(
+        AuthenticationService authenticationService) throws UnauthorizedException {
+      if (storedCredentials == null) {
+        if (authenticationFailure != null) {
+          throw authenticationFailure;
+        }
+        try {
+          storedCredentials = authenticationService.validateToken(authToken.get());
+        } catch (UnauthorizedException e) {
+          authenticationFailure = e;
+          throw e;
+        }
+      }
+      return storedCredentials;
+    }
+
+    /** Returns the connection logged in as the role of the {@link #getStoredCredentials}. */
+    public synchronized Persistence.Connection getConnection(
+        AuthenticationService authenticationService, RoleConnectionCache connections)
+        throws UnauthorizedException {
+      if (connection == null) {
+        connection =
+            connections.connection(getStoredCredentials(authenticationService).getRoleName());
+      }
+      return connection;
+    }
+  }
+
   /**
    * Encapsulates logic to add multiple statements contained in the same operation that need to be
    * executed in a batch.
    */
   public static class BatchContext {
-    private final List<String> statements = new ArrayList<>();
+    private final List<CompletableFuture<PreparedStatement.Bound>> statements = new ArrayList<>();
     private final CompletableFuture<ResultSet> executionFuture = new CompletableFuture<>();
     private AtomicReference<DataStore> dataStore = new AtomicReference<>();
 
@@ -129,7 +191,7 @@ public class HTTPAwareContextImpl implements GraphQLContext {
       return executionFuture;
     }
 
-    public synchronized List<String> getStatements() {
+    public synchronized List<CompletableFuture<PreparedStatement.Bound>> getStatements() {
       return statements;
     }
 
@@ -148,8 +210,8 @@ public class HTTPAwareContextImpl implements GraphQLContext {
       executionFuture.completeExceptionally(ex);
     }
 
-    public synchronized int add(String query) {
-      statements.add(query);
+    public synchronized int add(CompletableFuture<PreparedStatement.Bound> statement) {
+      statements.add(statement);
       return statements.size();
     }
 
@@ -3,39 +3,123 @@ package io.stargate.graphql.schema.fetchers;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import io.stargate.auth.AuthenticationService;
-import io.stargate.auth.StoredCredentials;
 import io.stargate.db.ImmutableParameters;
 import io.stargate.db.Parameters;
 import io.stargate.db.Persistence;
+import io.stargate.db.Workload;
 import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.RoleConnectionCache;
 import io.stargate.graphql.graphqlservlet.HTTPAwareContextImpl;
 import java.nio.ByteBuffer;
 import java.util.Base64;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 
 /** Base class for fetchers that access the Cassandra backend. It also handles authentication. */
 public abstract class CassandraFetcher<ResultT> implements DataFetcher<ResultT> {
 
+  private static final Parameters DEFAULT_PARAMETERS =
+      Parameters.builder().workload(Workload.GRAPHQL).build();
+
+  private static final int RESULT_THREADS =
+      Integer.getInteger(
+          "stargate.graphql.fetcher_threads", Runtime.getRuntime().availableProcessors());
+  private static final int RESULT_QUEUE_SIZE =
+      Integer.getInteger("stargate.graphql.fetcher_queue_size", 1024);
+  private static final AtomicInteger RESULT_THREAD_ID = new AtomicInteger();
+
+  // Created on first use, and shut down by shutdownResultExecutor() when the GraphQL API stops.
+  private static volatile ExecutorService resultExecutor;
+
+  /**
+   * The executor on which asynchronous fetchers complete their results. graphql-java resumes the
+   * execution of a request on the thread that completes a fetcher's future, so this keeps that work
+   * off the persistence threads.
+   *
+   * <p>Its queue is bounded: once full, or after the executor was shut down, results are completed
+   * on the calling thread instead, so that a fetcher's future always completes.
+   */
+  protected static Executor resultExecutor() {
+    ExecutorService executor = resultExecutor;
+    return executor != null ? executor : createResultExecutor();
+  }
+
+  private static synchronized ExecutorService createResultExecutor() {
+    if (resultExecutor == null) {
+      resultExecutor =
+          new ThreadPoolExecutor(
+              RESULT_THREADS,
+              RESULT_THREADS,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(RESULT_QUEUE_SIZE),
+              r -> {
+                Thread thread =
+                    new Thread(r, "graphql-fetcher-" + RESULT_THREAD_ID.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              },
+              (task, executor) -> task.run());
+    }
+    return resultExecutor;
+  }
+
+  /**
+   * Stops the threads of the result executor, to call once the GraphQL API is stopped. It is
+   * re-created if fetchers are used again.
+   */
+  public static synchronized void shutdownResultExecutor() {
+    if (resultExecutor != null) {
+      resultExecutor.shutdown();
+      resultExecutor = null;
+    }
+  }
+
+  // Fetchers get re-created every time the GraphQL schema is rebuilt, so the logged-in connections
+  // are shared by all of them. Entries are removed by releaseConnections() when the persistence
+  // stops being used.
+  private static final ConcurrentMap<Persistence, RoleConnectionCache> CONNECTIONS =
+      new ConcurrentHashMap<>();
+
   protected final Persistence persistence;
   protected final AuthenticationService authenticationService;
+  private final RoleConnectionCache connections;
 
   public CassandraFetcher(Persistence persistence, AuthenticationService authenticationService) {
     this.persistence = persistence;
     this.authenticationService = authenticationService;
+    this.connections = CONNECTIONS.computeIfAbsent(persistence, RoleConnectionCache::new);
+  }
+
+  /**
+   * Discards the connections opened on the provided persistence, to call once it is no longer used
+   * by the GraphQL API.
+   */
+  public static void releaseConnections(Persistence persistence) {
+    RoleConnectionCache connections = CONNECTIONS.remove(persistence);
+    if (connections != null) {
+      connections.invalidateAll();
+    }
   }
 
   @Override
   public final ResultT get(DataFetchingEnvironment environment) throws Exception {
     HTTPAwareContextImpl httpAwareContext = environment.getContext();
-
-    String token = httpAwareContext.getAuthToken();
-    StoredCredentials storedCredentials = authenticationService.validateToken(token);
+    Persistence.Connection connection =
+        httpAwareContext.getConnectionContext().getConnection(authenticationService, connections);
 
     Parameters parameters;
     Map<String, Object> options = environment.getArgument("options");
     if (options != null) {
-      ImmutableParameters.Builder builder = Parameters.builder();
+      ImmutableParameters.Builder builder = Parameters.builder().workload(Workload.GRAPHQL);
 
       Object consistency = options.get("consistency");
       if (consistency != null) {
@@ -59,11 +143,10 @@ public abstract class CassandraFetcher<ResultT> implements DataFetcher<ResultT>
 
       parameters = builder.build();
     } else {
-      parameters = Parameters.defaults();
+      parameters = DEFAULT_PARAMETERS;
     }
 
-    DataStore dataStore =
-        DataStore.create(persistence, storedCredentials.getRoleName(), parameters);
+    DataStore dataStore = DataStore.create(connection, parameters);
     return get(environment, dataStore);
   }
 
@@ -24,20 +24,21 @@ import io.stargate.db.datastore.DataStore;
 import io.stargate.graphql.schema.fetchers.CassandraFetcher;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Base class for fetchers that execute a single DDL query, such as a CREATE KEYSPACE or DROP TABLE.
  */
-public abstract class DdlQueryFetcher extends CassandraFetcher<Boolean> {
+public abstract class DdlQueryFetcher extends CassandraFetcher<CompletableFuture<Boolean>> {
 
   protected DdlQueryFetcher(Persistence persistence, AuthenticationService authenticationService) {
     super(persistence, authenticationService);
   }
 
   @Override
-  protected Boolean get(DataFetchingEnvironment environment, DataStore dataStore) throws Exception {
-    dataStore.query(getQuery(environment)).get();
-    return true;
+  protected CompletableFuture<Boolean> get(
+      DataFetchingEnvironment environment, DataStore dataStore) {
+    return dataStore.query(getQuery(environment)).thenApplyAsync(rs -> true, resultExecutor());
   }
 
   abstract String getQuery(DataFetchingEnvironment dataFetchingEnvironment);
@@ -18,15 +18,16 @@ package io.stargate.graphql.schema.fetchers.dml;
 import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.data.UdtValue;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
-import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
-import com.datastax.oss.driver.api.querybuilder.term.Term;
 import io.stargate.db.datastore.Row;
 import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Table;
 import io.stargate.db.schema.UserDefinedType;
 import io.stargate.graphql.schema.NameMapping;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,98 +36,78 @@ import java.util.stream.Collectors;
 class DataTypeMapping {
 
   /**
-   * Converts a value coming from the GraphQL runtime into a term that can be used with {@link
-   * QueryBuilder}.
+   * Converts a value coming from the GraphQL runtime into a java value that can be bound to a CQL
+   * query for the provided type.
    */
-  static Term toCqlTerm(Column.ColumnType type, Object value, NameMapping nameMapping) {
-    StringBuilder raw = new StringBuilder();
-    format(type, value, nameMapping, raw);
-    return QueryBuilder.raw(raw.toString());
-  }
-
-  private static void format(
-      Column.ColumnType type, Object value, NameMapping nameMapping, StringBuilder out) {
+  static Object toDBValue(Column.ColumnType type, Object value, NameMapping nameMapping) {
+    if (value == null) {
+      return null;
+    }
     if (type.isCollection()) {
       if (type.rawType() == Column.Type.List) {
-        formatElements(type.parameters().get(0), (Collection<?>) value, '[', ']', nameMapping, out);
+        return toDBElements(
+            type.parameters().get(0), (Collection<?>) value, new ArrayList<>(), nameMapping);
       } else if (type.rawType() == Column.Type.Set) {
-        formatElements(type.parameters().get(0), (Collection<?>) value, '{', '}', nameMapping, out);
+        return toDBElements(
+            type.parameters().get(0), (Collection<?>) value, new LinkedHashSet<>(), nameMapping);
       } else if (type.rawType() == Column.Type.Map) {
-        formatMap(type, value, nameMapping, out);
+        return toDBMap(type, value, nameMapping);
       } else {
         throw new AssertionError("Invalid collection type " + type);
       }
     } else if (type.isUserDefined()) {
-      formatUdt((UserDefinedType) type, value, nameMapping, out);
+      return toDBUdt((UserDefinedType) type, value, nameMapping);
     } else if (type.isTuple()) {
       throw new UnsupportedOperationException("Tuple support is not implemented yet");
     } else { // primitive
-      @SuppressWarnings("unchecked")
-      TypeCodec<Object> codec = type.codec();
-      out.append(codec.format(value));
+      return value;
     }
   }
 
-  private static void formatElements(
+  private static <C extends Collection<Object>> C toDBElements(
       Column.ColumnType elementType,
       Collection<?> elements,
-      char startChar,
-      char endChar,
-      NameMapping nameMapping,
-      StringBuilder out) {
-    out.append(startChar);
-    boolean first = true;
+      C out,
+      NameMapping nameMapping) {
     for (Object element : elements) {
-      if (first) {
-        first = false;
-      } else {
-        out.append(',');
-      }
-      format(elementType, element, nameMapping, out);
+      out.add(toDBValue(elementType, element, nameMapping));
     }
-    out.append(endChar);
+    return out;
   }
 
-  private static void formatMap(
-      Column.ColumnType type, Object value, NameMapping nameMapping, StringBuilder out) {
-    out.append('{');
+  private static Map<Object, Object> toDBMap(
+      Column.ColumnType type, Object value, NameMapping nameMapping) {
     @SuppressWarnings("unchecked")
     Collection<Map<String, Object>> entries = (Collection<Map<String, Object>>) value;
     Column.ColumnType keyType = type.parameters().get(0);
     Column.ColumnType valueType = type.parameters().get(1);
-    boolean first = true;
+    Map<Object, Object> map = new LinkedHashMap<>(entries.size());
     for (Map<String, Object> entry : entries) {
-      if (first) {
-        first = false;
-      } else {
-        out.append(',');
-      }
-      format(keyType, entry.get("key"), nameMapping, out);
-      out.append(':');
-      format(valueType, entry.get("value"), nameMapping, out);
+      map.put(
+          toDBValue(keyType, entry.get("key"), nameMapping),
+          toDBValue(valueType, entry.get("value"), nameMapping));
     }
-    out.append('}');
+    return map;
   }
 
-  private static void formatUdt(
-      UserDefinedType type, Object value, NameMapping nameMapping, StringBuilder out) {
-    type = type.frozen(false);
-    out.append('{');
+  private static UdtValue toDBUdt(UserDefinedType type, Object value, NameMapping nameMapping) {
+    // The name mapping is keyed by the non-frozen type, but the value must match the column type.
+    UserDefinedType udt = type.frozen(false);
+    UdtValue udtValue = type.create();
     @SuppressWarnings("unchecked")
     Map<String, Object> object = (Map<String, Object>) value;
-    boolean first = true;
     for (Map.Entry<String, Object> entry : object.entrySet()) {
-      if (first) {
-        first = false;
-      } else {
-        out.append(',');
-      }
-      String fieldName = nameMapping.getCqlName(type, entry.getKey());
-      Column.ColumnType fieldType = type.fieldType(fieldName);
-      out.append('"').append(fieldName).append("\":");
-      format(fieldType, entry.getValue(), nameMapping, out);
+      String fieldName = nameMapping.getCqlName(udt, entry.getKey());
+      Column.ColumnType fieldType = udt.fieldType(fieldName);
+      @SuppressWarnings("unchecked")
+      TypeCodec<Object> codec = fieldType.codec();
+      udtValue =
+          udtValue.set(
+              CqlIdentifier.fromInternal(fieldName),
+              toDBValue(fieldType, entry.getValue(), nameMapping),
+              codec);
     }
-    out.append('}');
+    return udtValue;
   }
 
   /** Converts result Row into a map suitable to serve it via GraphQL. */
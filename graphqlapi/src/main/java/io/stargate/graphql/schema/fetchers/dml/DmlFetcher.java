@@ -1,9 +1,10 @@
 package io.stargate.graphql.schema.fetchers.dml;
 
+import com.datastax.oss.driver.api.querybuilder.BindMarker;
+import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
 import com.datastax.oss.driver.api.querybuilder.condition.Condition;
 import com.datastax.oss.driver.api.querybuilder.relation.ColumnRelationBuilder;
 import com.datastax.oss.driver.api.querybuilder.relation.Relation;
-import com.datastax.oss.driver.api.querybuilder.term.Term;
 import com.google.common.collect.ImmutableList;
 import graphql.schema.DataFetchingEnvironment;
 import io.stargate.auth.AuthenticationService;
@@ -17,8 +18,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * Base class for the fetchers that execute DML queries.
+ *
+ * <p>The generated CQL never inlines the values coming from the GraphQL operation: each value is
+ * replaced by a bind marker and collected (in marker order) in a {@code values} list, so that all
+ * operations with the same shape share the same query string, and thus the same prepared
+ * statement.
+ */
 public abstract class DmlFetcher<ResultT> extends CassandraFetcher<ResultT> {
 
   protected final Table table;
@@ -35,7 +43,7 @@ public abstract class DmlFetcher<ResultT> extends CassandraFetcher<ResultT> {
   }
 
   protected List<Condition> buildIfConditions(
-      Table table, Map<String, Map<String, Object>> columnList) {
+      Table table, Map<String, Map<String, Object>> columnList, List<Object> values) {
     if (columnList == null) {
       return ImmutableList.of();
     }
@@ -46,11 +54,11 @@ public abstract class DmlFetcher<ResultT> extends CassandraFetcher<ResultT> {
       for (Map.Entry<String, Object> condition : clauseEntry.getValue().entrySet()) {
         if (condition.getKey().equals("in")) {
           clause.add(
-              Condition.column(column.name()).in(buildListLiterals(column, condition.getValue())));
+              Condition.column(column.name()).in(bindList(column, condition.getValue(), values)));
           continue;
         }
 
-        Term dbValue = toCqlTerm(column, condition.getValue());
+        BindMarker dbValue = bind(column, condition.getValue(), values);
         switch (condition.getKey()) {
           case "eq":
             clause.add(Condition.column(column.name()).isEqualTo(dbValue));
@@ -71,24 +79,29 @@ public abstract class DmlFetcher<ResultT> extends CassandraFetcher<ResultT> {
             clause.add(Condition.column(column.name()).isLessThanOrEqualTo(dbValue));
             break;
           default:
-            break;
+            throw new IllegalStateException("Unsupported condition type " + condition.getKey());
         }
       }
     }
     return clause;
   }
 
-  private List<Term> buildListLiterals(Column column, Object o) {
+  /** Binds the values of an IN relation or condition as a single list value. */
+  private BindMarker bindList(Column column, Object o, List<Object> values) {
+    List<Object> list = new ArrayList<>();
     if (o instanceof Collection<?>) {
-      Collection<?> values = (Collection<?>) o;
-      return values.stream().map(item -> toCqlTerm(column, item)).collect(Collectors.toList());
+      for (Object item : (Collection<?>) o) {
+        list.add(toDBValue(column.type(), item));
+      }
+    } else {
+      list.add(toDBValue(column.type(), o));
     }
-
-    return Collections.singletonList(toCqlTerm(column, o));
+    values.add(list);
+    return QueryBuilder.bindMarker();
   }
 
   protected List<Relation> buildFilterConditions(
-      Table table, Map<String, Map<String, Object>> columnList) {
+      Table table, Map<String, Map<String, Object>> columnList, List<Object> values) {
     if (columnList == null) {
       return ImmutableList.of();
     }
@@ -100,22 +113,22 @@ public abstract class DmlFetcher<ResultT> extends CassandraFetcher<ResultT> {
         ColumnRelationBuilder<Relation> relationStart = Relation.column(column.name());
         Relation relation;
         if (condition.getKey().equals("in")) {
-          relation = relationStart.in(buildListLiterals(column, condition.getValue()));
+          relation = relationStart.in(bindList(column, condition.getValue(), values));
         } else if (condition.getKey().equals("contains")) {
-          relation = relationStart.contains(toCqlElementTerm(column, condition.getValue()));
+          relation = relationStart.contains(bindElement(column, condition.getValue(), values));
         } else if (condition.getKey().equals("containsKey")) {
-          relation = relationStart.containsKey(toCqlKeyTerm(column, condition.getValue()));
+          relation = relationStart.containsKey(bindKey(column, condition.getValue(), values));
         } else if (condition.getKey().equals("containsEntry")) {
           Column.ColumnType mapType = column.type();
           assert mapType != null && mapType.isMap();
           Map<String, Object> entry = (Map<String, Object>) condition.getValue();
           Column.ColumnType keyType = mapType.parameters().get(0);
-          Term keyTerm = toCqlTerm(keyType, entry.get("key"));
+          BindMarker keyMarker = bind(keyType, entry.get("key"), values);
           Column.ColumnType valueType = mapType.parameters().get(1);
-          Term valueTerm = toCqlTerm(valueType, entry.get("value"));
-          relation = Relation.mapValue(column.name(), keyTerm).isEqualTo(valueTerm);
+          BindMarker valueMarker = bind(valueType, entry.get("value"), values);
+          relation = Relation.mapValue(column.name(), keyMarker).isEqualTo(valueMarker);
         } else {
-          Term rightTerm = toCqlTerm(column, condition.getValue());
+          BindMarker rightTerm = bind(column, condition.getValue(), values);
           switch (condition.getKey()) {
             case "eq":
               relation = relationStart.isEqualTo(rightTerm);
@@ -145,10 +158,11 @@ public abstract class DmlFetcher<ResultT> extends CassandraFetcher<ResultT> {
     return relations;
   }
 
-  protected List<Relation> buildClause(Table table, DataFetchingEnvironment environment) {
+  protected List<Relation> buildClause(
+      Table table, DataFetchingEnvironment environment, List<Object> values) {
     if (environment.containsArgument("filter")) {
       Map<String, Map<String, Object>> columnList = environment.getArgument("filter");
-      return buildFilterConditions(table, columnList);
+      return buildFilterConditions(table, columnList, values);
     } else {
       Map<String, Object> value = environment.getArgument("value");
       List<Relation> relations = new ArrayList<>();
@@ -157,7 +171,7 @@ public abstract class DmlFetcher<ResultT> extends CassandraFetcher<ResultT> {
       for (Map.Entry<String, Object> entry : value.entrySet()) {
         Column column = getColumn(table, entry.getKey());
         relations.add(
-            Relation.column(column.name()).isEqualTo(toCqlTerm(column, entry.getValue())));
+            Relation.column(column.name()).isEqualTo(bind(column, entry.getValue(), values)));
       }
       return relations;
     }
@@ -176,25 +190,34 @@ public abstract class DmlFetcher<ResultT> extends CassandraFetcher<ResultT> {
     return table.column(columnName);
   }
 
-  protected Term toCqlTerm(Column column, Object value) {
-    return toCqlTerm(column.type(), value);
+  /**
+   * Converts the provided GraphQL value for the column, adds it to {@code values} and returns the
+   * bind marker to use in its place.
+   */
+  protected BindMarker bind(Column column, Object value, List<Object> values) {
+    return bind(column.type(), value, values);
   }
 
-  private Term toCqlElementTerm(Column column, Object value) {
+  private BindMarker bindElement(Column column, Object value, List<Object> values) {
     Column.ColumnType collectionType = column.type();
     assert collectionType != null && collectionType.isCollection();
     Column.ColumnType elementType = collectionType.parameters().get(collectionType.isMap() ? 1 : 0);
-    return toCqlTerm(elementType, value);
+    return bind(elementType, value, values);
   }
 
-  private Term toCqlKeyTerm(Column column, Object value) {
+  private BindMarker bindKey(Column column, Object value, List<Object> values) {
     Column.ColumnType mapType = column.type();
     assert mapType != null && mapType.isMap();
     Column.ColumnType keyType = mapType.parameters().get(0);
-    return toCqlTerm(keyType, value);
+    return bind(keyType, value, values);
+  }
+
+  private BindMarker bind(Column.ColumnType type, Object value, List<Object> values) {
+    values.add(toDBValue(type, value));
+    return QueryBuilder.bindMarker();
   }
 
-  private Term toCqlTerm(Column.ColumnType type, Object value) {
-    return DataTypeMapping.toCqlTerm(type, value, nameMapping);
+  private Object toDBValue(Column.ColumnType type, Object value) {
+    return DataTypeMapping.toDBValue(type, value, nameMapping);
   }
 }
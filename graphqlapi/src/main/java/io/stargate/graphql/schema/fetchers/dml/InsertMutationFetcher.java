@@ -27,6 +27,7 @@ import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Table;
 import io.stargate.graphql.schema.NameMapping;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class InsertMutationFetcher extends MutationFetcher {
@@ -40,10 +41,11 @@ public class InsertMutationFetcher extends MutationFetcher {
   }
 
   @Override
-  protected String buildStatement(DataFetchingEnvironment environment, DataStore dataStore) {
+  protected String buildStatement(
+      DataFetchingEnvironment environment, DataStore dataStore, List<Object> values) {
     Insert insert =
         QueryBuilder.insertInto(table.keyspace(), table.name())
-            .values(buildInsertValues(environment));
+            .values(buildInsertValues(environment, values));
 
     if (environment.containsArgument("ifNotExists")
         && environment.getArgument("ifNotExists") != null
@@ -53,21 +55,23 @@ public class InsertMutationFetcher extends MutationFetcher {
     if (environment.containsArgument("options") && environment.getArgument("options") != null) {
       Map<String, Object> options = environment.getArgument("options");
       if (options.containsKey("ttl") && options.get("ttl") != null) {
-        insert = insert.usingTtl((Integer) options.get("ttl"));
+        values.add(options.get("ttl"));
+        insert = insert.usingTtl(QueryBuilder.bindMarker());
       }
     }
 
     return insert.asCql();
   }
 
-  private Map<String, Term> buildInsertValues(DataFetchingEnvironment environment) {
+  private Map<String, Term> buildInsertValues(
+      DataFetchingEnvironment environment, List<Object> values) {
     Map<String, Object> value = environment.getArgument("value");
     Preconditions.checkNotNull(value, "Insert statement must contain at least one field");
 
     Map<String, Term> insertMap = new LinkedHashMap<>();
     for (Map.Entry<String, Object> entry : value.entrySet()) {
       Column column = getColumn(table, entry.getKey());
-      insertMap.put(column.name(), toCqlTerm(column, entry.getValue()));
+      insertMap.put(column.name(), bind(column, entry.getValue(), values));
     }
     return insertMap;
   }
@@ -22,13 +22,18 @@ import graphql.GraphQLException;
 import graphql.language.OperationDefinition;
 import graphql.schema.DataFetchingEnvironment;
 import io.stargate.auth.AuthenticationService;
+import io.stargate.db.BatchType;
 import io.stargate.db.Persistence;
 import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.PreparedStatement;
 import io.stargate.db.schema.Table;
 import io.stargate.graphql.graphqlservlet.HTTPAwareContextImpl;
 import io.stargate.graphql.schema.NameMapping;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 public abstract class MutationFetcher extends DmlFetcher<CompletableFuture<Map<String, Object>>> {
 
@@ -44,6 +49,7 @@ public abstract class MutationFetcher extends DmlFetcher<CompletableFuture<Map<S
   protected CompletableFuture<Map<String, Object>> get(
       DataFetchingEnvironment environment, DataStore dataStore) {
     String statement = null;
+    List<Object> values = new ArrayList<>();
     Exception buildException = null;
 
     // Avoid mixing sync and async exceptions
@@ -51,7 +57,7 @@ public abstract class MutationFetcher extends DmlFetcher<CompletableFuture<Map<S
       // buildStatement() could throw an unchecked exception.
       // As the statement might be part of a batch, we need to make sure the
       // batched operation completes.
-      statement = buildStatement(environment, dataStore);
+      statement = buildStatement(environment, dataStore, values);
     } catch (Exception e) {
       buildException = e;
     }
@@ -61,7 +67,7 @@ public abstract class MutationFetcher extends DmlFetcher<CompletableFuture<Map<S
     if (operation.getDirectives().stream().anyMatch(d -> d.getName().equals(ATOMIC_DIRECTIVE))
         && operation.getSelectionSet().getSelections().size() > 1) {
       // There are more than one mutation in @atomic operation
-      return executeAsBatch(environment, dataStore, statement, buildException);
+      return executeAsBatch(environment, dataStore, statement, values, buildException);
     }
 
     if (buildException != null) {
@@ -72,7 +78,7 @@ public abstract class MutationFetcher extends DmlFetcher<CompletableFuture<Map<S
 
     // Execute as a single statement
     return dataStore
-        .query(statement)
+        .query(statement, values.toArray())
         .thenApply(rs -> ImmutableMap.of("value", environment.getArgument("value")));
   }
 
@@ -80,6 +86,7 @@ public abstract class MutationFetcher extends DmlFetcher<CompletableFuture<Map<S
       DataFetchingEnvironment environment,
       DataStore dataStore,
       String statement,
+      List<Object> values,
       Exception buildException) {
     int selections = environment.getOperationDefinition().getSelectionSet().getSelections().size();
     HTTPAwareContextImpl context = environment.getContext();
@@ -100,11 +107,21 @@ public abstract class MutationFetcher extends DmlFetcher<CompletableFuture<Map<S
 
     if (buildException != null) {
       batchContext.setExecutionResult(buildException);
-    } else if (batchContext.add(statement) == selections) {
+    } else if (batchContext.add(prepareAndBind(dataStore, statement, values)) == selections) {
       // All the statements were added successfully
       // Use the dataStore containing the options
       DataStore batchDataStore = batchContext.getDataStore().orElse(dataStore);
-      batchContext.setExecutionResult(batchDataStore.batch(batchContext.getStatements()));
+      List<CompletableFuture<PreparedStatement.Bound>> statements = batchContext.getStatements();
+      batchContext.setExecutionResult(
+          CompletableFuture.allOf(statements.toArray(new CompletableFuture<?>[0]))
+              .thenCompose(
+                  v ->
+                      batchDataStore.batch(
+                          statements.stream()
+                              .map(CompletableFuture::join)
+                              .collect(Collectors.toList()),
+                          BatchType.LOGGED,
+                          p -> p)));
     }
 
     return batchContext
@@ -112,6 +129,16 @@ public abstract class MutationFetcher extends DmlFetcher<CompletableFuture<Map<S
         .thenApply(v -> ImmutableMap.of("value", environment.getArgument("value")));
   }
 
+  private static CompletableFuture<PreparedStatement.Bound> prepareAndBind(
+      DataStore dataStore, String statement, List<Object> values) {
+    // Preparations are cached by the data store, so this only hits the server once per shape.
+    return dataStore.prepare(statement).thenApply(p -> p.bind(values.toArray()));
+  }
+
+  /**
+   * Builds the CQL statement for the mutation, adding the values for its bind markers (in order)
+   * to {@code values}.
+   */
   protected abstract String buildStatement(
-      DataFetchingEnvironment environment, DataStore dataStore);
+      DataFetchingEnvironment environment, DataStore dataStore, List<Object> values);
 }
@@ -38,7 +38,7 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-public class QueryFetcher extends DmlFetcher<Map<String, Object>> {
+public class QueryFetcher extends DmlFetcher<CompletableFuture<Map<String, Object>>> {
 
   public QueryFetcher(
       Table table,
@@ -49,12 +49,16 @@ public class QueryFetcher extends DmlFetcher<Map<String, Object>> {
   }
 
   @Override
-  protected Map<String, Object> get(DataFetchingEnvironment environment, DataStore dataStore)
-      throws Exception {
-    String statement = buildQuery(environment);
-    CompletableFuture<ResultSet> rs = dataStore.query(statement);
-    ResultSet resultSet = rs.get();
+  protected CompletableFuture<Map<String, Object>> get(
+      DataFetchingEnvironment environment, DataStore dataStore) {
+    List<Object> values = new ArrayList<>();
+    String statement = buildQuery(environment, values);
+    return dataStore
+        .query(statement, values.toArray())
+        .thenApplyAsync(this::toResult, resultExecutor());
+  }
 
+  private Map<String, Object> toResult(ResultSet resultSet) {
     Map<String, Object> result = new HashMap<>();
     result.put(
         "values",
@@ -70,18 +74,19 @@ public class QueryFetcher extends DmlFetcher<Map<String, Object>> {
     return result;
   }
 
-  private String buildQuery(DataFetchingEnvironment environment) {
+  private String buildQuery(DataFetchingEnvironment environment, List<Object> values) {
     Select select =
         QueryBuilder.selectFrom(table.keyspace(), table.name())
             .columns(buildQueryColumns(environment))
-            .where(buildClause(table, environment))
+            .where(buildClause(table, environment, values))
             .orderBy(buildOrderBy(environment));
 
     if (environment.containsArgument("options")) {
       Map<String, Object> options = environment.getArgument("options");
       Object limit = options.get("limit");
       if (limit != null) {
-        select = select.limit((Integer) limit);
+        values.add(limit);
+        select = select.limit(QueryBuilder.bindMarker());
       }
     }
 
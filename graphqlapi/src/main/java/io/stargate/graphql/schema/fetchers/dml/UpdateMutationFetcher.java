@@ -27,21 +27,23 @@ public class UpdateMutationFetcher extends MutationFetcher {
   }
 
   @Override
-  protected String buildStatement(DataFetchingEnvironment environment, DataStore dataStore) {
+  protected String buildStatement(
+      DataFetchingEnvironment environment, DataStore dataStore, List<Object> values) {
     UpdateStart updateStart = QueryBuilder.update(table.keyspace(), table.name());
 
     if (environment.containsArgument("options") && environment.getArgument("options") != null) {
       Map<String, Object> options = environment.getArgument("options");
       if (options.containsKey("ttl") && options.get("ttl") != null) {
-        updateStart = updateStart.usingTtl((Integer) options.get("ttl"));
+        values.add(options.get("ttl"));
+        updateStart = updateStart.usingTtl(QueryBuilder.bindMarker());
       }
     }
 
     Update update =
         updateStart
-            .set(buildAssignments(table, environment))
-            .where(buildPkCKWhere(table, environment))
-            .if_(buildIfConditions(table, environment.getArgument("ifCondition")));
+            .set(buildAssignments(table, environment, values))
+            .where(buildPkCKWhere(table, environment, values))
+            .if_(buildIfConditions(table, environment.getArgument("ifCondition"), values));
 
     if (environment.containsArgument("ifExists")
         && environment.getArgument("ifExists") != null
@@ -52,7 +54,8 @@ public class UpdateMutationFetcher extends MutationFetcher {
     return update.asCql();
   }
 
-  private List<Relation> buildPkCKWhere(Table table, DataFetchingEnvironment environment) {
+  private List<Relation> buildPkCKWhere(
+      Table table, DataFetchingEnvironment environment, List<Object> values) {
     Map<String, Object> value = environment.getArgument("value");
     List<Relation> relations = new ArrayList<>();
 
@@ -61,20 +64,22 @@ public class UpdateMutationFetcher extends MutationFetcher {
       if (table.partitionKeyColumns().contains(column)
           || table.clusteringKeyColumns().contains(column)) {
         relations.add(
-            Relation.column(column.name()).isEqualTo(toCqlTerm(column, entry.getValue())));
+            Relation.column(column.name()).isEqualTo(bind(column, entry.getValue(), values)));
       }
     }
     return relations;
   }
 
-  private List<Assignment> buildAssignments(Table table, DataFetchingEnvironment environment) {
+  private List<Assignment> buildAssignments(
+      Table table, DataFetchingEnvironment environment, List<Object> values) {
     Map<String, Object> value = environment.getArgument("value");
     List<Assignment> assignments = new ArrayList<>();
     for (Map.Entry<String, Object> entry : value.entrySet()) {
       Column column = getColumn(table, entry.getKey());
       if (!(table.partitionKeyColumns().contains(column)
           || table.clusteringKeyColumns().contains(column))) {
-        assignments.add(Assignment.setColumn(column.name(), toCqlTerm(column, entry.getValue())));
+        assignments.add(
+            Assignment.setColumn(column.name(), bind(column, entry.getValue(), values)));
       }
     }
     return assignments;
@@ -0,0 +1,208 @@
+package graphql.kickstart.servlet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import graphql.kickstart.servlet.CustomGraphQLServlet.RequestHandlerReference;
+import io.stargate.db.schema.Keyspace;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class KeyspaceHandlersTest {
+
+  // The current schema, as seen by the handlers
+  private final Map<String, Keyspace> schema = new HashMap<>();
+  // The keyspace definition of each handler created, in creation order
+  private final List<Keyspace> builtFrom = new CopyOnWriteArrayList<>();
+  private final Map<RequestHandlerReference, Keyspace> handlerKeyspaces = new ConcurrentHashMap<>();
+  private volatile Runnable onBuild = () -> {};
+
+  private ScheduledExecutorService executor;
+  private KeyspaceHandlers handlers;
+
+  @BeforeEach
+  public void setup() {
+    executor = mock(ScheduledExecutorService.class);
+    handlers =
+        new KeyspaceHandlers(
+            schema::get,
+            keyspace -> {
+              builtFrom.add(keyspace);
+              RequestHandlerReference handler = mock(RequestHandlerReference.class);
+              when(handler.get())
+                  .then(
+                      i -> {
+                        onBuild.run();
+                        return null;
+                      });
+              handlerKeyspaces.put(handler, keyspace);
+              return handler;
+            },
+            executor,
+            500);
+  }
+
+  @Test
+  public void coalescesEventsOfTheSameKeyspace() {
+    schema.put("ks", mock(Keyspace.class));
+    handlers.add("ks", schema.get("ks"));
+
+    assertThat(handlers.scheduleRefresh("ks")).isTrue();
+    assertThat(handlers.scheduleRefresh("ks")).isFalse();
+    assertThat(handlers.scheduleRefresh("ks")).isFalse();
+    assertThat(handlers.scheduleRefresh("other")).isTrue();
+
+    List<Runnable> refreshes = scheduledRefreshes(2);
+    refreshes.get(0).run();
+    assertThat(builtFrom).hasSize(2);
+
+    // A later event schedules a new refresh
+    assertThat(handlers.scheduleRefresh("ks")).isTrue();
+  }
+
+  @Test
+  public void buildsScheduledRefreshBeforeInstallingIt() {
+    Keyspace v1 = mock(Keyspace.class);
+    Keyspace v2 = mock(Keyspace.class);
+    schema.put("ks", v1);
+    handlers.add("ks", v1);
+    RequestHandlerReference initial = handlers.get("ks");
+
+    schema.put("ks", v2);
+    handlers.scheduleRefresh("ks");
+    // The previous handler must not be replaced until the new one is built
+    onBuild = () -> assertThat(handlers.remove("ks")).isSameAs(initial);
+    scheduledRefreshes(1).get(0).run();
+
+    onBuild = () -> {};
+    RequestHandlerReference refreshed = handlers.get("ks");
+    assertThat(handlerKeyspaces.get(refreshed)).isSameAs(v2);
+    verify(refreshed).get();
+  }
+
+  @Test
+  public void refreshesPendingKeyspaceOnRequest() {
+    Keyspace v1 = mock(Keyspace.class);
+    Keyspace v2 = mock(Keyspace.class);
+    schema.put("ks", v1);
+    handlers.add("ks", v1);
+
+    schema.put("ks", v2);
+    handlers.scheduleRefresh("ks");
+
+    // The request doesn't wait for the scheduled refresh, nor gets the stale handler
+    RequestHandlerReference handler = handlers.get("ks");
+    assertThat(handlerKeyspaces.get(handler)).isSameAs(v2);
+    assertThat(handlers.get("ks")).isSameAs(handler);
+
+    // The scheduled refresh has nothing left to do
+    scheduledRefreshes(1).get(0).run();
+    assertThat(handlers.get("ks")).isSameAs(handler);
+    assertThat(builtFrom).containsExactly(v1, v2);
+  }
+
+  @Test
+  public void servesNewKeyspaceBeforeRefresh() {
+    assertThat(handlers.get("ks")).isNull();
+
+    Keyspace keyspace = mock(Keyspace.class);
+    schema.put("ks", keyspace);
+    RequestHandlerReference handler = handlers.get("ks");
+
+    assertThat(handlerKeyspaces.get(handler)).isSameAs(keyspace);
+    assertThat(builtFrom).containsExactly(keyspace);
+  }
+
+  @Test
+  public void refreshesAgainForEventsReceivedDuringRefresh() {
+    Keyspace v1 = mock(Keyspace.class);
+    Keyspace v2 = mock(Keyspace.class);
+    schema.put("ks", v1);
+    handlers.scheduleRefresh("ks");
+
+    // An event arrives while the handler built from v1 is being built
+    onBuild =
+        () -> {
+          onBuild = () -> {};
+          schema.put("ks", v2);
+          handlers.scheduleRefresh("ks");
+        };
+    scheduledRefreshes(1).get(0).run();
+
+    RequestHandlerReference handler = handlers.get("ks");
+    assertThat(handlerKeyspaces.get(handler)).isSameAs(v2);
+    assertThat(builtFrom).containsExactly(v1, v2);
+  }
+
+  @Test
+  public void doesNotWaitForRefreshesOfOtherKeyspaces() throws Exception {
+    Keyspace a = mock(Keyspace.class);
+    Keyspace b = mock(Keyspace.class);
+    schema.put("a", a);
+    schema.put("b", b);
+    handlers.scheduleRefresh("a");
+    handlers.scheduleRefresh("b");
+    List<Runnable> refreshes = scheduledRefreshes(2);
+
+    // The background refresh of b is stuck building its schema
+    CountDownLatch building = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    onBuild =
+        () -> {
+          building.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+    Thread background = new Thread(refreshes.get(1));
+    background.start();
+    try {
+      building.await();
+      onBuild = () -> {};
+
+      RequestHandlerReference handler =
+          CompletableFuture.supplyAsync(() -> handlers.get("a")).get(10, TimeUnit.SECONDS);
+      assertThat(handlerKeyspaces.get(handler)).isSameAs(a);
+    } finally {
+      release.countDown();
+      background.join();
+    }
+    assertThat(handlerKeyspaces.get(handlers.get("b"))).isSameAs(b);
+  }
+
+  @Test
+  public void removesDroppedKeyspaces() {
+    Keyspace keyspace = mock(Keyspace.class);
+    schema.put("ks", keyspace);
+    handlers.add("ks", keyspace);
+
+    schema.remove("ks");
+    handlers.scheduleRefresh("ks");
+
+    assertThat(handlers.get("ks")).isNull();
+    assertThat(handlers.remove("ks")).isNull();
+  }
+
+  private List<Runnable> scheduledRefreshes(int count) {
+    ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor, times(count)).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+    return captor.getAllValues();
+  }
+}
@@ -0,0 +1,82 @@
+package io.stargate.graphql.graphqlservlet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+public class DocumentCacheTest {
+
+  // The queries that went through the (fake) parsing and validation
+  private final List<String> parsed = new ArrayList<>();
+
+  private final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate =
+      input -> {
+        parsed.add(input.getQuery());
+        Document document = new Parser().parseDocument(input.getQuery());
+        return new PreparsedDocumentEntry(document);
+      };
+
+  @Test
+  public void parsesEachQueryOnce() {
+    DocumentCache cache = new DocumentCache();
+
+    PreparsedDocumentEntry entry =
+        cache.getDocument(input("{ books { title } }"), parseAndValidate);
+    assertThat(cache.getDocument(input("{ books { title } }"), parseAndValidate)).isSameAs(entry);
+    cache.getDocument(input("{ books { author } }"), parseAndValidate);
+
+    assertThat(parsed).containsExactly("{ books { title } }", "{ books { author } }");
+  }
+
+  @Test
+  public void resolvesPersistedQueries() {
+    String query = "{ persisted { title } }";
+    String hash = DocumentCache.sha256(query);
+
+    PreparsedDocumentEntry notFound =
+        new DocumentCache().getDocument(input("", hash), parseAndValidate);
+    assertThat(notFound.hasErrors()).isTrue();
+    assertThat(notFound.getErrors().get(0).getMessage())
+        .isEqualTo(DocumentCache.PERSISTED_QUERY_NOT_FOUND);
+
+    // Registers the query
+    new DocumentCache().getDocument(input(query, hash), parseAndValidate);
+
+    // Persisted queries outlive the cache of a particular schema
+    PreparsedDocumentEntry entry =
+        new DocumentCache().getDocument(input("", hash), parseAndValidate);
+    assertThat(entry.hasErrors()).isFalse();
+    assertThat(parsed).containsExactly(query, query);
+  }
+
+  @Test
+  public void rejectsMismatchedHashes() {
+    PreparsedDocumentEntry entry =
+        new DocumentCache()
+            .getDocument(
+                input("{ books { title } }", DocumentCache.sha256("{ other }")),
+                parseAndValidate);
+
+    assertThat(entry.hasErrors()).isTrue();
+    assertThat(parsed).isEmpty();
+  }
+
+  private static ExecutionInput input(String query) {
+    return ExecutionInput.newExecutionInput(query).build();
+  }
+
+  private static ExecutionInput input(String query, String hash) {
+    return ExecutionInput.newExecutionInput(query)
+        .extensions(
+            ImmutableMap.of("persistedQuery", ImmutableMap.of("version", 1, "sha256Hash", hash)))
+        .build();
+  }
+}
@@ -2,6 +2,8 @@ package io.stargate.graphql.schema;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
@@ -16,14 +18,19 @@ import graphql.execution.AsyncExecutionStrategy;
 import graphql.schema.GraphQLSchema;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.auth.StoredCredentials;
+import io.stargate.db.BatchType;
 import io.stargate.db.Parameters;
 import io.stargate.db.Persistence;
 import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.PreparedStatement;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.graphql.graphqlservlet.HTTPAwareContextImpl;
 import io.stargate.graphql.graphqlservlet.HTTPAwareContextImpl.BatchContext;
+import io.stargate.graphql.graphqlservlet.HTTPAwareContextImpl.ConnectionContext;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -48,33 +55,56 @@ public abstract class GraphQlTestBase {
   @Mock private StoredCredentials storedCredentials;
 
   @Captor protected ArgumentCaptor<String> queryCaptor;
-  @Captor protected ArgumentCaptor<List<String>> batchCaptor;
+  @Captor protected ArgumentCaptor<List<PreparedStatement.Bound>> batchCaptor;
   @Captor protected ArgumentCaptor<Parameters> parametersCaptor;
 
   private MockedStatic<DataStore> dataStoreCreateMock;
 
+  // Stores the values bound to the last query execution
+  protected List<Object> queryValues;
+
   // Stores the parameters of the last batch execution
   protected Parameters batchParameters;
 
+  // If set, queries fail with this error instead of returning resultSet
+  protected Throwable queryFailure;
+
   @BeforeEach
   public void setupEnvironment() {
     try {
       String roleName = "mock role name";
       when(authenticationService.validateToken(token)).thenReturn(storedCredentials);
       when(storedCredentials.getRoleName()).thenReturn(roleName);
+      Persistence.Connection connection = mock(Persistence.Connection.class);
+      when(persistence.newConnection()).thenReturn(connection);
       dataStoreCreateMock = mockStatic(DataStore.class);
       dataStoreCreateMock
-          .when(() -> DataStore.create(eq(persistence), eq(roleName), parametersCaptor.capture()))
+          .when(() -> DataStore.create(eq(connection), parametersCaptor.capture()))
           .then(
               i -> {
                 DataStore dataStore = mock(DataStore.class);
-                when(dataStore.query(queryCaptor.capture()))
-                    .thenReturn(CompletableFuture.completedFuture(resultSet));
+                when(dataStore.query(queryCaptor.capture(), (Object[]) any()))
+                    .then(
+                        queryInvoke -> {
+                          Object[] arguments = queryInvoke.getArguments();
+                          queryValues = Arrays.asList(arguments).subList(1, arguments.length);
+                          if (queryFailure != null) {
+                            CompletableFuture<ResultSet> failed = new CompletableFuture<>();
+                            failed.completeExceptionally(queryFailure);
+                            return failed;
+                          }
+                          return CompletableFuture.completedFuture(resultSet);
+                        });
+                when(dataStore.prepare(anyString()))
+                    .then(
+                        prepareInvoke ->
+                            CompletableFuture.completedFuture(
+                                mockPreparedStatement(prepareInvoke.getArgument(0))));
 
                 // Batches use multiple data store instances, one per each mutation
                 // We need to capture the parameters provided at dataStore creation
-                Parameters dataStoreParameters = i.getArgument(2, Parameters.class);
-                when(dataStore.batch(batchCaptor.capture()))
+                Parameters dataStoreParameters = i.getArgument(1, Parameters.class);
+                when(dataStore.batch(batchCaptor.capture(), eq(BatchType.LOGGED), any()))
                     .then(
                         batchInvoke -> {
                           batchParameters = dataStoreParameters;
@@ -94,6 +124,20 @@ public abstract class GraphQlTestBase {
             .build();
   }
 
+  private static PreparedStatement mockPreparedStatement(String queryString) {
+    PreparedStatement prepared = mock(PreparedStatement.class);
+    when(prepared.preparedQueryString()).thenReturn(queryString);
+    when(prepared.bind((Object[]) any()))
+        .then(
+            bindInvoke -> {
+              PreparedStatement.Bound bound = mock(PreparedStatement.Bound.class);
+              when(bound.preparedStatement()).thenReturn(prepared);
+              when(bound.values()).thenReturn(Arrays.asList(bindInvoke.getArguments()));
+              return bound;
+            });
+    return prepared;
+  }
+
   @AfterEach
   public void resetMocks() {
     if (dataStoreCreateMock != null) {
@@ -117,6 +161,7 @@ public abstract class GraphQlTestBase {
 
     when(context.getAuthToken()).thenReturn(token);
     when(context.getBatchContext()).thenReturn(batchContext);
+    when(context.getConnectionContext()).thenReturn(new ConnectionContext(() -> token));
     return graphQl.execute(ExecutionInput.newExecutionInput(query).context(context).build());
   }
 
@@ -129,6 +174,23 @@ public abstract class GraphQlTestBase {
     assertThat(queryCaptor.getValue()).isEqualTo(expectedCqlQuery);
   }
 
+  /**
+   * Convenience method to execute a GraphQL query and assert that it generates the given CQL query,
+   * executed with the given values.
+   */
+  protected void assertSuccess(
+      String graphQlQuery, String expectedCqlQuery, List<?> expectedValues) {
+    assertSuccess(graphQlQuery, expectedCqlQuery);
+    assertThat(queryValues).isEqualTo(expectedValues);
+  }
+
+  /** Returns the query strings of the statements of the last batch execution. */
+  protected List<String> batchQueries() {
+    return batchCaptor.getValue().stream()
+        .map(b -> b.preparedStatement().preparedQueryString())
+        .collect(Collectors.toList());
+  }
+
   /**
    * Convenience method to execute a GraphQL query and assert that it generates an error containing
    * the given message.
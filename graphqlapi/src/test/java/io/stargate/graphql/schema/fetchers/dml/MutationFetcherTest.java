@@ -2,8 +2,10 @@ package io.stargate.graphql.schema.fetchers.dml;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.collect.ImmutableList;
 import graphql.ExecutionResult;
 import graphql.GraphQLError;
+import io.stargate.db.datastore.PreparedStatement;
 import io.stargate.db.schema.Keyspace;
 import io.stargate.graphql.schema.DmlTestBase;
 import io.stargate.graphql.schema.SampleKeyspaces;
@@ -24,7 +26,8 @@ public class MutationFetcherTest extends DmlTestBase {
   public void mutationAtomicSingleSelectionTest() {
     assertSuccess(
         "mutation @atomic { m1: insertBooks(value: { title: \"a\" } ) { applied } }",
-        "INSERT INTO library.books (title) VALUES ('a')");
+        "INSERT INTO library.books (title) VALUES (?)",
+        ImmutableList.of("a"));
   }
 
   @Test
@@ -39,12 +42,18 @@ public class MutationFetcherTest extends DmlTestBase {
                 + "}");
     assertThat(result.getErrors()).isEmpty();
     String[] queries = {
-      "UPDATE library.books SET author='G.O.' WHERE title='1984'",
-      "INSERT INTO library.authors (author,title) VALUES ('G.O.','1984')",
-      "DELETE FROM library.books WHERE title='Animal Farm'"
+      "UPDATE library.books SET author=? WHERE title=?",
+      "INSERT INTO library.authors (author,title) VALUES (?,?)",
+      "DELETE FROM library.books WHERE title=?"
     };
 
-    assertThat(batchCaptor.getValue()).containsExactly(queries);
+    assertThat(batchQueries()).containsExactly(queries);
+    assertThat(batchCaptor.getValue())
+        .extracting(PreparedStatement.Bound::values)
+        .containsExactly(
+            ImmutableList.of("G.O.", "1984"),
+            ImmutableList.of("G.O.", "1984"),
+            ImmutableList.of("Animal Farm"));
   }
 
   @ParameterizedTest
@@ -63,11 +72,11 @@ public class MutationFetcherTest extends DmlTestBase {
                 cl));
     assertThat(result.getErrors()).isEmpty();
     String[] queries = {
-      "INSERT INTO library.books (title,author) VALUES ('1984','G.O.')",
-      "INSERT INTO library.authors (author,title) VALUES ('G.O.','1984')"
+      "INSERT INTO library.books (title,author) VALUES (?,?)",
+      "INSERT INTO library.authors (author,title) VALUES (?,?)"
     };
 
-    assertThat(batchCaptor.getValue()).containsExactly(queries);
+    assertThat(batchQueries()).containsExactly(queries);
     assertThat(batchParameters)
         .extracting(p -> p.consistencyLevel())
         .isEqualTo(ConsistencyLevel.valueOf(cl));
@@ -86,7 +95,7 @@ public class MutationFetcherTest extends DmlTestBase {
                     + "}",
                 cl));
     assertThat(result.getErrors()).isEmpty();
-    assertThat(batchCaptor.getValue()).containsExactly(queries);
+    assertThat(batchQueries()).containsExactly(queries);
     assertThat(batchParameters)
         .extracting(p -> p.consistencyLevel(), p -> p.serialConsistencyLevel().get())
         .containsExactly(ConsistencyLevel.valueOf(cl), ConsistencyLevel.LOCAL_SERIAL);
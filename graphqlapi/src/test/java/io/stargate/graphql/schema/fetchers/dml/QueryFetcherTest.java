@@ -2,17 +2,30 @@ package io.stargate.graphql.schema.fetchers.dml;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import graphql.ExecutionResult;
 import io.stargate.db.ImmutableParameters;
 import io.stargate.db.Parameters;
+import io.stargate.db.Workload;
 import io.stargate.db.schema.Keyspace;
 import io.stargate.graphql.schema.DmlTestBase;
 import io.stargate.graphql.schema.SampleKeyspaces;
+import io.stargate.graphql.schema.fetchers.CassandraFetcher;
 import java.nio.ByteBuffer;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -27,22 +40,87 @@ public class QueryFetcherTest extends DmlTestBase {
   @ParameterizedTest
   @MethodSource("successfulQueries")
   @DisplayName("Should execute GraphQL and generate expected CQL query")
-  public void queryTest(String graphQlQuery, String expectedCqlQuery) {
-    assertSuccess(String.format("query { %s }", graphQlQuery), expectedCqlQuery);
+  public void queryTest(String graphQlQuery, String expectedCqlQuery, List<?> expectedValues) {
+    assertSuccess(String.format("query { %s }", graphQlQuery), expectedCqlQuery, expectedValues);
   }
 
   public static Arguments[] successfulQueries() {
     return new Arguments[] {
-      arguments("books { values { title, author } }", "SELECT title,author FROM library.books"),
+      arguments(
+          "books { values { title, author } }",
+          "SELECT title,author FROM library.books",
+          ImmutableList.of()),
       arguments(
           "books(options: { limit: 10 }) { values { title, author } }",
-          "SELECT title,author FROM library.books LIMIT 10"),
+          "SELECT title,author FROM library.books LIMIT ?",
+          ImmutableList.of(10)),
       arguments(
           "books(filter: { title: { eq: \"The Road\" } }) { values { title, author } }",
-          "SELECT title,author FROM library.books WHERE title='The Road'"),
+          "SELECT title,author FROM library.books WHERE title=?",
+          ImmutableList.of("The Road")),
+      arguments(
+          "books(filter: { title: { eq: \"The Road\" } }, options: { limit: 10 }) "
+              + "{ values { title, author } }",
+          "SELECT title,author FROM library.books WHERE title=? LIMIT ?",
+          ImmutableList.of("The Road", 10)),
     };
   }
 
+  @Test
+  @DisplayName("Queries with the same shape should generate the same CQL query")
+  public void sameShapeTest() {
+    assertSuccess(
+        "query { books(filter: { title: { eq: \"The Road\" } }) { values { title } } }",
+        "SELECT title FROM library.books WHERE title=?",
+        ImmutableList.of("The Road"));
+    assertSuccess(
+        "query { books(filter: { title: { eq: \"Dune\" } }) { values { title } } }",
+        "SELECT title FROM library.books WHERE title=?",
+        ImmutableList.of("Dune"));
+  }
+
+  @Test
+  @DisplayName("Selections of the same request should share the validated credentials")
+  public void validatesTokenOnceTest() throws Exception {
+    ExecutionResult result =
+        executeGraphQl("query { a: books { values { title } }, b: books { values { author } } }");
+    assertThat(result.getErrors()).isEmpty();
+    verify(authenticationService, times(1)).validateToken(any());
+  }
+
+  @Test
+  @DisplayName("Should complete query results on the fetcher threads")
+  public void completesOnFetcherThreadTest() {
+    AtomicReference<String> resultThread = new AtomicReference<>();
+    when(resultSet.currentPageRows())
+        .then(
+            i -> {
+              resultThread.set(Thread.currentThread().getName());
+              return Collections.emptyList();
+            });
+
+    ExecutionResult result = executeGraphQl("query { books { values { title } } }");
+
+    assertThat(result.getErrors()).isEmpty();
+    Map<String, Object> data = result.getData();
+    assertThat(data).containsEntry("books", ImmutableMap.of("values", Collections.emptyList()));
+    assertThat(resultThread.get()).startsWith("graphql-fetcher-");
+  }
+
+  @Test
+  @DisplayName("Should report query failures as GraphQL errors")
+  public void queryFailureTest() {
+    queryFailure = new IllegalStateException("Backend unavailable");
+    assertError("query { books { values { title } } }", "Backend unavailable");
+  }
+
+  @Test
+  @DisplayName("Should complete query results after the fetcher threads were shut down")
+  public void shutdownResultExecutorTest() {
+    CassandraFetcher.shutdownResultExecutor();
+    assertSuccess("query { books { values { title } } }", "SELECT title FROM library.books");
+  }
+
   @ParameterizedTest
   @MethodSource("failingQueries")
   @DisplayName("Should execute GraphQL and throw expected error")
@@ -76,12 +154,14 @@ public class QueryFetcherTest extends DmlTestBase {
               .pageSize(100)
               .pagingState(ByteBuffer.wrap(Base64.getDecoder().decode("AWEA8H////4A")))
               .consistencyLevel(ConsistencyLevel.LOCAL_QUORUM)
+              .workload(Workload.GRAPHQL)
               .build()),
       arguments(
           "mutation { insertBooks(value: {title:\"a\", author:\"b\"}, options: { consistency: LOCAL_ONE, serialConsistency: SERIAL}) { applied } }",
           ImmutableParameters.builder()
               .consistencyLevel(ConsistencyLevel.LOCAL_ONE)
               .serialConsistencyLevel(ConsistencyLevel.SERIAL)
+              .workload(Workload.GRAPHQL)
               .build())
     };
   }
@@ -1,10 +1,14 @@
 package io.stargate.graphql.schema.fetchers.dml;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
+import com.datastax.oss.driver.api.core.data.UdtValue;
+import com.google.common.collect.ImmutableList;
 import io.stargate.db.schema.Keyspace;
 import io.stargate.graphql.schema.DmlTestBase;
 import io.stargate.graphql.schema.SampleKeyspaces;
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -20,21 +24,31 @@ public class QueryFetcherUdtsTest extends DmlTestBase {
   @ParameterizedTest
   @MethodSource("successfulQueries")
   @DisplayName("Should execute GraphQL with UDTs and generate expected CQL query")
-  public void udtTest(String graphQlQuery, String expectedCqlQuery) {
+  public void udtTest(String graphQlQuery, String expectedCqlQuery, List<Integer> expectedIs) {
     assertSuccess(String.format("query { %s }", graphQlQuery), expectedCqlQuery);
+    // The bound value is either a single `a` UDT value, or a list of them for IN
+    assertThat(queryValues).hasSize(1);
+    Object value = queryValues.get(0);
+    List<?> udtValues = value instanceof List ? (List<?>) value : ImmutableList.of(value);
+    assertThat(udtValues)
+        .extracting(v -> ((UdtValue) v).getUdtValue("b").getInt("i"))
+        .isEqualTo(expectedIs);
   }
 
   public static Arguments[] successfulQueries() {
     return new Arguments[] {
       arguments(
           "testTable(value: { a: { b: {i:1} } }) { values { a{b{i}} } }",
-          "SELECT a FROM udts.test_table WHERE a={\"b\":{\"i\":1}}"),
+          "SELECT a FROM udts.test_table WHERE a=?",
+          ImmutableList.of(1)),
       arguments(
           "testTable(filter: { a: {eq: { b: {i:1} } } }) { values { a{b{i}} } }",
-          "SELECT a FROM udts.test_table WHERE a={\"b\":{\"i\":1}}"),
+          "SELECT a FROM udts.test_table WHERE a=?",
+          ImmutableList.of(1)),
       arguments(
           "testTable(filter: { a: {in: [{ b: {i:1} }, { b: {i:2} }] } }) { values { a{b{i}} } }",
-          "SELECT a FROM udts.test_table WHERE a IN ({\"b\":{\"i\":1}},{\"b\":{\"i\":2}})"),
+          "SELECT a FROM udts.test_table WHERE a IN ?",
+          ImmutableList.of(1, 2)),
     };
   }
 }
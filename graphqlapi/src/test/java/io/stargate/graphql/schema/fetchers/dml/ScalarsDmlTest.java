@@ -6,6 +6,7 @@ import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.data.CqlDuration;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import graphql.ExecutionResult;
 import io.stargate.db.datastore.ArrayListBackedRow;
 import io.stargate.db.datastore.Row;
@@ -91,14 +92,7 @@ public class ScalarsDmlTest extends DmlTestBase {
   @ParameterizedTest
   @MethodSource("getValues")
   public void shouldParseScalarValues(Column.Type type, Object value, String expectedLiteral) {
-    String mutation = "mutation { insertScalars(value: { %s:%s, id:1 }) { applied } }";
-    String name = getName(type);
-    String expectedCQL =
-        String.format(
-            "INSERT INTO scalars_ks.scalars (id,%s) VALUES (1,%s)",
-            name, expectedLiteral != null ? expectedLiteral : value.toString());
-
-    assertSuccess(String.format(mutation, name, toGraphQLValue(value)), expectedCQL);
+    assertInsertsLiteral(type, value, expectedLiteral);
   }
 
   @ParameterizedTest
@@ -107,14 +101,22 @@ public class ScalarsDmlTest extends DmlTestBase {
       Column.Type type, Object value, String expectedLiteral) {
     // Some data types support more than one type of input
     // For example, BigInt Scalar supports both GraphQL strings and int
+    assertInsertsLiteral(type, value, expectedLiteral);
+  }
+
+  private void assertInsertsLiteral(Column.Type type, Object value, String expectedLiteral) {
     String mutation = "mutation { insertScalars(value: { %s:%s, id:1 }) { applied } }";
     String name = getName(type);
     String expectedCQL =
-        String.format(
-            "INSERT INTO scalars_ks.scalars (id,%s) VALUES (1,%s)",
-            name, expectedLiteral != null ? expectedLiteral : value.toString());
+        String.format("INSERT INTO scalars_ks.scalars (id,%s) VALUES (?,?)", name);
 
     assertSuccess(String.format(mutation, name, toGraphQLValue(value)), expectedCQL);
+    assertThat(queryValues).hasSize(2).first().isEqualTo(1);
+    // Values are bound rather than inlined, so check the CQL literal the bound value formats to.
+    @SuppressWarnings("unchecked")
+    TypeCodec<Object> codec = table.column(name).type().codec();
+    assertThat(codec.format(queryValues.get(1)))
+        .isEqualTo(expectedLiteral != null ? expectedLiteral : value.toString());
   }
 
   @ParameterizedTest
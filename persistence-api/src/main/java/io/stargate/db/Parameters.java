@@ -18,6 +18,7 @@ import org.immutables.value.Value;
 public abstract class Parameters {
   private static final ConsistencyLevel DEFAULT_CONSISTENCY = ConsistencyLevel.ONE;
   private static final ProtocolVersion DEFAULT_PROTOCOL_VERSION = ProtocolVersion.CURRENT;
+  private static final Workload DEFAULT_WORKLOAD = Workload.CQL;
 
   /** A parameters instance using all defaults. */
   public static Parameters defaults() {
@@ -108,6 +109,15 @@ public abstract class Parameters {
     return false;
   }
 
+  /**
+   * The class of workload the request belongs to, which the {@link Persistence} implementation may
+   * use to isolate it from other workloads. Defaults to {@link Workload#CQL}.
+   */
+  @Value.Default
+  public Workload workload() {
+    return DEFAULT_WORKLOAD;
+  }
+
   /**
    * Copy these parameters but with the {@link #consistencyLevel()} replaced by the provided one.
    */
@@ -125,6 +135,11 @@ public abstract class Parameters {
     return toBuilder().skipMetadataInResult(true).build();
   }
 
+  /** Copy these parameters but with the {@link #workload()} replaced by the provided one. */
+  public Parameters withWorkload(Workload newWorkload) {
+    return toBuilder().workload(newWorkload).build();
+  }
+
   /** Creates a new parameters builder filled with the values of this builder. */
   public ImmutableParameters.Builder toBuilder() {
     return ImmutableParameters.builder().from(this);
@@ -165,6 +180,9 @@ public abstract class Parameters {
     if (nowInSeconds().isPresent()) {
       m.put("now", Integer.toString(nowInSeconds().getAsInt()));
     }
+    if (workload() != DEFAULT_WORKLOAD) {
+      m.put("workload", workload().toString());
+    }
     return m.toString();
   }
 }
@@ -15,13 +15,13 @@
  */
 package io.stargate.db;
 
-import com.datastax.oss.driver.shaded.guava.common.util.concurrent.Uninterruptibles;
+import com.datastax.oss.driver.shaded.guava.common.base.Throwables;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.schema.Schema;
 import java.nio.ByteBuffer;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
 import org.apache.cassandra.stargate.exceptions.AuthenticationException;
 
 /**
@@ -86,16 +86,26 @@ public interface Persistence {
 
   /** Wait for schema to agree across the cluster */
   default void waitForSchemaAgreement() {
-    for (int count = 0; count < SCHEMA_AGREEMENT_WAIT_RETRIES; count++) {
-      if (isInSchemaAgreement()) {
-        return;
-      }
-      Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+    try {
+      waitForSchemaAgreementAsync().join();
+    } catch (CompletionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
     }
-    throw new IllegalStateException(
-        "Failed to reach schema agreement after "
-            + (200 * SCHEMA_AGREEMENT_WAIT_RETRIES)
-            + " milliseconds.");
+  }
+
+  /**
+   * Returns a future that completes once the schema agrees across the cluster, or that fails with
+   * an {@link IllegalStateException} if that doesn't happen within the configured number of
+   * retries.
+   *
+   * <p>This default implementation polls {@link #isInSchemaAgreement()} every 200 milliseconds on
+   * a shared scheduler thread. Implementations that get notified of schema version changes should
+   * complete the future on those notifications instead.
+   */
+  default CompletableFuture<Void> waitForSchemaAgreementAsync() {
+    return SchemaAgreementPoller.poll(
+        this::isInSchemaAgreement, 200, SCHEMA_AGREEMENT_WAIT_RETRIES);
   }
 
   /**
@@ -0,0 +1,83 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Polls a schema agreement check until it succeeds or runs out of attempts, for the default {@link
+ * Persistence#waitForSchemaAgreementAsync()}.
+ *
+ * <p>Attempts are scheduled on a single shared daemon thread rather than sleeping between them, so
+ * pending waits don't hold any thread while they wait.
+ */
+final class SchemaAgreementPoller {
+
+  private static final ScheduledExecutorService EXECUTOR =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "schema-agreement-poller");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private SchemaAgreementPoller() {}
+
+  /**
+   * Returns a future that completes once {@code isInAgreement} returns true, or that fails with an
+   * {@link IllegalStateException} if it still returns false after {@code maxAttempts} attempts
+   * made {@code intervalMillis} apart. Cancelling the future stops the polling.
+   */
+  static CompletableFuture<Void> poll(
+      BooleanSupplier isInAgreement, long intervalMillis, int maxAttempts) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    EXECUTOR.execute(() -> attempt(future, isInAgreement, intervalMillis, 1, maxAttempts));
+    return future;
+  }
+
+  private static void attempt(
+      CompletableFuture<Void> future,
+      BooleanSupplier isInAgreement,
+      long intervalMillis,
+      int attempt,
+      int maxAttempts) {
+    if (future.isDone()) {
+      return;
+    }
+    try {
+      if (isInAgreement.getAsBoolean()) {
+        future.complete(null);
+      } else if (attempt >= maxAttempts) {
+        future.completeExceptionally(
+            new IllegalStateException(
+                "Failed to reach schema agreement after "
+                    + (intervalMillis * maxAttempts)
+                    + " milliseconds."));
+      } else {
+        EXECUTOR.schedule(
+            () -> attempt(future, isInAgreement, intervalMillis, attempt + 1, maxAttempts),
+            intervalMillis,
+            TimeUnit.MILLISECONDS);
+      }
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db;
+
+/**
+ * The class of workload a request belongs to, which is typically the API front-end that issued it.
+ *
+ * <p>{@link Persistence} implementations may use it to isolate the different workloads from each
+ * other, for instance by executing them on dedicated thread pools, so that a burst of expensive
+ * requests from one API does not starve the others.
+ */
+public enum Workload {
+  /** Requests from CQL clients. This is also the default for requests that don't specify one. */
+  CQL,
+  /** Requests from the REST API. */
+  REST,
+  /** Requests from the GraphQL API. */
+  GRAPHQL,
+  /** Requests from the Documents API. */
+  DOCUMENTS
+}
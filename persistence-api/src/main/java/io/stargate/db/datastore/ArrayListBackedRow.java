@@ -7,7 +7,10 @@ import com.datastax.oss.driver.api.core.type.DataType;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import io.stargate.db.schema.Column;
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -15,17 +18,43 @@ import javax.annotation.Nullable;
 public class ArrayListBackedRow implements Row {
 
   private final List<Column> columns;
+  private final Map<String, Integer> columnIndexes;
   private final List<ByteBuffer> values;
   private final ProtocolVersion protocolVersion;
 
   public ArrayListBackedRow(
       List<Column> columns, List<ByteBuffer> values, ProtocolVersion protocolVersion) {
+    this(columns, indexColumns(columns), values, protocolVersion);
+  }
+
+  /**
+   * Creates a row using a name to index map previously built by {@link #indexColumns(List)} for
+   * the same columns. This allows all the rows of a result set to share the same map.
+   */
+  public ArrayListBackedRow(
+      List<Column> columns,
+      Map<String, Integer> columnIndexes,
+      List<ByteBuffer> values,
+      ProtocolVersion protocolVersion) {
     assert columns.size() == values.size();
     this.columns = columns;
+    this.columnIndexes = columnIndexes;
     this.values = values;
     this.protocolVersion = protocolVersion;
   }
 
+  /**
+   * Builds the map from column name to the index of the first column with that name, for use by
+   * {@link #ArrayListBackedRow(List, Map, List, ProtocolVersion)}.
+   */
+  public static Map<String, Integer> indexColumns(List<Column> columns) {
+    Map<String, Integer> indexes = new HashMap<>((int) (columns.size() / 0.75f) + 1);
+    for (int i = 0; i < columns.size(); i++) {
+      indexes.putIfAbsent(columns.get(i).name(), i);
+    }
+    return Collections.unmodifiableMap(indexes);
+  }
+
   @Override
   public List<Column> columns() {
     return columns;
@@ -40,10 +69,9 @@ public class ArrayListBackedRow implements Row {
 
   @Override
   public int firstIndexOf(@Nonnull String column) {
-    for (int i = 0; i < columns.size(); i++) {
-      if (columns.get(i).name().equals(column)) {
-        return i;
-      }
+    Integer index = columnIndexes.get(column);
+    if (index != null) {
+      return index;
     }
     throw new IllegalArgumentException(
         format("Column '%s' is not defined in the Row's metadata.", column));
@@ -0,0 +1,152 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.data.SettableByIndex;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.ColumnType;
+import io.stargate.db.schema.Column.Type;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A row that decodes each of its values at most once.
+ *
+ * <p>Decoded values are cached on first access, so that reading the same column repeatedly (or
+ * through different getters returning the same java type) only pays the codec cost once. Values of
+ * mutable types (collections, blobs, UDT and tuple values) are not cached: they are decoded on
+ * every access, so that a caller modifying one does not affect later reads.
+ *
+ * <p>The primitive getters ({@link #getLong}, {@link #getInt}, {@link #getDouble} and {@link
+ * #getBoolean}) read directly from the underlying buffer when the column type allows it, without
+ * boxing nor codec lookup.
+ */
+public class MemoizingRow extends ArrayListBackedRow {
+
+  private final Decoded[] decoded;
+
+  public MemoizingRow(
+      List<Column> columns,
+      Map<String, Integer> columnIndexes,
+      List<ByteBuffer> values,
+      ProtocolVersion protocolVersion) {
+    super(columns, columnIndexes, values, protocolVersion);
+    this.decoded = new Decoded[values.size()];
+  }
+
+  @Nullable
+  @Override
+  public <ValueT> ValueT get(int i, TypeCodec<ValueT> codec) {
+    Decoded cached = decoded[i];
+    if (cached != null && cached.codec == codec) {
+      @SuppressWarnings("unchecked")
+      ValueT value = (ValueT) cached.value;
+      return value;
+    }
+    ValueT value = super.get(i, codec);
+    if (isImmutable(value)) {
+      decoded[i] = new Decoded(codec, value);
+    }
+    return value;
+  }
+
+  @Nullable
+  @Override
+  public <ValueT> ValueT get(int i, Class<ValueT> targetClass) {
+    // Skips the codec registry lookup when we already decoded a value of the requested type. A
+    // null value doesn't tell which types the column can be decoded to, so it goes through the
+    // lookup (which rejects unsupported types), and is then served by get(int, TypeCodec).
+    Decoded cached = decoded[i];
+    if (cached != null && targetClass.isInstance(cached.value)) {
+      return targetClass.cast(cached.value);
+    }
+    return super.get(i, targetClass);
+  }
+
+  @Override
+  public long getLong(int i) {
+    ColumnType type = columnType(i);
+    if (type == Type.Bigint || type == Type.Counter) {
+      ByteBuffer bytes = getBytesUnsafe(i);
+      return isEmpty(bytes) ? 0L : bytes.getLong(bytes.position());
+    }
+    return super.getLong(i);
+  }
+
+  @Override
+  public int getInt(int i) {
+    if (columnType(i) == Type.Int) {
+      ByteBuffer bytes = getBytesUnsafe(i);
+      return isEmpty(bytes) ? 0 : bytes.getInt(bytes.position());
+    }
+    return super.getInt(i);
+  }
+
+  @Override
+  public double getDouble(int i) {
+    if (columnType(i) == Type.Double) {
+      ByteBuffer bytes = getBytesUnsafe(i);
+      return isEmpty(bytes) ? 0.0 : bytes.getDouble(bytes.position());
+    }
+    return super.getDouble(i);
+  }
+
+  @Override
+  public boolean getBoolean(int i) {
+    if (columnType(i) == Type.Boolean) {
+      ByteBuffer bytes = getBytesUnsafe(i);
+      return !isEmpty(bytes) && bytes.get(bytes.position()) != 0;
+    }
+    return super.getBoolean(i);
+  }
+
+  @Nullable
+  private ColumnType columnType(int i) {
+    return columns().get(i).type();
+  }
+
+  private static boolean isImmutable(@Nullable Object value) {
+    return !(value instanceof Collection
+        || value instanceof Map
+        || value instanceof ByteBuffer
+        || value instanceof SettableByIndex);
+  }
+
+  private static boolean isEmpty(@Nullable ByteBuffer bytes) {
+    return bytes == null || bytes.remaining() == 0;
+  }
+
+  /**
+   * A decoded value along with the codec that decoded it. Using an immutable holder (rather than
+   * two parallel arrays) ensures a concurrent reader never sees a value paired with the wrong
+   * codec.
+   */
+  private static class Decoded {
+    private final TypeCodec<?> codec;
+    private final Object value;
+
+    private Decoded(@Nonnull TypeCodec<?> codec, @Nullable Object value) {
+      this.codec = codec;
+      this.value = value;
+    }
+  }
+}
@@ -19,10 +19,12 @@ import org.apache.cassandra.stargate.transport.ProtocolException;
 class PersistenceBackedDataStore implements DataStore {
   private final Persistence.Connection connection;
   private final Parameters parameters;
+  private final PreparedStatementCache preparedCache;
 
   PersistenceBackedDataStore(Persistence.Connection connection, Parameters parameters) {
     this.connection = connection;
     this.parameters = parameters;
+    this.preparedCache = PreparedStatementCache.forPersistence(connection.persistence());
   }
 
   static ProtocolVersion toDriverVersion(
@@ -51,12 +53,16 @@ class PersistenceBackedDataStore implements DataStore {
 
   @Override
   public CompletableFuture<PreparedStatement> prepare(String queryString) {
-    return connection
-        .prepare(queryString, parameters)
+    return preparedCache
+        .prepare(connection, queryString, parameters)
         .thenApply(
             prepared ->
                 new PersistenceBackedPreparedStatement(
-                    connection, parameters, new PreparedInfo(prepared), queryString));
+                    connection,
+                    parameters,
+                    preparedCache,
+                    new PreparedInfo(prepared),
+                    queryString));
   }
 
   @Override
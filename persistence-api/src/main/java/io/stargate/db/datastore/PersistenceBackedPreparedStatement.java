@@ -32,6 +32,7 @@ class PersistenceBackedPreparedStatement implements PreparedStatement {
 
   private final Persistence.Connection connection;
   private final Parameters parameters;
+  private final PreparedStatementCache preparedCache;
   private volatile PreparedInfo info;
   private final String queryString;
   private final ByteBuffer unset;
@@ -39,10 +40,12 @@ class PersistenceBackedPreparedStatement implements PreparedStatement {
   PersistenceBackedPreparedStatement(
       Persistence.Connection connection,
       Parameters parameters,
+      PreparedStatementCache preparedCache,
       PreparedInfo info,
       String queryString) {
     this.connection = connection;
     this.parameters = parameters;
+    this.preparedCache = preparedCache;
     this.info = info;
     this.queryString = queryString;
     this.unset = connection.persistence().unsetValue();
@@ -156,8 +159,8 @@ class PersistenceBackedPreparedStatement implements PreparedStatement {
           "Prepared statement (id={}) was invalid when executed. This can happen due to a "
               + "conflicting schema change. Will re-prepare and retry.",
           info.id);
-      connection
-          .prepare(queryString, parameters)
+      preparedCache
+          .reprepare(connection, queryString, parameters)
           .thenAccept(
               prepared -> {
                 PersistenceBackedPreparedStatement.this.info = new PreparedInfo(prepared);
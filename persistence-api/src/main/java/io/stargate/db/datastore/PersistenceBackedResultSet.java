@@ -1,6 +1,7 @@
 package io.stargate.db.datastore;
 
 import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import io.stargate.db.BoundStatement;
 import io.stargate.db.Parameters;
 import io.stargate.db.Persistence;
@@ -16,12 +17,21 @@ import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.Nullable;
 
 class PersistenceBackedResultSet implements ResultSet {
 
+  // How many pages can be requested ahead of the one being consumed (0 disables read-ahead).
+  private static final int PREFETCH_PAGES =
+      Integer.getInteger("stargate.datastore.prefetch_pages", 0);
+  // The fraction of the current page that must be consumed before the next page is requested.
+  private static final double PREFETCH_THRESHOLD =
+      Double.parseDouble(System.getProperty("stargate.datastore.prefetch_threshold", "0.5"));
+
   private final Persistence.Connection connection;
   private final Parameters parameters;
   // Can be null when we know there is a single page
@@ -29,16 +39,39 @@ class PersistenceBackedResultSet implements ResultSet {
   private final ProtocolVersion driverProtocolVersion;
   private final Deque<Row> fetchedRows;
   private final List<Column> columns;
+  // Shared by all the rows of this result set, whatever page they come from.
+  private final Map<String, Integer> columnIndexes;
 
   // Paging state to fetch the next page, or null is we've fetched all pages.
   private ByteBuffer nextPagingState;
 
+  // Pages requested ahead of time, in order. A future completes with null if it was chained after
+  // the last page.
+  private final Deque<CompletableFuture<Result>> prefetchedPages = new ArrayDeque<>();
+  private final int prefetchPages;
+  private final double prefetchThreshold;
+  private int currentPageSize;
+  private int consumedInCurrentPage;
+
   PersistenceBackedResultSet(
       Persistence.Connection connection,
       Parameters parameters,
       @Nullable Statement statement,
       Result.Rows initialPage) {
+    this(connection, parameters, statement, initialPage, PREFETCH_PAGES, PREFETCH_THRESHOLD);
+  }
+
+  @VisibleForTesting
+  PersistenceBackedResultSet(
+      Persistence.Connection connection,
+      Parameters parameters,
+      @Nullable Statement statement,
+      Result.Rows initialPage,
+      int prefetchPages,
+      double prefetchThreshold) {
     this.connection = connection;
+    this.prefetchPages = prefetchPages;
+    this.prefetchThreshold = prefetchThreshold;
     // We get our metadata in our initial page; let's skip it for following pages
     this.parameters = parameters.withoutMetadataInResult();
     this.statement = statement;
@@ -46,6 +79,7 @@ class PersistenceBackedResultSet implements ResultSet {
         PersistenceBackedDataStore.toDriverVersion(parameters.protocolVersion());
     this.fetchedRows = new ArrayDeque<>(parameters.pageSize().orElse(32));
     this.columns = processColumns(initialPage.resultMetadata.columns);
+    this.columnIndexes = ArrayListBackedRow.indexColumns(columns);
     processNewPage(initialPage);
     if (nextPagingState != null && this.statement == null) {
       throw new IllegalStateException(
@@ -104,22 +138,18 @@ class PersistenceBackedResultSet implements ResultSet {
 
   private void processNewPage(Result.Rows page) {
     for (List<ByteBuffer> rowValues : page.rows) {
-      fetchedRows.addLast(new ArrayListBackedRow(columns, rowValues, driverProtocolVersion));
+      fetchedRows.addLast(
+          new MemoizingRow(columns, columnIndexes, rowValues, driverProtocolVersion));
     }
     nextPagingState = page.resultMetadata.pagingState;
+    currentPageSize = page.rows.size();
+    consumedInCurrentPage = 0;
   }
 
-  private void fetchNextPage() {
-    assert nextPagingState != null;
-    try {
-      // Note: we could have add a timeout on that get() for security. That said, we don't want
-      // to pull a random number, and adding a new config for that should probably be discussed.
-      // But it's probably good enough to rely on the persistence layer query timeout.
-      Result result =
-          connection
-              .execute(statement, parameters.withPagingState(nextPagingState), System.nanoTime())
-              .get();
-
+  private void processNextPageResult(@Nullable Result result) {
+    if (result == null) {
+      nextPagingState = null;
+    } else {
       switch (result.kind) {
         case Void:
           nextPagingState = null;
@@ -131,10 +161,80 @@ class PersistenceBackedResultSet implements ResultSet {
           throw new IllegalStateException(
               String.format("Unexpected %s result received for a result set page", result.kind));
       }
+    }
+    if (nextPagingState == null) {
+      // Pages chained after the last one have nothing left to fetch.
+      cancelPrefetches();
+    }
+  }
+
+  /**
+   * Cancels the pages requested ahead of time. Pages chained on a cancelled one are never
+   * requested, but a query already sent to the persistence layer still runs to completion.
+   */
+  private void cancelPrefetches() {
+    CompletableFuture<Result> prefetched;
+    while ((prefetched = prefetchedPages.pollFirst()) != null) {
+      prefetched.cancel(false);
+    }
+  }
+
+  private CompletableFuture<Result> executeForPage(ByteBuffer pagingState) {
+    return connection.execute(
+        statement, parameters.withPagingState(pagingState), System.nanoTime());
+  }
+
+  /** The future for the page following the buffered rows, prefetched or requested now. */
+  private CompletableFuture<Result> nextPageFuture() {
+    assert nextPagingState != null;
+    CompletableFuture<Result> prefetched = prefetchedPages.pollFirst();
+    return prefetched == null ? executeForPage(nextPagingState) : prefetched;
+  }
+
+  /**
+   * Requests the next page ahead of time if read-ahead is enabled and enough of the current page
+   * has been consumed. Note that this does not change what {@link #getPagingState()} returns: a
+   * prefetched page only becomes visible once the buffered rows have all been consumed.
+   */
+  private void maybePrefetch() {
+    if (prefetchPages <= 0
+        || nextPagingState == null
+        || prefetchedPages.size() >= prefetchPages
+        || consumedInCurrentPage < prefetchThreshold * currentPageSize) {
+      return;
+    }
+    CompletableFuture<Result> last = prefetchedPages.peekLast();
+    CompletableFuture<Result> next;
+    if (last == null) {
+      next = executeForPage(nextPagingState);
+    } else {
+      next =
+          last.thenCompose(
+              r -> {
+                ByteBuffer pagingState =
+                    (r != null && r.kind == Result.Kind.Rows)
+                        ? ((Result.Rows) r).resultMetadata.pagingState
+                        : null;
+                return pagingState == null
+                    ? CompletableFuture.completedFuture(null)
+                    : executeForPage(pagingState);
+              });
+    }
+    prefetchedPages.addLast(next);
+  }
+
+  private void fetchNextPage() {
+    assert nextPagingState != null;
+    try {
+      // Note: we could have add a timeout on that get() for security. That said, we don't want
+      // to pull a random number, and adding a new config for that should probably be discussed.
+      // But it's probably good enough to rely on the persistence layer query timeout.
+      processNextPageResult(nextPageFuture().get());
     } catch (InterruptedException e) {
       // We don't play with interruptions, so hopefully this never happen
       throw new RuntimeException("Interrupted while waiting on new page results");
     } catch (ExecutionException e) {
+      cancelPrefetches();
       Throwable cause = e.getCause();
       // We only use unchecked exceptions, and we'd rather not wrap them as it makes it harder to
       // work with.
@@ -144,6 +244,11 @@ class PersistenceBackedResultSet implements ResultSet {
     }
   }
 
+  private void rowsConsumed(int count) {
+    consumedInCurrentPage += count;
+    maybePrefetch();
+  }
+
   private boolean hasNextRow() {
     while (true) {
       if (!fetchedRows.isEmpty()) {
@@ -160,6 +265,7 @@ class PersistenceBackedResultSet implements ResultSet {
     while (true) {
       Row nextRow = fetchedRows.pollFirst();
       if (nextRow != null) {
+        rowsConsumed(1);
         return nextRow;
       }
       if (nextPagingState == null) {
@@ -198,8 +304,7 @@ class PersistenceBackedResultSet implements ResultSet {
     return all;
   }
 
-  @Override
-  public List<Row> currentPageRows() {
+  private List<Row> drainFetchedRows() {
     List<Row> fetched = new ArrayList<>();
     while (!fetchedRows.isEmpty()) {
       fetched.add(fetchedRows.pollFirst());
@@ -207,6 +312,42 @@ class PersistenceBackedResultSet implements ResultSet {
     return fetched;
   }
 
+  // Most callers of this method only want a single page, and pass its paging state back to their
+  // client, so it never reads ahead.
+  @Override
+  public List<Row> currentPageRows() {
+    List<Row> fetched = drainFetchedRows();
+    consumedInCurrentPage += fetched.size();
+    return fetched;
+  }
+
+  // Unlike currentPageRows(), this is called to walk through the pages, so the next one may be
+  // read ahead once a page is returned.
+  private List<Row> nextPageRows() {
+    List<Row> fetched = drainFetchedRows();
+    rowsConsumed(fetched.size());
+    return fetched;
+  }
+
+  @Override
+  public CompletableFuture<List<Row>> fetchNextPageAsync() {
+    if (!fetchedRows.isEmpty() || nextPagingState == null) {
+      return CompletableFuture.completedFuture(nextPageRows());
+    }
+    return nextPageFuture()
+        .whenComplete(
+            (result, error) -> {
+              if (error != null) {
+                cancelPrefetches();
+              }
+            })
+        .thenApply(
+            result -> {
+              processNextPageResult(result);
+              return nextPageRows();
+            });
+  }
+
   @Override
   public boolean hasNoMoreFetchedRows() {
     return fetchedRows.isEmpty();
@@ -0,0 +1,223 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore;
+
+import com.datastax.oss.driver.shaded.guava.common.cache.Cache;
+import com.datastax.oss.driver.shaded.guava.common.cache.CacheBuilder;
+import io.stargate.db.EventListener;
+import io.stargate.db.Parameters;
+import io.stargate.db.Persistence;
+import io.stargate.db.Result;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the preparations done through {@link DataStore#prepare}.
+ *
+ * <p>Data stores are usually short-lived (one per HTTP request for the REST, GraphQL and Documents
+ * APIs), but the statements they prepare are not tied to the connection they are prepared on. This
+ * cache is thus shared by all the data stores built on top of the same {@link Persistence}, and
+ * allows them to skip the PREPARE round-trip for queries that have already been prepared.
+ *
+ * <p>Entries are keyed by query string and by the keyspace the query is prepared against, and the
+ * cache is cleared on any schema change that can invalidate a preparation (alter or drop events).
+ * Note that the data store also transparently re-prepares (and updates this cache) when the
+ * persistence reports a cached statement as unknown.
+ */
+public class PreparedStatementCache {
+
+  private static final long MAX_SIZE =
+      Long.getLong("stargate.persistence.prepared_statement_cache.max_size", 5_000);
+
+  private static final Map<Persistence, PreparedStatementCache> CACHES =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final Cache<Key, CompletableFuture<Result.Prepared>> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private PreparedStatementCache(long maxSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /**
+   * Returns the cache shared by all the data stores using the provided persistence, creating it
+   * (and registering it for schema change notifications) on first use.
+   */
+  public static PreparedStatementCache forPersistence(Persistence persistence) {
+    return CACHES.computeIfAbsent(
+        persistence,
+        p -> {
+          PreparedStatementCache cache = new PreparedStatementCache(MAX_SIZE);
+          if (p != null) {
+            p.registerEventListener(cache.new InvalidatingListener());
+          }
+          return cache;
+        });
+  }
+
+  CompletableFuture<Result.Prepared> prepare(
+      Persistence.Connection connection, String queryString, Parameters parameters) {
+    Key key = new Key(queryString, keyspace(connection, parameters));
+    CompletableFuture<Result.Prepared> cached = cache.getIfPresent(key);
+    if (cached != null && !cached.isCompletedExceptionally()) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    return doPrepare(key, connection, queryString, parameters);
+  }
+
+  /**
+   * Re-prepares the provided query, replacing any cached (and presumably invalid) preparation for
+   * it.
+   */
+  CompletableFuture<Result.Prepared> reprepare(
+      Persistence.Connection connection, String queryString, Parameters parameters) {
+    Key key = new Key(queryString, keyspace(connection, parameters));
+    return doPrepare(key, connection, queryString, parameters);
+  }
+
+  private CompletableFuture<Result.Prepared> doPrepare(
+      Key key, Persistence.Connection connection, String queryString, Parameters parameters) {
+    CompletableFuture<Result.Prepared> future = connection.prepare(queryString, parameters);
+    cache.put(key, future);
+    future.whenComplete(
+        (prepared, error) -> {
+          if (error != null) {
+            // Don't keep failures around: the next attempt should retry the preparation.
+            cache.asMap().remove(key, future);
+          }
+        });
+    return future;
+  }
+
+  private static String keyspace(Persistence.Connection connection, Parameters parameters) {
+    if (parameters.defaultKeyspace().isPresent()) {
+      return parameters.defaultKeyspace().get();
+    }
+    return connection.usedKeyspace().orElse(null);
+  }
+
+  /** Removes all the entries of this cache. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /** The number of calls that were served from the cache. */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /** The number of calls that required an actual preparation. */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /** The (approximate) number of entries currently cached. */
+  public long size() {
+    return cache.size();
+  }
+
+  private static class Key {
+    private final String queryString;
+    private final String keyspace;
+
+    private Key(String queryString, String keyspace) {
+      this.queryString = queryString;
+      this.keyspace = keyspace;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return queryString.equals(that.queryString) && Objects.equals(keyspace, that.keyspace);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(queryString, keyspace);
+    }
+  }
+
+  /**
+   * Clears the cache when a schema change may have invalidated some of its preparations. Creations
+   * are ignored since they cannot invalidate a successful preparation.
+   */
+  private class InvalidatingListener implements EventListener {
+
+    @Override
+    public void onAlterKeyspace(String keyspace) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onAlterTable(String keyspace, String table) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onAlterType(String keyspace, String type) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onAlterFunction(String keyspace, String function, List<String> argumentTypes) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onAlterAggregate(String keyspace, String aggregate, List<String> argumentTypes) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropKeyspace(String keyspace) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropTable(String keyspace, String table) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropType(String keyspace, String type) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropFunction(String keyspace, String function, List<String> argumentTypes) {
+      invalidateAll();
+    }
+
+    @Override
+    public void onDropAggregate(String keyspace, String aggregate, List<String> argumentTypes) {
+      invalidateAll();
+    }
+  }
+}
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 import javax.validation.constraints.NotNull;
 
 public interface ResultSet extends Iterable<Row> {
@@ -94,9 +95,29 @@ public interface ResultSet extends Iterable<Row> {
    */
   List<Row> rows();
 
-  /** @return the rows of the currently fetched page. */
+  /**
+   * @return the rows of the currently fetched page. This never requests another page, not even
+   *     ahead of time, so it is meant for callers that only read a single page.
+   */
   List<Row> currentPageRows();
 
+  /**
+   * Returns the next page of rows of this result set, for callers that walk through the pages.
+   *
+   * <p>If some rows of the current page haven't been consumed yet, those are returned (and
+   * consumed) by an already completed future. Otherwise, the next page is fetched (if it wasn't
+   * already read ahead) and its rows are returned. Once the result set is exhausted, the returned
+   * future completes with an empty list. Unlike {@link #currentPageRows()}, returning a page may
+   * request the following one ahead of time, if read-ahead is enabled.
+   *
+   * <p>Callers should not call other methods of this result set while a returned future is not
+   * completed. As for {@link DataStore#query}, the future may be completed on a sensitive thread,
+   * so blocking operations should not be chained on it.
+   */
+  default CompletableFuture<List<Row>> fetchNextPageAsync() {
+    return CompletableFuture.completedFuture(currentPageRows());
+  }
+
   /**
    * @return true if no more rows are available in the current page, without trying to fetch any
    *     additional pages.
@@ -0,0 +1,123 @@
+/*
+ * Copyright DataStax, Inc. and/or The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore;
+
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import com.datastax.oss.driver.shaded.guava.common.base.Throwables;
+import com.datastax.oss.driver.shaded.guava.common.cache.Cache;
+import com.datastax.oss.driver.shaded.guava.common.cache.CacheBuilder;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.UncheckedExecutionException;
+import io.stargate.db.AuthenticatedUser;
+import io.stargate.db.Parameters;
+import io.stargate.db.Persistence;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Reuses logged-in {@link Persistence.Connection}s across the requests made on behalf of the same
+ * role.
+ *
+ * <p>Creating a connection and logging it in has a cost, and APIs that serve each HTTP request with
+ * a new {@link DataStore} would otherwise pay it on every request. A connection does not carry any
+ * per-request state (query {@link Parameters} are passed with each query), so it can be shared by
+ * concurrent requests of the same role.
+ *
+ * <p>At most {@code stargate.role_connections.max_size} roles (1000 by default) are cached, the
+ * least recently used being evicted first.
+ *
+ * <p>Only the login is reused: permissions are still checked by the persistence on every query, so
+ * grants and revocations apply as usual. But the persistence doesn't notify role changes, so a
+ * role that is dropped or loses its LOGIN privilege can keep using its cached connection until it
+ * is re-created. Connections are thus re-created (and logged in again) at least every {@code
+ * stargate.role_connections.ttl_seconds} seconds (10 by default), which bounds that window.
+ * Callers that know about a role change can also call {@link #invalidate(String)}.
+ */
+public class RoleConnectionCache {
+  private static final long MAX_SIZE = Long.getLong("stargate.role_connections.max_size", 1000);
+  private static final long TTL_SECONDS =
+      Long.getLong("stargate.role_connections.ttl_seconds", 10);
+
+  private final Persistence persistence;
+  private final Cache<String, Persistence.Connection> connections;
+
+  public RoleConnectionCache(Persistence persistence) {
+    this(persistence, MAX_SIZE, TTL_SECONDS, TimeUnit.SECONDS);
+  }
+
+  @VisibleForTesting
+  RoleConnectionCache(Persistence persistence, long maxSize, long ttl, TimeUnit unit) {
+    this.persistence = persistence;
+    this.connections =
+        CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl, unit).build();
+  }
+
+  /**
+   * Returns a connection logged in as the provided role, creating it if necessary.
+   *
+   * @param roleName the role to login. For convenience, if it is {@code null} or the empty string,
+   *     the returned connection is not logged in, like in {@link DataStore#create(Persistence,
+   *     String, Parameters)}.
+   * @throws org.apache.cassandra.stargate.exceptions.AuthenticationException if the login fails.
+   *     Failed logins are not cached.
+   */
+  public Persistence.Connection connection(@Nullable String roleName) {
+    String key = roleName == null ? "" : roleName;
+    try {
+      return connections.get(key, () -> newConnection(key));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException("Unexpected error creating a connection", e.getCause());
+    }
+  }
+
+  /**
+   * Creates a new DataStore on top of the cached connection of the provided role.
+   *
+   * <p>This is the equivalent of {@link DataStore#create(Persistence, String, Parameters)}, but
+   * without creating and logging in a new connection each time.
+   */
+  public DataStore dataStore(@Nullable String roleName, @Nonnull Parameters queryParameters) {
+    return DataStore.create(connection(roleName), queryParameters);
+  }
+
+  /**
+   * Same as {@link #dataStore(String, Parameters)}, but using {@link Parameters#defaults()} for the
+   * default parameters.
+   */
+  public DataStore dataStore(@Nullable String roleName) {
+    return dataStore(roleName, Parameters.defaults());
+  }
+
+  /** Discards the connection of the provided role, if any, typically after that role changed. */
+  public void invalidate(String roleName) {
+    connections.invalidate(roleName);
+  }
+
+  /** Discards all the cached connections. */
+  public void invalidateAll() {
+    connections.invalidateAll();
+  }
+
+  private Persistence.Connection newConnection(String roleName) {
+    Persistence.Connection connection = persistence.newConnection();
+    if (!roleName.isEmpty()) {
+      connection.login(AuthenticatedUser.of(roleName));
+    }
+    return connection;
+  }
+}
@@ -0,0 +1,64 @@
+package io.stargate.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SchemaAgreementPollerTest {
+
+  private final AtomicInteger attempts = new AtomicInteger();
+
+  @Test
+  public void completesOnceInAgreement() throws Exception {
+    CompletableFuture<Void> future =
+        SchemaAgreementPoller.poll(() -> attempts.incrementAndGet() == 3, 1, 10);
+
+    future.get(10, TimeUnit.SECONDS);
+    assertThat(attempts.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void failsAfterMaxAttempts() {
+    CompletableFuture<Void> future =
+        SchemaAgreementPoller.poll(
+            () -> {
+              attempts.incrementAndGet();
+              return false;
+            },
+            1,
+            5);
+
+    assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("Failed to reach schema agreement after 5 milliseconds.");
+    assertThat(attempts.get()).isEqualTo(5);
+  }
+
+  @Test
+  public void stopsPollingWhenCancelled() throws Exception {
+    CompletableFuture<Void> future =
+        SchemaAgreementPoller.poll(
+            () -> {
+              attempts.incrementAndGet();
+              return false;
+            },
+            10,
+            Integer.MAX_VALUE);
+    while (attempts.get() == 0) {
+      Thread.sleep(1);
+    }
+
+    future.cancel(false);
+    int attemptsWhenCancelled = attempts.get();
+    Thread.sleep(100);
+
+    // At most one attempt may have been in flight when the future was cancelled.
+    assertThat(attempts.get()).isLessThanOrEqualTo(attemptsWhenCancelled + 1);
+  }
+}
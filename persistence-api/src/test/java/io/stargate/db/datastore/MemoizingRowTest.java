@@ -0,0 +1,155 @@
+package io.stargate.db.datastore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.codec.CodecNotFoundException;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.ColumnType;
+import io.stargate.db.schema.Column.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class MemoizingRowTest {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.DEFAULT;
+
+  private final List<Column> columns = new ArrayList<>();
+  private final List<ByteBuffer> values = new ArrayList<>();
+
+  MemoizingRowTest() {
+    add("int", Type.Int, 42);
+    add("int_null", Type.Int, null);
+    addRaw("int_empty", Type.Int, ByteBuffer.allocate(0));
+    add("bigint", Type.Bigint, 1604000000000000L);
+    add("double", Type.Double, 4.2);
+    add("boolean", Type.Boolean, true);
+    add("boolean_null", Type.Boolean, null);
+    add("text", Type.Text, "value");
+    add("text_null", Type.Text, null);
+    add("blob", Type.Blob, ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    add("list", Type.List.of(Type.Int), Arrays.asList(1, 2));
+    add("list_null", Type.List.of(Type.Int), null);
+    add("map", Type.Map.of(Type.Text, Type.Int), Collections.singletonMap("a", 1));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void add(String name, ColumnType type, Object value) {
+    addRaw(
+        name,
+        type,
+        value == null ? null : ((TypeCodec<Object>) type.codec()).encode(value, VERSION));
+  }
+
+  private void addRaw(String name, ColumnType type, ByteBuffer value) {
+    columns.add(Column.create(name, type));
+    values.add(value);
+  }
+
+  private Row plainRow() {
+    return new ArrayListBackedRow(columns, values, VERSION);
+  }
+
+  private Row memoizingRow() {
+    return new MemoizingRow(columns, ArrayListBackedRow.indexColumns(columns), values, VERSION);
+  }
+
+  @Test
+  public void getObjectMatchesPlainRowOnRepeatedReads() {
+    Row plain = plainRow();
+    Row memoizing = memoizingRow();
+
+    for (int read = 0; read < 3; read++) {
+      for (int i = 0; i < columns.size(); i++) {
+        assertThat(memoizing.getObject(i)).as(columns.get(i).name()).isEqualTo(plain.getObject(i));
+      }
+    }
+  }
+
+  @Test
+  public void primitiveGettersMatchPlainRow() {
+    Row plain = plainRow();
+    Row memoizing = memoizingRow();
+
+    for (int read = 0; read < 2; read++) {
+      for (String name : new String[] {"int", "int_null", "int_empty"}) {
+        assertThat(memoizing.getInt(name)).as(name).isEqualTo(plain.getInt(name));
+        assertThat(memoizing.isNull(name)).as(name).isEqualTo(plain.isNull(name));
+      }
+      assertThat(memoizing.getLong("bigint")).isEqualTo(plain.getLong("bigint"));
+      assertThat(memoizing.getDouble("double")).isEqualTo(plain.getDouble("double"));
+      assertThat(memoizing.getBoolean("boolean")).isEqualTo(plain.getBoolean("boolean"));
+      assertThat(memoizing.getBoolean("boolean_null")).isEqualTo(plain.getBoolean("boolean_null"));
+    }
+  }
+
+  @Test
+  public void nullValuesMatchPlainRow() {
+    Row plain = plainRow();
+    Row memoizing = memoizingRow();
+
+    for (int read = 0; read < 2; read++) {
+      assertThat(memoizing.getString("text_null")).isNull();
+      assertThat(memoizing.get("int_null", Integer.class)).isNull();
+      assertThat(memoizing.getList("list_null", Integer.class))
+          .isEqualTo(plain.getList("list_null", Integer.class))
+          .isEmpty();
+    }
+  }
+
+  @Test
+  public void rejectsUnsupportedTypesForCachedNullValues() {
+    Row memoizing = memoizingRow();
+
+    assertThat(memoizing.getObject("int_null")).isNull();
+
+    assertThatThrownBy(() -> plainRow().get("int_null", String.class))
+        .isInstanceOf(CodecNotFoundException.class);
+    assertThatThrownBy(() -> memoizing.get("int_null", String.class))
+        .isInstanceOf(CodecNotFoundException.class);
+  }
+
+  @Test
+  public void collectionsMatchPlainRowAndAreNotShared() {
+    Row plain = plainRow();
+    Row memoizing = memoizingRow();
+
+    List<Integer> list = memoizing.getList("list", Integer.class);
+    assertThat(list).isEqualTo(plain.getList("list", Integer.class)).containsExactly(1, 2);
+    list.add(3);
+    assertThat(memoizing.getList("list", Integer.class)).containsExactly(1, 2);
+
+    Map<String, Integer> map = memoizing.getMap("map", String.class, Integer.class);
+    assertThat(map).isEqualTo(plain.getMap("map", String.class, Integer.class));
+    map.clear();
+    assertThat(memoizing.getMap("map", String.class, Integer.class)).containsEntry("a", 1);
+  }
+
+  @Test
+  public void blobsAreNotShared() {
+    Row memoizing = memoizingRow();
+
+    ByteBuffer blob = memoizing.getByteBuffer("blob");
+    assertThat(blob.remaining()).isEqualTo(3);
+    blob.get();
+
+    assertThat(memoizing.getByteBuffer("blob").remaining()).isEqualTo(3);
+    assertThat(memoizing.getByteBuffer("blob")).isEqualTo(plainRow().getByteBuffer("blob"));
+  }
+
+  @Test
+  public void cachesImmutableValues() {
+    Row memoizing = memoizingRow();
+
+    String text = memoizing.getString("text");
+    assertThat(text).isEqualTo("value");
+    assertThat(memoizing.getString("text")).isSameAs(text);
+  }
+}
@@ -0,0 +1,199 @@
+package io.stargate.db.datastore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.stargate.db.Parameters;
+import io.stargate.db.Persistence;
+import io.stargate.db.Result;
+import io.stargate.db.SimpleStatement;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.ImmutableColumn;
+import io.stargate.db.schema.Schema;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class PersistenceBackedResultSetTest {
+
+  private static final int PAGE_SIZE = 4;
+  private static final int PAGES = 3;
+
+  private static final List<Column> COLUMNS =
+      Collections.singletonList(
+          ImmutableColumn.builder()
+              .keyspace("ks")
+              .table("t")
+              .name("v")
+              .type(Column.Type.Int)
+              .kind(Column.Kind.Regular)
+              .build());
+
+  // The page requested by each execution, in order.
+  private final List<Integer> requestedPages = new ArrayList<>();
+  // Pages whose next request should fail.
+  private final List<Integer> failingPages = new ArrayList<>();
+
+  private final Persistence persistence =
+      (Persistence)
+          Proxy.newProxyInstance(
+              getClass().getClassLoader(),
+              new Class<?>[] {Persistence.class},
+              (proxy, method, args) -> {
+                if (method.getName().equals("schema")) {
+                  return Schema.create(Collections.emptyList());
+                }
+                throw new UnsupportedOperationException(method.getName());
+              });
+
+  private final Persistence.Connection connection =
+      (Persistence.Connection)
+          Proxy.newProxyInstance(
+              getClass().getClassLoader(),
+              new Class<?>[] {Persistence.Connection.class},
+              (proxy, method, args) -> {
+                if (method.getName().equals("persistence")) {
+                  return persistence;
+                }
+                if (method.getName().equals("execute")) {
+                  return execute((Parameters) args[1]);
+                }
+                throw new UnsupportedOperationException(method.getName());
+              });
+
+  private CompletableFuture<Result> execute(Parameters parameters) {
+    int page = parameters.pagingState().orElseThrow(AssertionError::new).getInt(0);
+    requestedPages.add(page);
+    CompletableFuture<Result> future = new CompletableFuture<>();
+    if (failingPages.remove((Integer) page)) {
+      future.completeExceptionally(new IllegalStateException("Page " + page + " failed"));
+    } else {
+      future.complete(page(page));
+    }
+    return future;
+  }
+
+  private static ByteBuffer intValue(int value) {
+    ByteBuffer buffer = ByteBuffer.allocate(4);
+    buffer.putInt(0, value);
+    return buffer;
+  }
+
+  private static Result.Rows page(int page) {
+    List<List<ByteBuffer>> rows = new ArrayList<>();
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      rows.add(Collections.singletonList(intValue(page * PAGE_SIZE + i)));
+    }
+    ByteBuffer pagingState = page + 1 < PAGES ? intValue(page + 1) : null;
+    return new Result.Rows(
+        rows,
+        new Result.ResultMetadata(EnumSet.noneOf(Result.Flag.class), COLUMNS, null, pagingState));
+  }
+
+  private ResultSet resultSet(int prefetchPages, double prefetchThreshold) {
+    return new PersistenceBackedResultSet(
+        connection,
+        Parameters.builder().pageSize(PAGE_SIZE).build(),
+        new SimpleStatement("SELECT v FROM ks.t"),
+        page(0),
+        prefetchPages,
+        prefetchThreshold);
+  }
+
+  private static List<Integer> values(List<Row> rows) {
+    return rows.stream().map(r -> r.getInt("v")).collect(Collectors.toList());
+  }
+
+  private static List<Integer> allValues() {
+    List<Integer> values = new ArrayList<>();
+    for (int i = 0; i < PAGE_SIZE * PAGES; i++) {
+      values.add(i);
+    }
+    return values;
+  }
+
+  @Test
+  public void fetchesPagesOnDemandWithoutReadAhead() {
+    ResultSet resultSet = resultSet(0, 0.5);
+
+    Iterator<Row> iterator = resultSet.iterator();
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      iterator.next();
+    }
+    assertThat(requestedPages).isEmpty();
+
+    assertThat(iterator.hasNext()).isTrue();
+    assertThat(requestedPages).containsExactly(1);
+  }
+
+  @Test
+  public void prefetchesOnceThresholdIsConsumed() {
+    ResultSet resultSet = resultSet(1, 0.5);
+
+    Iterator<Row> iterator = resultSet.iterator();
+    iterator.next();
+    assertThat(requestedPages).isEmpty();
+    iterator.next();
+    assertThat(requestedPages).containsExactly(1);
+    // The prefetched page only becomes visible once the buffered rows are consumed.
+    assertThat(resultSet.getPagingState().getInt(0)).isEqualTo(1);
+  }
+
+  @Test
+  public void reusesPrefetchedPages() {
+    ResultSet resultSet = resultSet(1, 0.5);
+
+    assertThat(values(resultSet.rows())).isEqualTo(allValues());
+    // Each page is requested exactly once, ahead of time.
+    assertThat(requestedPages).containsExactly(1, 2);
+  }
+
+  @Test
+  public void doesNotPrefetchWhenReadingSinglePage() {
+    ResultSet resultSet = resultSet(1, 0.5);
+
+    assertThat(values(resultSet.currentPageRows())).hasSize(PAGE_SIZE);
+    assertThat(requestedPages).isEmpty();
+    assertThat(resultSet.getPagingState().getInt(0)).isEqualTo(1);
+  }
+
+  @Test
+  public void prefetchesOnAsyncPageAdvance() {
+    ResultSet resultSet = resultSet(1, 0.5);
+
+    List<Integer> values = new ArrayList<>(values(resultSet.fetchNextPageAsync().join()));
+    assertThat(requestedPages).containsExactly(1);
+    values.addAll(values(resultSet.fetchNextPageAsync().join()));
+    assertThat(requestedPages).containsExactly(1, 2);
+    values.addAll(values(resultSet.fetchNextPageAsync().join()));
+
+    assertThat(values).isEqualTo(allValues());
+    assertThat(requestedPages).containsExactly(1, 2);
+    assertThat(resultSet.getPagingState()).isNull();
+  }
+
+  @Test
+  public void retriesFailedPageInsteadOfUsingLaterPrefetches() {
+    failingPages.add(1);
+    ResultSet resultSet = resultSet(2, 0);
+
+    Iterator<Row> iterator = resultSet.iterator();
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      iterator.next();
+    }
+    assertThatThrownBy(iterator::hasNext)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Page 1 failed");
+
+    // The page chained on the failed one was cancelled, so page 1 is requested again.
+    assertThat(iterator.next().getInt("v")).isEqualTo(PAGE_SIZE);
+    assertThat(requestedPages).startsWith(1, 1);
+  }
+}
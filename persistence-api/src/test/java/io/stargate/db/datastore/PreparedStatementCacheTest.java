@@ -0,0 +1,146 @@
+package io.stargate.db.datastore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.stargate.db.EventListener;
+import io.stargate.db.Parameters;
+import io.stargate.db.Persistence;
+import io.stargate.db.Result;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.apache.cassandra.stargate.utils.MD5Digest;
+import org.junit.jupiter.api.Test;
+
+class PreparedStatementCacheTest {
+
+  private static final String QUERY = "SELECT * FROM ks.t";
+
+  // The queries actually prepared on the persistence, in order.
+  private final List<String> prepares = new ArrayList<>();
+  private final List<EventListener> listeners = new ArrayList<>();
+  private boolean failNextPrepare;
+
+  private final Persistence persistence =
+      (Persistence)
+          Proxy.newProxyInstance(
+              getClass().getClassLoader(),
+              new Class<?>[] {Persistence.class},
+              (proxy, method, args) -> {
+                switch (method.getName()) {
+                  case "registerEventListener":
+                    listeners.add((EventListener) args[0]);
+                    return null;
+                  case "newConnection":
+                    return newConnection();
+                  case "hashCode":
+                    return System.identityHashCode(proxy);
+                  case "equals":
+                    return proxy == args[0];
+                  default:
+                    throw new UnsupportedOperationException(method.getName());
+                }
+              });
+
+  private Persistence.Connection newConnection() {
+    return (Persistence.Connection)
+        Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {Persistence.Connection.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "persistence":
+                  return persistence;
+                case "usedKeyspace":
+                  return Optional.empty();
+                case "prepare":
+                  return prepare((String) args[0]);
+                default:
+                  throw new UnsupportedOperationException(method.getName());
+              }
+            });
+  }
+
+  private CompletableFuture<Result.Prepared> prepare(String query) {
+    prepares.add(query);
+    CompletableFuture<Result.Prepared> future = new CompletableFuture<>();
+    if (failNextPrepare) {
+      failNextPrepare = false;
+      future.completeExceptionally(new IllegalStateException("Prepare failed"));
+    } else {
+      future.complete(
+          new Result.Prepared(
+              MD5Digest.compute(query),
+              null,
+              null,
+              new Result.PreparedMetadata(
+                  EnumSet.noneOf(Result.Flag.class), Collections.emptyList(), null)));
+    }
+    return future;
+  }
+
+  private PreparedStatementCache cache() {
+    return PreparedStatementCache.forPersistence(persistence);
+  }
+
+  @Test
+  public void queriesUpdateHitAndMissCounts() {
+    DataStore dataStore = DataStore.create(persistence);
+
+    dataStore.prepare(QUERY).join();
+    assertThat(cache().missCount()).isEqualTo(1);
+    assertThat(cache().hitCount()).isEqualTo(0);
+
+    // Data stores are created per request, but share the cache of their persistence.
+    DataStore.create(persistence).prepare(QUERY).join();
+    assertThat(cache().missCount()).isEqualTo(1);
+    assertThat(cache().hitCount()).isEqualTo(1);
+    assertThat(cache().size()).isEqualTo(1);
+    assertThat(prepares).containsExactly(QUERY);
+  }
+
+  @Test
+  public void keysOnDefaultKeyspace() {
+    DataStore.create(persistence, null, Parameters.builder().defaultKeyspace("ks1").build())
+        .prepare(QUERY)
+        .join();
+    DataStore.create(persistence, null, Parameters.builder().defaultKeyspace("ks2").build())
+        .prepare(QUERY)
+        .join();
+
+    assertThat(prepares).containsExactly(QUERY, QUERY);
+    assertThat(cache().size()).isEqualTo(2);
+  }
+
+  @Test
+  public void invalidatesOnSchemaChange() {
+    DataStore dataStore = DataStore.create(persistence);
+    dataStore.prepare(QUERY).join();
+
+    assertThat(listeners).hasSize(1);
+    listeners.get(0).onDropTable("ks", "t");
+    dataStore.prepare(QUERY).join();
+
+    assertThat(prepares).containsExactly(QUERY, QUERY);
+    assertThat(cache().missCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void retriesFailedPreparations() {
+    DataStore dataStore = DataStore.create(persistence);
+
+    failNextPrepare = true;
+    assertThatThrownBy(() -> dataStore.prepare(QUERY).join())
+        .isInstanceOf(CompletionException.class)
+        .hasMessageContaining("Prepare failed");
+    dataStore.prepare(QUERY).join();
+
+    assertThat(prepares).containsExactly(QUERY, QUERY);
+  }
+}
@@ -0,0 +1,102 @@
+package io.stargate.db.datastore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.stargate.db.AuthenticatedUser;
+import io.stargate.db.Persistence;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.stargate.exceptions.AuthenticationException;
+import org.junit.jupiter.api.Test;
+
+class RoleConnectionCacheTest {
+
+  // The roles that each connection created by the fake persistence logged in, in creation order.
+  private final List<List<String>> logins = new ArrayList<>();
+
+  private final Persistence persistence =
+      (Persistence)
+          Proxy.newProxyInstance(
+              getClass().getClassLoader(),
+              new Class<?>[] {Persistence.class},
+              (proxy, method, args) -> {
+                if (method.getName().equals("newConnection")) {
+                  return newConnection();
+                }
+                throw new UnsupportedOperationException(method.getName());
+              });
+
+  private Persistence.Connection newConnection() {
+    List<String> connectionLogins = new ArrayList<>();
+    logins.add(connectionLogins);
+    return (Persistence.Connection)
+        Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {Persistence.Connection.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("login")) {
+                String name = ((AuthenticatedUser) args[0]).name();
+                if (name.equals("invalid")) {
+                  throw new AuthenticationException("Invalid role");
+                }
+                connectionLogins.add(name);
+                return null;
+              }
+              if (method.getName().equals("toString")) {
+                return "connection" + connectionLogins;
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+  }
+
+  @Test
+  public void reusesConnectionsOfTheSameRole() {
+    RoleConnectionCache cache = new RoleConnectionCache(persistence);
+
+    Persistence.Connection role1 = cache.connection("role1");
+    assertThat(cache.connection("role1")).isSameAs(role1);
+    assertThat(cache.connection("role2")).isNotSameAs(role1);
+    assertThat(cache.connection(null)).isSameAs(cache.connection(""));
+
+    assertThat(logins).hasSize(3);
+    assertThat(logins.get(0)).containsExactly("role1");
+    assertThat(logins.get(1)).containsExactly("role2");
+    assertThat(logins.get(2)).isEmpty();
+  }
+
+  @Test
+  public void recreatesInvalidatedConnections() {
+    RoleConnectionCache cache = new RoleConnectionCache(persistence);
+
+    Persistence.Connection connection = cache.connection("role1");
+    cache.invalidate("role1");
+
+    assertThat(cache.connection("role1")).isNotSameAs(connection);
+    assertThat(logins).hasSize(2);
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedRoles() {
+    RoleConnectionCache cache = new RoleConnectionCache(persistence, 1, 1, TimeUnit.HOURS);
+
+    Persistence.Connection connection = cache.connection("role1");
+    cache.connection("role2");
+
+    assertThat(cache.connection("role1")).isNotSameAs(connection);
+  }
+
+  @Test
+  public void doesNotCacheFailedLogins() {
+    RoleConnectionCache cache = new RoleConnectionCache(persistence);
+
+    assertThatThrownBy(() -> cache.connection("invalid"))
+        .isInstanceOf(AuthenticationException.class)
+        .hasMessage("Invalid role");
+    assertThatThrownBy(() -> cache.connection("invalid"))
+        .isInstanceOf(AuthenticationException.class);
+    assertThat(logins).hasSize(2);
+  }
+}
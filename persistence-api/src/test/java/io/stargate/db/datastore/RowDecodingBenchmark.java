@@ -0,0 +1,167 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of decoding one row of a Documents API table (key, 64 path columns, leaf,
+ * values and writetime), reading every column by name the way {@code DocumentService} does.
+ *
+ * <p>The {@code *Repeated} variants read the {@code key}, {@code leaf} and value columns several
+ * times per row, as the filtering and grouping in {@code DocumentService} do, to compare {@link
+ * ArrayListBackedRow} (which decodes on every access) with {@link MemoizingRow}.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.stargate.db.datastore.RowDecodingBenchmark} or from the IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowDecodingBenchmark {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.DEFAULT;
+
+  @Param({"8", "64"})
+  public int depth;
+
+  private List<Column> columns;
+  private Map<String, Integer> columnIndexes;
+  private List<ByteBuffer> values;
+  private String[] pathColumnNames;
+
+  @Setup
+  public void setup() {
+    columns = new ArrayList<>();
+    values = new ArrayList<>();
+    add("key", Type.Text, "a9fb1f04-0394-4c74-b77b-49b4e0ef7900");
+    pathColumnNames = new String[64];
+    for (int i = 0; i < 64; i++) {
+      pathColumnNames[i] = "p" + i;
+      add(pathColumnNames[i], Type.Text, i < depth ? "field" + i : "");
+    }
+    add("leaf", Type.Text, "field" + (depth - 1));
+    add("text_value", Type.Text, null);
+    add("dbl_value", Type.Double, 42.0);
+    add("bool_value", Type.Boolean, null);
+    add("writetime(leaf)", Type.Bigint, 1604000000000000L);
+    columnIndexes = ArrayListBackedRow.indexColumns(columns);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void add(String name, Type type, Object value) {
+    columns.add(Column.create(name, type));
+    values.add(value == null ? null : type.codec().encode(value, VERSION));
+  }
+
+  /** Decodes a row whose name lookups go through the shared name to index map. */
+  @Benchmark
+  public void decodeIndexed(Blackhole bh) {
+    decode(new ArrayListBackedRow(columns, columnIndexes, values, VERSION), bh);
+  }
+
+  /** Decodes a memoizing row (as returned by result sets) in a single pass. */
+  @Benchmark
+  public void decodeMemoizing(Blackhole bh) {
+    decode(new MemoizingRow(columns, columnIndexes, values, VERSION), bh);
+  }
+
+  @Benchmark
+  public void decodeRepeated(Blackhole bh) {
+    decodeRepeatedly(new ArrayListBackedRow(columns, columnIndexes, values, VERSION), bh);
+  }
+
+  @Benchmark
+  public void decodeMemoizingRepeated(Blackhole bh) {
+    decodeRepeatedly(new MemoizingRow(columns, columnIndexes, values, VERSION), bh);
+  }
+
+  /** Decodes a row resolving each name with a linear scan, as rows used to. */
+  @Benchmark
+  public void decodeLinearScan(Blackhole bh) {
+    Row row = new ArrayListBackedRow(columns, columnIndexes, values, VERSION);
+    bh.consume(row.getString(linearIndexOf("key")));
+    for (int i = 0; i < depth; i++) {
+      bh.consume(row.getString(linearIndexOf(pathColumnNames[i])));
+    }
+    bh.consume(row.getString(linearIndexOf("leaf")));
+    bh.consume(row.isNull(linearIndexOf("text_value")));
+    bh.consume(row.getDouble(linearIndexOf("dbl_value")));
+    bh.consume(row.isNull(linearIndexOf("bool_value")));
+    bh.consume(row.getLong(linearIndexOf("writetime(leaf)")));
+  }
+
+  private void decode(Row row, Blackhole bh) {
+    bh.consume(row.getString("key"));
+    for (int i = 0; i < depth; i++) {
+      bh.consume(row.getString(pathColumnNames[i]));
+    }
+    bh.consume(row.getString("leaf"));
+    bh.consume(row.isNull("text_value"));
+    bh.consume(row.getDouble("dbl_value"));
+    bh.consume(row.isNull("bool_value"));
+    bh.consume(row.getLong("writetime(leaf)"));
+  }
+
+  private void decodeRepeatedly(Row row, Blackhole bh) {
+    decode(row, bh);
+    for (int i = 0; i < 3; i++) {
+      bh.consume(row.getString("key"));
+      bh.consume(row.getString("leaf"));
+      bh.consume(row.getDouble("dbl_value"));
+      bh.consume(row.getBoolean("bool_value"));
+    }
+  }
+
+  private int linearIndexOf(String name) {
+    for (int i = 0; i < columns.size(); i++) {
+      if (columns.get(i).name().equals(name)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(RowDecodingBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -6,107 +6,107 @@ import org.apache.cassandra.service.MigrationListener;
 
 /**
  * Simple abstract {@link MigrationListener} implementation that funnels all the discrete schema
- * changes through a single no-argument callback (the {@link #onSchemaChange()}). For when we want
- * to do "something" on schema changes, but that something doesn't depend on the details of the
- * schema change.
+ * changes through a single callback (the {@link #onSchemaChange(String)}) that only gets the name
+ * of the modified keyspace. For when we want to do "something" on schema changes, but that
+ * something doesn't depend on the details of the schema change beyond the keyspace it affects.
  */
 abstract class SimpleCallbackMigrationListener extends MigrationListener {
 
-  abstract void onSchemaChange();
+  abstract void onSchemaChange(String keyspace);
 
   @Override
   public void onCreateKeyspace(String keyspace) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateColumnFamily(String keyspace, String table) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateView(String keyspace, String view) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateUserType(String keyspace, String type) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateFunction(
       String keyspace, String function, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateAggregate(
       String keyspace, String aggregate, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onUpdateKeyspace(String keyspace) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onUpdateColumnFamily(String keyspace, String table, boolean affectsStatements) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onUpdateView(String keyspace, String view, boolean affectsStatements) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onUpdateUserType(String keyspace, String type) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onUpdateFunction(
       String keyspace, String function, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onUpdateAggregate(
       String keyspace, String aggregate, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropKeyspace(String keyspace) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropColumnFamily(String keyspace, String table) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropView(String keyspace, String view) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropUserType(String keyspace, String type) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropFunction(
       String keyspace, String function, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropAggregate(
       String keyspace, String aggregate, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 }
@@ -2,6 +2,7 @@ package io.stargate.db.cassandra.impl;
 
 import static org.apache.cassandra.concurrent.SharedExecutorPool.SHARED;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.Uninterruptibles;
 import io.stargate.db.Authenticator;
@@ -14,9 +15,11 @@ import io.stargate.db.Persistence;
 import io.stargate.db.Result;
 import io.stargate.db.SimpleStatement;
 import io.stargate.db.Statement;
+import io.stargate.db.Workload;
 import io.stargate.db.cassandra.impl.interceptors.DefaultQueryInterceptor;
 import io.stargate.db.cassandra.impl.interceptors.QueryInterceptor;
 import io.stargate.db.datastore.common.AbstractCassandraPersistence;
+import io.stargate.db.datastore.common.WorkloadExecutors;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -25,12 +28,12 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.cassandra.auth.AuthenticatedUser;
-import org.apache.cassandra.concurrent.LocalAwareExecutorService;
 import org.apache.cassandra.config.Config;
 import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.cql3.QueryOptions;
@@ -41,6 +44,7 @@ import org.apache.cassandra.exceptions.AuthenticationException;
 import org.apache.cassandra.gms.ApplicationState;
 import org.apache.cassandra.gms.EndpointState;
 import org.apache.cassandra.gms.Gossiper;
+import org.apache.cassandra.metrics.CassandraMetricsRegistry;
 import org.apache.cassandra.schema.ColumnMetadata;
 import org.apache.cassandra.schema.IndexMetadata;
 import org.apache.cassandra.schema.KeyspaceMetadata;
@@ -53,6 +57,7 @@ import org.apache.cassandra.service.ClientState;
 import org.apache.cassandra.service.ClientWarn;
 import org.apache.cassandra.service.QueryState;
 import org.apache.cassandra.service.StorageService;
+import org.apache.cassandra.stargate.exceptions.OverloadedException;
 import org.apache.cassandra.stargate.exceptions.PersistenceException;
 import org.apache.cassandra.stargate.transport.ProtocolVersion;
 import org.apache.cassandra.transport.Message;
@@ -89,7 +94,7 @@ public class CassandraPersistence
           "stargate.startup_delay_ms",
           3 * 60000); // MigrationManager.MIGRATION_DELAY_IN_MS is private
 
-  private LocalAwareExecutorService executor;
+  private WorkloadExecutors executors;
 
   private CassandraDaemon daemon;
   private Authenticator authenticator;
@@ -98,6 +103,9 @@ public class CassandraPersistence
   // C* listener that ensures that our Stargate schema remains up-to-date with the internal C* one.
   private SchemaChangeListener schemaChangeListener;
 
+  // Gossip listener that wakes up the callers waiting for schema agreement.
+  private SchemaAgreementListener schemaAgreementListener;
+
   public CassandraPersistence() {
     super("Apache Cassandra");
   }
@@ -117,12 +125,22 @@ public class CassandraPersistence
   }
 
   @Override
-  protected void registerInternalSchemaListener(Runnable runOnSchemaChange) {
+  protected KeyspaceMetadata internalKeyspace(String keyspaceName) {
+    return org.apache.cassandra.schema.Schema.instance.getKeyspaceMetadata(keyspaceName);
+  }
+
+  @Override
+  protected MetricRegistry metricRegistry() {
+    return CassandraMetricsRegistry.actualRegistry;
+  }
+
+  @Override
+  protected void registerInternalSchemaListener(Consumer<String> onKeyspaceChange) {
     schemaChangeListener =
         new SimpleCallbackMigrationListener() {
           @Override
-          void onSchemaChange() {
-            runOnSchemaChange.run();
+          void onSchemaChange(String keyspace) {
+            onKeyspaceChange.accept(keyspace);
           }
         };
     org.apache.cassandra.schema.Schema.instance.registerListener(schemaChangeListener);
@@ -135,6 +153,19 @@ public class CassandraPersistence
     }
   }
 
+  @Override
+  protected void registerSchemaAgreementListener(Runnable onPossibleAgreementChange) {
+    schemaAgreementListener = new SchemaAgreementListener(onPossibleAgreementChange);
+    Gossiper.instance.register(schemaAgreementListener);
+  }
+
+  @Override
+  protected void unregisterSchemaAgreementListener() {
+    if (schemaAgreementListener != null) {
+      Gossiper.instance.unregister(schemaAgreementListener);
+    }
+  }
+
   @Override
   protected void initializePersistence(Config config) {
     // C* picks this property during the static loading of the ClientState class. So we set it
@@ -151,13 +182,20 @@ public class CassandraPersistence
       throw new RuntimeException("Unable to start Cassandra persistence layer", e);
     }
 
-    executor =
-        SHARED.newExecutor(
+    executors =
+        new WorkloadExecutors(
+            (workload, maxThreads, maxQueuedTasks, name) ->
+                SHARED.newExecutor(
+                    maxThreads,
+                    // Only the CQL executor follows the native transport configuration changes
+                    workload == Workload.CQL
+                        ? DatabaseDescriptor::setNativeTransportMaxThreads
+                        : newMaxThreads -> {},
+                    maxQueuedTasks,
+                    "transport",
+                    name),
             DatabaseDescriptor.getNativeTransportMaxThreads(),
-            DatabaseDescriptor::setNativeTransportMaxThreads,
-            Integer.MAX_VALUE,
-            "transport",
-            "Native-Transport-Requests");
+            metricRegistry());
 
     // Use special gossip state "X10" to differentiate stargate nodes
     Gossiper.instance.addLocalApplicationState(
@@ -214,30 +252,35 @@ public class CassandraPersistence
   }
 
   private <T extends Result> CompletableFuture<T> runOnExecutor(
-      Supplier<T> supplier, boolean captureWarnings) {
-    assert executor != null : "This persistence has not been initialized";
+      Workload workload, Supplier<T> supplier, boolean captureWarnings) {
+    assert executors != null : "This persistence has not been initialized";
     CompletableFuture<T> future = new CompletableFuture<>();
-    executor.submit(
-        () -> {
-          if (captureWarnings) ClientWarn.instance.captureWarnings();
-          try {
-            @SuppressWarnings("unchecked")
-            T resultWithWarnings =
-                (T) supplier.get().setWarnings(ClientWarn.instance.getWarnings());
-            future.complete(resultWithWarnings);
-          } catch (Throwable t) {
-            JVMStabilityInspector.inspectThrowable(t);
-            PersistenceException pe =
-                (t instanceof PersistenceException)
-                    ? (PersistenceException) t
-                    : Conversion.convertInternalException(t);
-            pe.setWarnings(ClientWarn.instance.getWarnings());
-            future.completeExceptionally(pe);
-          } finally {
-            // Note that it's a no-op if we haven't called captureWarnings
-            ClientWarn.instance.resetWarnings();
-          }
-        });
+    try {
+      executors.execute(
+          workload,
+          () -> {
+            if (captureWarnings) ClientWarn.instance.captureWarnings();
+            try {
+              @SuppressWarnings("unchecked")
+              T resultWithWarnings =
+                  (T) supplier.get().setWarnings(ClientWarn.instance.getWarnings());
+              future.complete(resultWithWarnings);
+            } catch (Throwable t) {
+              JVMStabilityInspector.inspectThrowable(t);
+              PersistenceException pe =
+                  (t instanceof PersistenceException)
+                      ? (PersistenceException) t
+                      : Conversion.convertInternalException(t);
+              pe.setWarnings(ClientWarn.instance.getWarnings());
+              future.completeExceptionally(pe);
+            } finally {
+              // Note that it's a no-op if we haven't called captureWarnings
+              ClientWarn.instance.resetWarnings();
+            }
+          });
+    } catch (OverloadedException e) {
+      future.completeExceptionally(e);
+    }
 
     return future;
   }
@@ -332,6 +375,7 @@ public class CassandraPersistence
     private <T extends Result> CompletableFuture<T> executeRequestOnExecutor(
         Parameters parameters, long queryStartNanoTime, Supplier<Request> requestSupplier) {
       return runOnExecutor(
+          parameters.workload(),
           () -> {
             QueryState queryState = new QueryState(clientState);
             Request request = requestSupplier.get();
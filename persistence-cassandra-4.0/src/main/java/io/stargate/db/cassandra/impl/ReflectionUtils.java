@@ -1,7 +1,9 @@
 package io.stargate.db.cassandra.impl;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.UUID;
@@ -10,91 +12,99 @@ import org.apache.cassandra.service.QueryState;
 import org.apache.cassandra.transport.Message.Request;
 import org.apache.cassandra.transport.Message.Response;
 
+/**
+ * Accesses to non-visible C* methods and constructors.
+ *
+ * <p>Those are on the path of every query, so they go through {@code static final} method handles
+ * (which the JIT treats as constants and can inline) rather than {@link Method#invoke}.
+ */
 class ReflectionUtils {
 
-  private static final Method requestExecute;
-  private static final Method requestSetTracingRequested;
-  private static final Method responseGetTracingId;
-  private static final Constructor<?> optionsWithNamesCtor;
+  private static final MethodHandle requestExecute;
+  private static final MethodHandle requestSetTracingRequested;
+  private static final MethodHandle responseGetTracingId;
+  private static final MethodHandle optionsWithNamesCtor;
 
   static {
     try {
-      requestExecute = Request.class.getDeclaredMethod("execute", QueryState.class, long.class);
-      requestExecute.setAccessible(true);
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
 
-      requestSetTracingRequested = Request.class.getDeclaredMethod("setTracingRequested");
-      requestSetTracingRequested.setAccessible(true);
+      Method execute = Request.class.getDeclaredMethod("execute", QueryState.class, long.class);
+      execute.setAccessible(true);
+      requestExecute = lookup.unreflect(execute);
 
-      responseGetTracingId = Response.class.getDeclaredMethod("getTracingId");
-      responseGetTracingId.setAccessible(true);
+      Method setTracingRequested = Request.class.getDeclaredMethod("setTracingRequested");
+      setTracingRequested.setAccessible(true);
+      requestSetTracingRequested = lookup.unreflect(setTracingRequested);
+
+      Method getTracingId = Response.class.getDeclaredMethod("getTracingId");
+      getTracingId.setAccessible(true);
+      responseGetTracingId = lookup.unreflect(getTracingId);
 
       // Note that the ctor for OptionsWithNames directly takes a DefaultQueryOptions which is not
       // accessible. That said, we know QueryOptions#create, which we'll use to build the object
-      // passed as that argument, actually does create a DefaultQueryOptions, so we're good.
+      // passed as that argument, actually does create a DefaultQueryOptions, so we're good (the
+      // handle is adapted to take a QueryOptions, and casts it).
       Class<?> defaultOptionsClass =
           Class.forName("org.apache.cassandra.cql3.QueryOptions$DefaultQueryOptions");
       Class<?> withNamesClass =
           Class.forName("org.apache.cassandra.cql3.QueryOptions$OptionsWithNames");
 
-      optionsWithNamesCtor = withNamesClass.getDeclaredConstructor(defaultOptionsClass, List.class);
-      optionsWithNamesCtor.setAccessible(true);
+      Constructor<?> withNamesCtor =
+          withNamesClass.getDeclaredConstructor(defaultOptionsClass, List.class);
+      withNamesCtor.setAccessible(true);
+      optionsWithNamesCtor =
+          lookup
+              .unreflectConstructor(withNamesCtor)
+              .asType(MethodType.methodType(QueryOptions.class, QueryOptions.class, List.class));
     } catch (Exception e) {
       // We know it's there.
       throw new AssertionError(
           "Error during initialization of the persistence layer: "
-              + "some reflection-based accesses cannot be setup.");
+              + "some reflection-based accesses cannot be setup.",
+          e);
     }
   }
 
-  private static <T> T invoke(Method method, Object target, Object... args) {
-    try {
-      Object result = method.invoke(target, args);
-      return result == null ? null : (T) result;
-    } catch (IllegalAccessException e) {
-      throw new AssertionError();
-    } catch (InvocationTargetException e) {
-      Throwable cause = e.getCause();
-      if (cause == null) {
-        throw new RuntimeException(e);
-      } else if (cause instanceof RuntimeException) {
-        throw (RuntimeException) cause;
-      } else {
-        throw new RuntimeException(cause);
-      }
+  private static RuntimeException propagate(Throwable t) {
+    if (t instanceof RuntimeException) {
+      throw (RuntimeException) t;
+    } else if (t instanceof Error) {
+      throw (Error) t;
+    } else {
+      throw new RuntimeException(t);
     }
   }
 
-  private static <T> T newInstance(Constructor<?> ctor, Object... args) {
+  static Response execute(Request request, QueryState queryState, long queryStartNanoTime) {
     try {
-      Object result = ctor.newInstance(args);
-      return (T) result;
-    } catch (IllegalAccessException e) {
-      throw new AssertionError();
-    } catch (InstantiationException | InvocationTargetException e) {
-      Throwable cause = e.getCause();
-      if (cause == null) {
-        throw new RuntimeException(e);
-      } else if (cause instanceof RuntimeException) {
-        throw (RuntimeException) cause;
-      } else {
-        throw new RuntimeException(cause);
-      }
+      return (Response) requestExecute.invokeExact(request, queryState, queryStartNanoTime);
+    } catch (Throwable t) {
+      throw propagate(t);
     }
   }
 
-  static Response execute(Request request, QueryState queryState, long queryStartNanoTime) {
-    return invoke(requestExecute, request, queryState, queryStartNanoTime);
-  }
-
   static void setTracingRequested(Request request) {
-    invoke(requestSetTracingRequested, request);
+    try {
+      requestSetTracingRequested.invokeExact(request);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
   }
 
   static UUID getTracingId(Response response) {
-    return invoke(responseGetTracingId, response);
+    try {
+      return (UUID) responseGetTracingId.invokeExact(response);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
   }
 
   static QueryOptions newOptionsWithNames(QueryOptions options, List<String> boundNames) {
-    return newInstance(optionsWithNamesCtor, options, boundNames);
+    try {
+      return (QueryOptions) optionsWithNamesCtor.invokeExact(options, boundNames);
+    } catch (Throwable t) {
+      throw propagate(t);
+    }
   }
 }
@@ -0,0 +1,61 @@
+package io.stargate.db.cassandra.impl;
+
+import org.apache.cassandra.gms.ApplicationState;
+import org.apache.cassandra.gms.EndpointState;
+import org.apache.cassandra.gms.IEndpointStateChangeSubscriber;
+import org.apache.cassandra.gms.VersionedValue;
+import org.apache.cassandra.locator.InetAddressAndPort;
+
+/**
+ * Gossip subscriber that runs a callback every time an event that may change the schema agreement
+ * happens: a node advertising a new schema version or a new status, or a node joining, leaving or
+ * changing liveness.
+ */
+class SchemaAgreementListener implements IEndpointStateChangeSubscriber {
+  private final Runnable onPossibleAgreementChange;
+
+  SchemaAgreementListener(Runnable onPossibleAgreementChange) {
+    this.onPossibleAgreementChange = onPossibleAgreementChange;
+  }
+
+  @Override
+  public void onJoin(InetAddressAndPort endpoint, EndpointState epState) {
+    onPossibleAgreementChange.run();
+  }
+
+  @Override
+  public void beforeChange(
+      InetAddressAndPort endpoint,
+      EndpointState currentState,
+      ApplicationState newStateKey,
+      VersionedValue newValue) {}
+
+  @Override
+  public void onChange(InetAddressAndPort endpoint, ApplicationState state, VersionedValue value) {
+    if (state == ApplicationState.SCHEMA
+        || state == ApplicationState.STATUS
+        || state == ApplicationState.STATUS_WITH_PORT) {
+      onPossibleAgreementChange.run();
+    }
+  }
+
+  @Override
+  public void onAlive(InetAddressAndPort endpoint, EndpointState state) {
+    onPossibleAgreementChange.run();
+  }
+
+  @Override
+  public void onDead(InetAddressAndPort endpoint, EndpointState state) {
+    onPossibleAgreementChange.run();
+  }
+
+  @Override
+  public void onRemove(InetAddressAndPort endpoint) {
+    onPossibleAgreementChange.run();
+  }
+
+  @Override
+  public void onRestart(InetAddressAndPort endpoint, EndpointState state) {
+    onPossibleAgreementChange.run();
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.cassandra.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.cql3.QueryOptions;
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.apache.cassandra.transport.Message.Request;
+import org.apache.cassandra.transport.Message.Response;
+import org.apache.cassandra.transport.messages.OptionsMessage;
+import org.apache.cassandra.transport.messages.ResultMessage;
+import org.apache.cassandra.utils.UUIDGen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link ReflectionUtils} accesses to non-visible C* members, which go through method
+ * handles, with the equivalent {@link Method#invoke} and {@link Constructor#newInstance} calls.
+ *
+ * <p>{@code Request#execute} itself is not measured, as its cost is dominated by the query
+ * execution, but it is accessed the same way as {@code Request#setTracingRequested}.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.stargate.db.cassandra.impl.ReflectionAccessBenchmark} or from the IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReflectionAccessBenchmark {
+
+  private Method setTracingRequested;
+  private Method getTracingId;
+  private Constructor<?> optionsWithNamesCtor;
+
+  private Request request;
+  private Response response;
+  private QueryOptions options;
+  private List<String> boundNames;
+
+  @Setup
+  public void setup() throws Exception {
+    DatabaseDescriptor.clientInitialization();
+
+    setTracingRequested = Request.class.getDeclaredMethod("setTracingRequested");
+    setTracingRequested.setAccessible(true);
+    getTracingId = Response.class.getDeclaredMethod("getTracingId");
+    getTracingId.setAccessible(true);
+    optionsWithNamesCtor =
+        Class.forName("org.apache.cassandra.cql3.QueryOptions$OptionsWithNames")
+            .getDeclaredConstructor(
+                Class.forName("org.apache.cassandra.cql3.QueryOptions$DefaultQueryOptions"),
+                List.class);
+    optionsWithNamesCtor.setAccessible(true);
+
+    request = new OptionsMessage();
+    response = new ResultMessage.Void();
+    response.setTracingId(UUIDGen.getTimeUUID());
+    List<ByteBuffer> values =
+        Arrays.asList(ByteBuffer.allocate(4).putInt(0, 1), ByteBuffer.allocate(4).putInt(0, 2));
+    options = QueryOptions.forInternalCalls(ConsistencyLevel.ONE, values);
+    boundNames = Arrays.asList("k", "v");
+  }
+
+  @Benchmark
+  public Request setTracingRequestedReflection() throws Exception {
+    setTracingRequested.invoke(request);
+    return request;
+  }
+
+  @Benchmark
+  public Request setTracingRequestedMethodHandle() {
+    ReflectionUtils.setTracingRequested(request);
+    return request;
+  }
+
+  @Benchmark
+  public UUID getTracingIdReflection() throws Exception {
+    return (UUID) getTracingId.invoke(response);
+  }
+
+  @Benchmark
+  public UUID getTracingIdMethodHandle() {
+    return ReflectionUtils.getTracingId(response);
+  }
+
+  @Benchmark
+  public QueryOptions newOptionsWithNamesReflection() throws Exception {
+    return (QueryOptions) optionsWithNamesCtor.newInstance(options, boundNames);
+  }
+
+  @Benchmark
+  public QueryOptions newOptionsWithNamesMethodHandle() {
+    return ReflectionUtils.newOptionsWithNames(options, boundNames);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder().include(ReflectionAccessBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
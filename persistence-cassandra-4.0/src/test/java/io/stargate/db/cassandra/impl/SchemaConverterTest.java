@@ -0,0 +1,71 @@
+package io.stargate.db.cassandra.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.stargate.db.schema.Keyspace;
+import io.stargate.db.schema.Schema;
+import java.util.Arrays;
+import org.apache.cassandra.config.DatabaseDescriptor;
+import org.apache.cassandra.db.marshal.Int32Type;
+import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.dht.Murmur3Partitioner;
+import org.apache.cassandra.schema.KeyspaceMetadata;
+import org.apache.cassandra.schema.KeyspaceParams;
+import org.apache.cassandra.schema.TableMetadata;
+import org.apache.cassandra.schema.Tables;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SchemaConverterTest {
+
+  private final SchemaConverter converter = new SchemaConverter();
+
+  @BeforeAll
+  public static void setup() {
+    DatabaseDescriptor.clientInitialization();
+  }
+
+  private static TableMetadata table(String keyspace, String name) {
+    return TableMetadata.builder(keyspace, name)
+        .partitioner(Murmur3Partitioner.instance)
+        .addPartitionKeyColumn("k", Int32Type.instance)
+        .addRegularColumn("v", UTF8Type.instance)
+        .build();
+  }
+
+  private static KeyspaceMetadata keyspace(String name, String... tables) {
+    return KeyspaceMetadata.create(
+        name,
+        KeyspaceParams.simple(1),
+        Tables.of(Arrays.stream(tables).map(t -> table(name, t)).toArray(TableMetadata[]::new)));
+  }
+
+  @Test
+  public void convertsOnlyTheModifiedKeyspace() {
+    Schema schema =
+        converter.convertCassandraSchema(Arrays.asList(keyspace("ks1", "t1"), keyspace("ks2")));
+    Keyspace ks1 = schema.keyspace("ks1");
+
+    Schema updated = converter.convertCassandraKeyspace(schema, "ks2", keyspace("ks2", "t2"));
+
+    assertThat(updated.keyspaceNames()).containsExactly("ks1", "ks2");
+    assertThat(updated.keyspace("ks1")).isSameAs(ks1);
+    assertThat(updated.keyspace("ks2").table("t2")).isNotNull();
+    assertThat(updated)
+        .isEqualTo(
+            converter.convertCassandraSchema(
+                Arrays.asList(keyspace("ks1", "t1"), keyspace("ks2", "t2"))));
+  }
+
+  @Test
+  public void addsAndRemovesKeyspaces() {
+    Schema schema = converter.convertCassandraSchema(Arrays.asList(keyspace("ks1", "t1")));
+
+    Schema added = converter.convertCassandraKeyspace(schema, "ks2", keyspace("ks2", "t2"));
+    assertThat(added.keyspaceNames()).containsExactly("ks1", "ks2");
+
+    Schema removed = converter.convertCassandraKeyspace(added, "ks1", null);
+    assertThat(removed.keyspaceNames()).containsExactly("ks2");
+    assertThat(removed.keyspace("ks2")).isSameAs(added.keyspace("ks2"));
+  }
+}
@@ -1,5 +1,7 @@
 package io.stargate.db.datastore.common;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Joiner;
 import io.stargate.db.AuthenticatedUser;
 import io.stargate.db.ClientInfo;
@@ -8,6 +10,9 @@ import io.stargate.db.schema.Schema;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,9 +43,16 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
 
   // The schema exposed by stargate. It is translated from the internal C* schema during
   // initialization, and then updated every time the internal schema changes through a schema
-  // listener callback.
+  // listener callback (only the modified keyspace is translated again in that case).
   private volatile Schema schema;
 
+  // Time spent translating the internal C* schema (fully or a single keyspace).
+  private Timer schemaConversionTimer;
+
+  // Completes the callers of waitForSchemaAgreementAsync() on gossip notifications.
+  private final SchemaAgreementWatcher schemaAgreementWatcher =
+      new SchemaAgreementWatcher(this::isInSchemaAgreement);
+
   protected AbstractCassandraPersistence(String name) {
     this.name = name;
     this.schemaConverter = newSchemaConverter();
@@ -53,21 +65,47 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
   protected abstract Iterable<K> currentInternalSchema();
 
   /**
-   * Register an internal schema listener that runs the provided runnable every time the internal
-   * schema of the persistence layer changes.
+   * The current metadata of the provided keyspace in the concrete persistence layer, or {@code
+   * null} if that keyspace doesn't exist (anymore).
+   */
+  protected abstract @Nullable K internalKeyspace(String keyspaceName);
+
+  /** The registry in which the metrics of the concrete persistence layer are published. */
+  protected abstract MetricRegistry metricRegistry();
+
+  /**
+   * Register an internal schema listener that runs the provided consumer, with the name of the
+   * modified keyspace, every time the internal schema of the persistence layer changes.
    *
    * <p>This is guaranteed to be called only once for each persistence instance, during
    * initialization. Implementations should usually keep track of the registered listener so they
    * can implement {@link #unregisterInternalSchemaListener()}.
    */
-  protected abstract void registerInternalSchemaListener(Runnable onSchemaChange);
+  protected abstract void registerInternalSchemaListener(Consumer<String> onKeyspaceChange);
 
   /**
    * Unregister the internal schema listener registered through {@link
-   * #registerInternalSchemaListener(Runnable)}, if necessary.
+   * #registerInternalSchemaListener(Consumer)}, if necessary.
    */
   protected abstract void unregisterInternalSchemaListener();
 
+  /**
+   * Register an internal listener that runs the provided runnable every time an event that may
+   * change the {@link #isInSchemaAgreement() schema agreement} happens: a node advertising a new
+   * schema version, or a node joining, leaving or changing liveness.
+   *
+   * <p>This is guaranteed to be called only once for each persistence instance, during
+   * initialization. Implementations should usually keep track of the registered listener so they
+   * can implement {@link #unregisterSchemaAgreementListener()}.
+   */
+  protected abstract void registerSchemaAgreementListener(Runnable onPossibleAgreementChange);
+
+  /**
+   * Unregister the internal listener registered through {@link
+   * #registerSchemaAgreementListener(Runnable)}, if necessary.
+   */
+  protected abstract void unregisterSchemaAgreementListener();
+
   /**
    * Actually initialize the persistence layer (basically, the {@link #initialize} implementation,
    * but modulo the parts that are already handled by this abstract facility)
@@ -105,17 +143,38 @@ public abstract class AbstractCassandraPersistence<Config, K, T, C, U, I, V>
 
     initializePersistence(config);
 
+    schemaConversionTimer = metricRegistry().timer("SchemaConversion");
     schema = computeCurrentSchema();
-    registerInternalSchemaListener(() -> schema = computeCurrentSchema());
+    registerInternalSchemaListener(this::refreshKeyspace);
+    registerSchemaAgreementListener(schemaAgreementWatcher::onChange);
   }
 
   private Schema computeCurrentSchema() {
-    return schemaConverter.convertCassandraSchema(currentInternalSchema());
+    try (Timer.Context ignored = schemaConversionTimer.time()) {
+      return schemaConverter.convertCassandraSchema(currentInternalSchema());
+    }
+  }
+
+  // Synchronized so that concurrent changes to different keyspaces don't lose each other's update.
+  private synchronized void refreshKeyspace(String keyspaceName) {
+    try (Timer.Context ignored = schemaConversionTimer.time()) {
+      schema =
+          schemaConverter.convertCassandraKeyspace(
+              schema, keyspaceName, internalKeyspace(keyspaceName));
+    }
   }
 
   public final void destroy() {
     destroyPersistence();
     unregisterInternalSchemaListener();
+    unregisterSchemaAgreementListener();
+    schemaAgreementWatcher.close();
+  }
+
+  @Override
+  public CompletableFuture<Void> waitForSchemaAgreementAsync() {
+    return schemaAgreementWatcher.waitForAgreement(
+        200L * SCHEMA_AGREEMENT_WAIT_RETRIES, TimeUnit.MILLISECONDS);
   }
 
   @Override
@@ -13,12 +13,14 @@ import io.stargate.db.schema.Schema;
 import io.stargate.db.schema.SecondaryIndex;
 import io.stargate.db.schema.Table;
 import io.stargate.db.schema.UserDefinedType;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import org.apache.cassandra.stargate.utils.Streams;
 import org.javatuples.Pair;
 import org.slf4j.Logger;
@@ -110,6 +112,36 @@ public abstract class AbstractCassandraSchemaConverter<K, T, C, U, I, V> {
     return Schema.create(Iterables.transform(cassandraKeyspaces, this::convertKeyspace));
   }
 
+  /**
+   * Updates a previously converted schema following a change to a single keyspace.
+   *
+   * <p>Only that keyspace is converted: the other {@link Keyspace} instances of the provided schema
+   * are reused as-is in the returned one.
+   *
+   * @param schema the schema to update.
+   * @param keyspaceName the name of the modified keyspace.
+   * @param cassandraKeyspace the new internal metadata of the keyspace, or {@code null} if it was
+   *     dropped.
+   */
+  public Schema convertCassandraKeyspace(
+      Schema schema, String keyspaceName, @Nullable K cassandraKeyspace) {
+    Keyspace converted = cassandraKeyspace == null ? null : convertKeyspace(cassandraKeyspace);
+    List<Keyspace> keyspaces = new ArrayList<>(schema.keyspaces().size() + 1);
+    boolean replaced = false;
+    for (Keyspace keyspace : schema.keyspaces()) {
+      if (!keyspace.name().equals(keyspaceName)) {
+        keyspaces.add(keyspace);
+      } else if (converted != null) {
+        keyspaces.add(converted);
+        replaced = true;
+      }
+    }
+    if (converted != null && !replaced) {
+      keyspaces.add(converted);
+    }
+    return Schema.create(keyspaces);
+  }
+
   private Keyspace convertKeyspace(K keyspace) {
     String name = keyspaceName(keyspace);
     Stream<Table> tables = convertTables(name, tables(keyspace), views(keyspace));
@@ -0,0 +1,179 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the callers waiting for schema agreement, and completes them when the persistence layer
+ * reports a change that may have brought the cluster in agreement (typically, a gossip schema
+ * version update, or a node joining, leaving or changing liveness).
+ *
+ * <p>All waiters share a single check: each notification triggers at most one evaluation of the
+ * agreement, on a dedicated thread so as not to delay the notifying thread. While waiters are
+ * pending, the agreement is also re-checked every {@code
+ * stargate.persistence.schema.agreement.recheck_interval_ms} milliseconds (1 second by default),
+ * which both expires waiters that timed out and guards against missed notifications.
+ */
+public class SchemaAgreementWatcher {
+  private static final Logger logger = LoggerFactory.getLogger(SchemaAgreementWatcher.class);
+
+  private static final long RECHECK_INTERVAL_MS =
+      Long.getLong("stargate.persistence.schema.agreement.recheck_interval_ms", 1000);
+
+  private final BooleanSupplier isInAgreement;
+  private final long recheckIntervalMillis;
+  private final ScheduledExecutorService executor;
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean checkPending = new AtomicBoolean();
+
+  // Guarded by this
+  private ScheduledFuture<?> recheck;
+
+  /**
+   * Creates a new watcher.
+   *
+   * @param isInAgreement how to check whether the schema currently agrees across the cluster.
+   */
+  public SchemaAgreementWatcher(BooleanSupplier isInAgreement) {
+    this(isInAgreement, RECHECK_INTERVAL_MS);
+  }
+
+  @VisibleForTesting
+  SchemaAgreementWatcher(BooleanSupplier isInAgreement, long recheckIntervalMillis) {
+    this.isInAgreement = isInAgreement;
+    this.recheckIntervalMillis = recheckIntervalMillis;
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "schema-agreement-watcher");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Returns a future that completes once the schema agrees across the cluster, or that fails with
+   * an {@link IllegalStateException} if that doesn't happen within the provided timeout.
+   */
+  public CompletableFuture<Void> waitForAgreement(long timeout, TimeUnit unit) {
+    if (isInAgreement.getAsBoolean()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    Waiter waiter = new Waiter(unit.toMillis(timeout));
+    waiters.add(waiter);
+    scheduleRecheck();
+    // The agreement may have been reached between our check and the waiter registration, in which
+    // case the corresponding notification may already have found no waiter to complete.
+    onChange();
+    return waiter.future;
+  }
+
+  /**
+   * Notifies the watcher that the schema agreement may have changed. This is cheap when no caller
+   * is waiting, and can be called from any thread.
+   */
+  public void onChange() {
+    if (!waiters.isEmpty() && checkPending.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::check);
+      } catch (RuntimeException e) {
+        // The executor has been shut down
+        checkPending.set(false);
+      }
+    }
+  }
+
+  /** Stops the watcher, failing any pending waiter. */
+  public void close() {
+    executor.shutdownNow();
+    IllegalStateException error =
+        new IllegalStateException("The persistence layer is shutting down");
+    Waiter waiter;
+    while ((waiter = waiters.poll()) != null) {
+      waiter.future.completeExceptionally(error);
+    }
+  }
+
+  private void check() {
+    checkPending.set(false);
+    if (!waiters.isEmpty()) {
+      boolean agreed;
+      try {
+        agreed = isInAgreement.getAsBoolean();
+      } catch (RuntimeException e) {
+        logger.warn("Unexpected error while checking schema agreement", e);
+        agreed = false;
+      }
+
+      long now = System.nanoTime();
+      for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+        Waiter waiter = iterator.next();
+        if (agreed) {
+          waiter.future.complete(null);
+        } else if (now - waiter.deadlineNanos >= 0) {
+          waiter.future.completeExceptionally(
+              new IllegalStateException(
+                  "Failed to reach schema agreement after "
+                      + waiter.timeoutMillis
+                      + " milliseconds."));
+        }
+        // Also drops the waiters cancelled by their callers
+        if (waiter.future.isDone()) {
+          iterator.remove();
+        }
+      }
+    }
+    scheduleRecheck();
+  }
+
+  private synchronized void scheduleRecheck() {
+    if (waiters.isEmpty()) {
+      if (recheck != null) {
+        recheck.cancel(false);
+        recheck = null;
+      }
+    } else if (recheck == null && !executor.isShutdown()) {
+      recheck =
+          executor.scheduleWithFixedDelay(
+              this::onChange, recheckIntervalMillis, recheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static class Waiter {
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final long timeoutMillis;
+    private final long deadlineNanos;
+
+    private Waiter(long timeoutMillis) {
+      this.timeoutMillis = timeoutMillis;
+      this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.db.datastore.common;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.stargate.db.Workload;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.cassandra.stargate.exceptions.OverloadedException;
+
+/**
+ * The executors on which a persistence layer runs requests, one per {@link Workload}, so that a
+ * burst of expensive requests from one API front-end (say, Documents API full collection scans)
+ * does not starve the others (say, CQL).
+ *
+ * <p>The executor of each workload is configured through the following system properties, where
+ * {@code <workload>} is the lower-cased workload name (for instance {@code
+ * stargate.persistence.executor.rest.max_threads}):
+ *
+ * <ul>
+ *   <li>{@code stargate.persistence.executor.<workload>.max_threads}: the maximum number of
+ *       requests of that workload executing concurrently. Defaults to the value provided at
+ *       construction (normally, the configured number of native transport threads).
+ *   <li>{@code stargate.persistence.executor.<workload>.max_queued}: the maximum number of
+ *       requests of that workload waiting for a thread. Unbounded by default.
+ *   <li>{@code stargate.persistence.executor.<workload>.overflow}: what happens to a request
+ *       submitted when the queue is full: {@code queue} (the default) makes the submitting thread
+ *       wait for room in the queue, while {@code reject} fails the request with an {@link
+ *       OverloadedException}.
+ * </ul>
+ *
+ * <p>The CQL executor keeps the historical {@code Native-Transport-Requests} name, while the other
+ * ones are named after their workload (for instance {@code Stargate-REST-Requests}). The number of
+ * requests rejected by each executor is tracked by a {@code <name>.Rejected} meter.
+ */
+public class WorkloadExecutors {
+
+  /** What happens to a request submitted to a workload executor whose queue is full. */
+  public enum OverflowPolicy {
+    QUEUE,
+    REJECT,
+  }
+
+  /** Creates the actual executors, using the thread pools of the concrete persistence layer. */
+  @FunctionalInterface
+  public interface ExecutorFactory {
+    Executor newExecutor(Workload workload, int maxThreads, int maxQueuedTasks, String name);
+  }
+
+  private final Map<Workload, WorkloadExecutor> executors = new EnumMap<>(Workload.class);
+
+  /**
+   * Creates the executors of all the workloads.
+   *
+   * @param factory how to create the underlying executors.
+   * @param defaultMaxThreads the maximum number of threads of the workloads that don't configure
+   *     one explicitly.
+   * @param metrics the registry in which to publish the executor metrics.
+   */
+  public WorkloadExecutors(ExecutorFactory factory, int defaultMaxThreads, MetricRegistry metrics) {
+    for (Workload workload : Workload.values()) {
+      executors.put(workload, new WorkloadExecutor(workload, factory, defaultMaxThreads, metrics));
+    }
+  }
+
+  static String executorName(Workload workload) {
+    switch (workload) {
+      case CQL:
+        return "Native-Transport-Requests";
+      case REST:
+        return "Stargate-REST-Requests";
+      case GRAPHQL:
+        return "Stargate-GraphQL-Requests";
+      case DOCUMENTS:
+        return "Stargate-Documents-Requests";
+      default:
+        throw new AssertionError("Unhandled workload " + workload);
+    }
+  }
+
+  /**
+   * Executes the provided task on the executor of the provided workload.
+   *
+   * @throws OverloadedException if the executor uses {@link OverflowPolicy#REJECT} and its queue
+   *     is full.
+   */
+  public void execute(Workload workload, Runnable task) {
+    executors.get(workload).execute(task);
+  }
+
+  private static class WorkloadExecutor {
+    private final Executor executor;
+    private final String name;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Meter rejected;
+
+    private WorkloadExecutor(
+        Workload workload, ExecutorFactory factory, int defaultMaxThreads, MetricRegistry metrics) {
+      String prefix =
+          "stargate.persistence.executor." + workload.name().toLowerCase(Locale.ROOT) + ".";
+      int maxThreads = Integer.getInteger(prefix + "max_threads", defaultMaxThreads);
+      int maxQueued = Integer.getInteger(prefix + "max_queued", Integer.MAX_VALUE);
+      this.overflowPolicy =
+          OverflowPolicy.valueOf(
+              System.getProperty(prefix + "overflow", "queue").toUpperCase(Locale.ROOT));
+      this.name = executorName(workload);
+      // When rejecting, we enforce the bound ourselves, since the underlying executors make the
+      // submitter wait when their queue is full.
+      this.maxInFlight = (int) Math.min(Integer.MAX_VALUE, (long) maxThreads + maxQueued);
+      this.executor =
+          factory.newExecutor(
+              workload,
+              maxThreads,
+              overflowPolicy == OverflowPolicy.REJECT ? Integer.MAX_VALUE : maxQueued,
+              name);
+      this.rejected = metrics.meter(MetricRegistry.name(name, "Rejected"));
+    }
+
+    private void execute(Runnable task) {
+      if (overflowPolicy == OverflowPolicy.QUEUE) {
+        executor.execute(task);
+        return;
+      }
+
+      if (inFlight.incrementAndGet() > maxInFlight) {
+        inFlight.decrementAndGet();
+        rejected.mark();
+        throw new OverloadedException(
+            String.format("Too many pending requests on %s (max %d)", name, maxInFlight));
+      }
+      try {
+        executor.execute(
+            () -> {
+              try {
+                task.run();
+              } finally {
+                inFlight.decrementAndGet();
+              }
+            });
+      } catch (RuntimeException e) {
+        inFlight.decrementAndGet();
+        throw e;
+      }
+    }
+  }
+}
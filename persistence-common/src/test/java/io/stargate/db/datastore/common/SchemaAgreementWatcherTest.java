@@ -0,0 +1,108 @@
+package io.stargate.db.datastore.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SchemaAgreementWatcherTest {
+
+  // Long enough that only notifications can complete a waiter within a test.
+  private static final long NO_RECHECK_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  private final AtomicBoolean agreed = new AtomicBoolean();
+  private final AtomicInteger checks = new AtomicInteger();
+  private SchemaAgreementWatcher watcher;
+
+  private SchemaAgreementWatcher watcher(long recheckIntervalMillis) {
+    watcher =
+        new SchemaAgreementWatcher(
+            () -> {
+              checks.incrementAndGet();
+              return agreed.get();
+            },
+            recheckIntervalMillis);
+    return watcher;
+  }
+
+  @AfterEach
+  public void closeWatcher() {
+    if (watcher != null) {
+      watcher.close();
+    }
+  }
+
+  @Test
+  public void completesImmediatelyWhenInAgreement() {
+    agreed.set(true);
+
+    CompletableFuture<Void> future =
+        watcher(NO_RECHECK_MILLIS).waitForAgreement(1, TimeUnit.MINUTES);
+
+    assertThat(future).isCompleted();
+    assertThat(checks.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void completesOnNotification() throws Exception {
+    SchemaAgreementWatcher watcher = watcher(NO_RECHECK_MILLIS);
+    CompletableFuture<Void> first = watcher.waitForAgreement(1, TimeUnit.MINUTES);
+    CompletableFuture<Void> second = watcher.waitForAgreement(1, TimeUnit.MINUTES);
+    assertThat(first).isNotDone();
+
+    agreed.set(true);
+    watcher.onChange();
+
+    first.get(10, TimeUnit.SECONDS);
+    second.get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void ignoresNotificationsWithoutAgreement() throws Exception {
+    SchemaAgreementWatcher watcher = watcher(NO_RECHECK_MILLIS);
+    CompletableFuture<Void> future = watcher.waitForAgreement(1, TimeUnit.MINUTES);
+
+    int before = checks.get();
+    watcher.onChange();
+    // Wait for the check triggered by the notification to have run.
+    while (checks.get() == before) {
+      Thread.sleep(1);
+    }
+    assertThat(future).isNotDone();
+  }
+
+  @Test
+  public void rechecksWithoutNotification() throws Exception {
+    CompletableFuture<Void> future = watcher(10).waitForAgreement(1, TimeUnit.MINUTES);
+
+    agreed.set(true);
+
+    future.get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void failsAfterTimeout() {
+    CompletableFuture<Void> future = watcher(10).waitForAgreement(50, TimeUnit.MILLISECONDS);
+
+    assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("Failed to reach schema agreement after 50 milliseconds.");
+  }
+
+  @Test
+  public void closeFailsPendingWaiters() {
+    SchemaAgreementWatcher watcher = watcher(NO_RECHECK_MILLIS);
+    CompletableFuture<Void> future = watcher.waitForAgreement(1, TimeUnit.MINUTES);
+
+    watcher.close();
+
+    assertThat(future).isCompletedExceptionally();
+  }
+}
@@ -0,0 +1,117 @@
+package io.stargate.db.datastore.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.codahale.metrics.MetricRegistry;
+import io.stargate.db.Workload;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import org.apache.cassandra.stargate.exceptions.OverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class WorkloadExecutorsTest {
+
+  private static final String PREFIX = "stargate.persistence.executor.rest.";
+
+  // The tasks submitted to each (fake) underlying executor, which only runs them on demand.
+  private final Map<Workload, Queue<Runnable>> submitted = new EnumMap<>(Workload.class);
+  // The queue bound that each underlying executor was created with.
+  private final Map<Workload, Integer> maxQueuedTasks = new EnumMap<>(Workload.class);
+
+  private final MetricRegistry metrics = new MetricRegistry();
+
+  @AfterEach
+  public void clearProperties() {
+    System.clearProperty(PREFIX + "max_threads");
+    System.clearProperty(PREFIX + "max_queued");
+    System.clearProperty(PREFIX + "overflow");
+  }
+
+  private WorkloadExecutors newExecutors() {
+    return new WorkloadExecutors(
+        (workload, maxThreads, maxQueued, name) -> {
+          Queue<Runnable> tasks = new ArrayDeque<>();
+          submitted.put(workload, tasks);
+          maxQueuedTasks.put(workload, maxQueued);
+          return tasks::add;
+        },
+        4,
+        metrics);
+  }
+
+  @Test
+  public void rejectsTasksBeyondTheBound() {
+    System.setProperty(PREFIX + "max_threads", "1");
+    System.setProperty(PREFIX + "max_queued", "1");
+    System.setProperty(PREFIX + "overflow", "reject");
+    WorkloadExecutors executors = newExecutors();
+
+    // We enforce the bound, so the underlying executor must not make the submitter wait
+    assertThat(maxQueuedTasks.get(Workload.REST)).isEqualTo(Integer.MAX_VALUE);
+
+    executors.execute(Workload.REST, () -> {});
+    executors.execute(Workload.REST, () -> {});
+    assertThatThrownBy(() -> executors.execute(Workload.REST, () -> {}))
+        .isInstanceOf(OverloadedException.class)
+        .hasMessageContaining("Stargate-REST-Requests");
+    assertThat(submitted.get(Workload.REST)).hasSize(2);
+    assertThat(metrics.meter("Stargate-REST-Requests.Rejected").getCount()).isEqualTo(1);
+
+    // Completing a task makes room for a new one
+    submitted.get(Workload.REST).poll().run();
+    executors.execute(Workload.REST, () -> {});
+    assertThat(submitted.get(Workload.REST)).hasSize(2);
+
+    // Other workloads are not affected
+    for (int i = 0; i < 10; i++) {
+      executors.execute(Workload.CQL, () -> {});
+    }
+    assertThat(submitted.get(Workload.CQL)).hasSize(10);
+  }
+
+  @Test
+  public void releasesSlotsOfFailedTasks() {
+    System.setProperty(PREFIX + "max_threads", "1");
+    System.setProperty(PREFIX + "max_queued", "0");
+    System.setProperty(PREFIX + "overflow", "reject");
+    WorkloadExecutors executors = newExecutors();
+
+    executors.execute(
+        Workload.REST,
+        () -> {
+          throw new IllegalStateException("failed");
+        });
+    assertThatThrownBy(() -> submitted.get(Workload.REST).poll().run())
+        .isInstanceOf(IllegalStateException.class);
+
+    executors.execute(Workload.REST, () -> {});
+    assertThat(submitted.get(Workload.REST)).hasSize(1);
+  }
+
+  @Test
+  public void passesQueueBoundToUnderlyingExecutor() {
+    System.setProperty(PREFIX + "max_queued", "5");
+    WorkloadExecutors executors = newExecutors();
+
+    // With the default QUEUE policy, bounding (and making submitters wait) is left to the executor
+    assertThat(maxQueuedTasks.get(Workload.REST)).isEqualTo(5);
+    assertThat(maxQueuedTasks.get(Workload.CQL)).isEqualTo(Integer.MAX_VALUE);
+
+    for (int i = 0; i < 10; i++) {
+      executors.execute(Workload.REST, () -> {});
+    }
+    assertThat(submitted.get(Workload.REST)).hasSize(10);
+    assertThat(metrics.meter("Stargate-REST-Requests.Rejected").getCount()).isZero();
+  }
+
+  @Test
+  public void namesExecutorsAfterWorkloads() {
+    assertThat(WorkloadExecutors.executorName(Workload.CQL)).isEqualTo("Native-Transport-Requests");
+    assertThat(WorkloadExecutors.executorName(Workload.DOCUMENTS))
+        .isEqualTo("Stargate-Documents-Requests");
+  }
+}
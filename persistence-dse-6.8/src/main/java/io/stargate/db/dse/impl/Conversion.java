@@ -10,6 +10,9 @@ import io.stargate.db.datastore.common.util.ColumnUtils;
 import io.stargate.db.schema.Column;
 import io.stargate.db.schema.ImmutableColumn;
 import io.stargate.db.schema.ImmutableUserDefinedType;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.net.InetAddress;
 import java.nio.ByteBuffer;
@@ -78,16 +81,17 @@ public class Conversion {
       NoSpamLogger.getLogger(logger, 5L, TimeUnit.MINUTES);
 
   // A number of constructors for classes related to QueryOptions but that are not accessible in C*
-  // at the moment and need to be accessed through reflection.
+  // at the moment and need to be accessed through reflection. They are used for every query, so we
+  // use method handles (adapted to only use accessible types), which the JIT can inline.
 
   // SpecificOptions(QueryOptions.PagingOptions, ConsistencyLevel serialConsistency, long
   // timestamp, String keyspace)
-  private static final Constructor<?> specificOptionsCtor;
+  private static final MethodHandle specificOptionsCtor;
   // DefaultQueryOptions(ConsistencyLevel consistency, List<ByteBuffer> values, boolean
   // skipMetadata, QueryOptions.SpecificOptions options, ProtocolVersion protocolVersion)
-  private static final Constructor<?> defaultOptionsCtor;
+  private static final MethodHandle defaultOptionsCtor;
   // OptionsWithNames(QueryOptions.DefaultQueryOptions wrapped, List<String> names)
-  private static final Constructor<?> optionsWithNameCtor;
+  private static final MethodHandle optionsWithNameCtor;
 
   static {
     try {
@@ -98,25 +102,47 @@ public class Conversion {
       Class<?> withNamesClass =
           Class.forName("org.apache.cassandra.cql3.QueryOptions$OptionsWithNames");
 
-      specificOptionsCtor =
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+      Constructor<?> specificCtor =
           specificOptionsClass.getDeclaredConstructor(
               PagingOptions.class,
               org.apache.cassandra.db.ConsistencyLevel.class,
               long.class,
               String.class);
-      specificOptionsCtor.setAccessible(true);
+      specificCtor.setAccessible(true);
+      specificOptionsCtor =
+          lookup
+              .unreflectConstructor(specificCtor)
+              .asType(MethodType.methodType(Object.class, specificCtor.getParameterTypes()));
 
-      defaultOptionsCtor =
+      Constructor<?> defaultCtor =
           defaultOptionsClass.getDeclaredConstructor(
               org.apache.cassandra.db.ConsistencyLevel.class,
               List.class,
               boolean.class,
               specificOptionsClass,
               org.apache.cassandra.transport.ProtocolVersion.class);
-      defaultOptionsCtor.setAccessible(true);
-
-      optionsWithNameCtor = withNamesClass.getDeclaredConstructor(defaultOptionsClass, List.class);
-      optionsWithNameCtor.setAccessible(true);
+      defaultCtor.setAccessible(true);
+      defaultOptionsCtor =
+          lookup
+              .unreflectConstructor(defaultCtor)
+              .asType(
+                  MethodType.methodType(
+                      QueryOptions.class,
+                      org.apache.cassandra.db.ConsistencyLevel.class,
+                      List.class,
+                      boolean.class,
+                      Object.class,
+                      org.apache.cassandra.transport.ProtocolVersion.class));
+
+      Constructor<?> withNamesCtor =
+          withNamesClass.getDeclaredConstructor(defaultOptionsClass, List.class);
+      withNamesCtor.setAccessible(true);
+      optionsWithNameCtor =
+          lookup
+              .unreflectConstructor(withNamesCtor)
+              .asType(MethodType.methodType(QueryOptions.class, QueryOptions.class, List.class));
     } catch (Exception e) {
       throw new RuntimeException(
           "Error during initialization of the persistence layer: some "
@@ -190,17 +216,19 @@ public class Conversion {
       }
 
       Object specificOptions =
-          specificOptionsCtor.newInstance(pagingOptions, serialConsistency, timestamp, keyspace);
-      Object defaultOptions =
-          defaultOptionsCtor.newInstance(
-              consistencyLevel, values, skipMetadata, specificOptions, protocolVersion);
-      options = (QueryOptions) defaultOptions;
+          (Object)
+              specificOptionsCtor.invokeExact(
+                  pagingOptions, serialConsistency, timestamp, keyspace);
+      options =
+          (QueryOptions)
+              defaultOptionsCtor.invokeExact(
+                  consistencyLevel, values, skipMetadata, specificOptions, protocolVersion);
 
       // Adds names if there is some.
       if (boundNames != null) {
-        options = (QueryOptions) optionsWithNameCtor.newInstance(defaultOptions, boundNames);
+        options = (QueryOptions) optionsWithNameCtor.invokeExact(options, boundNames);
       }
-    } catch (Exception e) {
+    } catch (Throwable e) {
       // We can't afford to ignore that: the values wouldn't be in the proper order, and worst
       // case scenario, this could end up inserting values in the wrong columns, which essentially
       // boils down to corrupting the use DB.
@@ -1,5 +1,6 @@
 package io.stargate.db.dse.impl;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.Uninterruptibles;
 import io.reactivex.Single;
@@ -25,6 +26,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -41,6 +43,7 @@ import org.apache.cassandra.exceptions.AuthenticationException;
 import org.apache.cassandra.gms.ApplicationState;
 import org.apache.cassandra.gms.EndpointState;
 import org.apache.cassandra.gms.Gossiper;
+import org.apache.cassandra.metrics.CassandraMetricsRegistry;
 import org.apache.cassandra.schema.ColumnMetadata;
 import org.apache.cassandra.schema.IndexMetadata;
 import org.apache.cassandra.schema.KeyspaceMetadata;
@@ -96,6 +99,9 @@ public class DsePersistence
   // C* listener that ensures that our Stargate schema remains up-to-date with the internal C* one.
   private SchemaChangeListener schemaChangeListener;
 
+  // Gossip listener that wakes up the callers waiting for schema agreement.
+  private SchemaAgreementListener schemaAgreementListener;
+
   public DsePersistence() {
     super("DataStax Enterprise");
   }
@@ -115,13 +121,22 @@ public class DsePersistence
   }
 
   @Override
-  protected void registerInternalSchemaListener(Runnable runOnSchemaChange) {
+  protected KeyspaceMetadata internalKeyspace(String keyspaceName) {
+    return org.apache.cassandra.schema.SchemaManager.instance.getKeyspaceMetadata(keyspaceName);
+  }
 
+  @Override
+  protected MetricRegistry metricRegistry() {
+    return CassandraMetricsRegistry.actualRegistry;
+  }
+
+  @Override
+  protected void registerInternalSchemaListener(Consumer<String> onKeyspaceChange) {
     schemaChangeListener =
         new SimpleCallbackSchemaChangeListener() {
           @Override
-          void onSchemaChange() {
-            runOnSchemaChange.run();
+          void onSchemaChange(String keyspace) {
+            onKeyspaceChange.accept(keyspace);
           }
         };
     org.apache.cassandra.schema.SchemaManager.instance.registerListener(schemaChangeListener);
@@ -134,6 +149,19 @@ public class DsePersistence
     }
   }
 
+  @Override
+  protected void registerSchemaAgreementListener(Runnable onPossibleAgreementChange) {
+    schemaAgreementListener = new SchemaAgreementListener(onPossibleAgreementChange);
+    Gossiper.instance.register(schemaAgreementListener);
+  }
+
+  @Override
+  protected void unregisterSchemaAgreementListener() {
+    if (schemaAgreementListener != null) {
+      Gossiper.instance.unregister(schemaAgreementListener);
+    }
+  }
+
   @Override
   protected void initializePersistence(Config config) {
     // DSE picks this property during the static loading of the ClientState class. So we set it
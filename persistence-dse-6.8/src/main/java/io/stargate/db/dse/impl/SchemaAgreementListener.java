@@ -0,0 +1,59 @@
+package io.stargate.db.dse.impl;
+
+import java.net.InetAddress;
+import org.apache.cassandra.gms.ApplicationState;
+import org.apache.cassandra.gms.EndpointState;
+import org.apache.cassandra.gms.IEndpointStateChangeSubscriber;
+import org.apache.cassandra.gms.VersionedValue;
+
+/**
+ * Gossip subscriber that runs a callback every time an event that may change the schema agreement
+ * happens: a node advertising a new schema version or a new status, or a node joining, leaving or
+ * changing liveness.
+ */
+class SchemaAgreementListener implements IEndpointStateChangeSubscriber {
+  private final Runnable onPossibleAgreementChange;
+
+  SchemaAgreementListener(Runnable onPossibleAgreementChange) {
+    this.onPossibleAgreementChange = onPossibleAgreementChange;
+  }
+
+  @Override
+  public void onJoin(InetAddress endpoint, EndpointState epState) {
+    onPossibleAgreementChange.run();
+  }
+
+  @Override
+  public void beforeChange(
+      InetAddress endpoint,
+      EndpointState currentState,
+      ApplicationState newStateKey,
+      VersionedValue newValue) {}
+
+  @Override
+  public void onChange(InetAddress endpoint, ApplicationState state, VersionedValue value) {
+    if (state == ApplicationState.SCHEMA || state == ApplicationState.STATUS) {
+      onPossibleAgreementChange.run();
+    }
+  }
+
+  @Override
+  public void onAlive(InetAddress endpoint, EndpointState state) {
+    onPossibleAgreementChange.run();
+  }
+
+  @Override
+  public void onDead(InetAddress endpoint, EndpointState state) {
+    onPossibleAgreementChange.run();
+  }
+
+  @Override
+  public void onRemove(InetAddress endpoint) {
+    onPossibleAgreementChange.run();
+  }
+
+  @Override
+  public void onRestart(InetAddress endpoint, EndpointState state) {
+    onPossibleAgreementChange.run();
+  }
+}
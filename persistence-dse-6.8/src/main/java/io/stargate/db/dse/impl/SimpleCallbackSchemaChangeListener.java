@@ -7,107 +7,107 @@ import org.apache.cassandra.schema.TableId;
 
 /**
  * Simple abstract {@link SchemaChangeListener} implementation that funnels all the discrete schema
- * changes through a single no-argument callback (the {@link #onSchemaChange()}). For when we want
- * to do "something" on schema changes, but that something doesn't depend on the details of the
- * schema change.
+ * changes through a single callback (the {@link #onSchemaChange(String)}) that only gets the name
+ * of the modified keyspace. For when we want to do "something" on schema changes, but that
+ * something doesn't depend on the details of the schema change beyond the keyspace it affects.
  */
 abstract class SimpleCallbackSchemaChangeListener implements SchemaChangeListener {
 
-  abstract void onSchemaChange();
+  abstract void onSchemaChange(String keyspace);
 
   @Override
   public void onCreateKeyspace(String keyspace) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateTable(String keyspace, String table) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateView(String keyspace, String view) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateType(String keyspace, String type) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateFunction(
       String keyspace, String function, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onCreateAggregate(
       String keyspace, String aggregate, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onAlterKeyspace(String keyspace) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onAlterTable(String keyspace, String table, boolean affectsStatements) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onAlterView(String keyspace, String view, boolean affectsStatements) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onAlterType(String keyspace, String type) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onAlterFunction(
       String keyspace, String function, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onAlterAggregate(
       String keyspace, String aggregate, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropKeyspace(String keyspace) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropTable(String keyspace, String table, TableId tableId) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropView(String keyspace, String view, TableId tableId) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropType(String keyspace, String type) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropFunction(
       String keyspace, String function, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 
   @Override
   public void onDropAggregate(
       String keyspace, String aggregate, List<AbstractType<?>> argumentTypes) {
-    onSchemaChange();
+    onSchemaChange(keyspace);
   }
 }
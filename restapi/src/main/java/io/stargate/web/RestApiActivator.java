@@ -103,6 +103,10 @@ public class RestApiActivator implements BundleActivator, ServiceListener {
 
   @Override
   public void stop(BundleContext context) {
+    synchronized (web) {
+      web.stop();
+    }
+
     if (persistenceReference != null) {
       context.ungetService(persistenceReference);
     }
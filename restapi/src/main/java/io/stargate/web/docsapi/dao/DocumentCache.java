@@ -0,0 +1,256 @@
+package io.stargate.web.docsapi.dao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.stargate.db.datastore.Row;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * A cache of reassembled documents, for the collections that opt into it through the {@code
+ * stargate.document_cache.collections} system property (a comma-separated list of {@code
+ * namespace.collection}).
+ *
+ * <p>Entries are whole documents keyed by (namespace, collection, document id), and the cache is
+ * bounded by the (estimated) size of the documents in bytes. Freshness is maintained by:
+ *
+ * <ul>
+ *   <li>invalidating a document once a write to it through {@link DocumentDB} completes. Each
+ *       invalidation also bumps a generation that loads capture before reading the rows, so that a
+ *       load racing with a write cannot cache the pre-write document;
+ *   <li>comparing {@code writetime(leaf)}: an entry remembers the most recent write time of its
+ *       rows, is never replaced by an older version of the document, and is dropped whenever rows
+ *       read by other requests show a more recent write (see {@link #invalidateIfNewer});
+ *   <li>expiring entries after {@code stargate.document_cache.ttl_seconds}, which bounds the
+ *       staleness of writes done through other Stargate nodes.
+ * </ul>
+ *
+ * Cached documents are shared between requests and must not be modified.
+ */
+public class DocumentCache {
+
+  private static final long MAX_BYTES =
+      Long.getLong("stargate.document_cache.max_bytes", 64L * 1024 * 1024);
+  private static final long TTL_SECONDS = Long.getLong("stargate.document_cache.ttl_seconds", 10);
+  private static final Set<String> COLLECTIONS =
+      parseCollections(System.getProperty("stargate.document_cache.collections", ""));
+
+  private static final DocumentCache INSTANCE =
+      new DocumentCache(COLLECTIONS, MAX_BYTES, TTL_SECONDS);
+
+  // Generations are striped by key to avoid tracking every document ever written.
+  private static final int GENERATION_STRIPES = 256;
+
+  private final Set<String> collections;
+  private final Cache<Key, CachedDocument> cache;
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+  @VisibleForTesting
+  DocumentCache(Set<String> collections, long maxBytes, long ttlSeconds) {
+    this.collections = collections;
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Key key, CachedDocument document) -> document.weight)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+  }
+
+  /** The cache shared by all Documents API requests. */
+  public static DocumentCache instance() {
+    return INSTANCE;
+  }
+
+  private static Set<String> parseCollections(String value) {
+    if (value.trim().isEmpty()) {
+      return Collections.emptySet();
+    }
+    return Collections.unmodifiableSet(
+        Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(s -> !s.isEmpty())
+            .collect(Collectors.toCollection(HashSet::new)));
+  }
+
+  /** Whether documents of the provided collection are cached. */
+  public boolean isEnabled(String keyspace, String collection) {
+    return collections.contains(keyspace + "." + collection);
+  }
+
+  /**
+   * Returns the cached document, or {@code null} if it isn't cached. Note that this does not check
+   * the permissions of the caller on the collection.
+   */
+  public JsonNode get(String keyspace, String collection, String id) {
+    CachedDocument cached = cache.getIfPresent(new Key(keyspace, collection, id));
+    return cached == null ? null : cached.document;
+  }
+
+  /**
+   * The current generation of a document, to be captured before reading its rows and passed to
+   * {@link #put}.
+   */
+  public long generation(String keyspace, String collection, String id) {
+    return generations.get(stripe(new Key(keyspace, collection, id)));
+  }
+
+  /**
+   * Caches a document reassembled from the provided rows (which must include the {@code
+   * writetime(leaf)} column), unless it was invalidated since {@code generation} was captured or a
+   * more recent version is already cached.
+   */
+  public void put(
+      String keyspace,
+      String collection,
+      String id,
+      long generation,
+      List<Row> rows,
+      JsonNode document) {
+    Key key = new Key(keyspace, collection, id);
+    CachedDocument candidate =
+        new CachedDocument(document, maxWriteTime(rows), estimateWeight(document));
+    cache
+        .asMap()
+        .compute(
+            key,
+            (k, existing) -> {
+              if (generations.get(stripe(k)) != generation) {
+                return existing;
+              }
+              if (existing != null && existing.writeTime > candidate.writeTime) {
+                return existing;
+              }
+              return candidate;
+            });
+  }
+
+  /**
+   * Drops the cached version of a document if the provided rows of that document show a write that
+   * is more recent than it.
+   */
+  public void invalidateIfNewer(String keyspace, String collection, String id, List<Row> rows) {
+    if (!isEnabled(keyspace, collection)) {
+      return;
+    }
+    Key key = new Key(keyspace, collection, id);
+    // Not a lookup on behalf of a read, so it shouldn't count in the hit ratio.
+    CachedDocument cached = cache.asMap().get(key);
+    if (cached != null && maxWriteTime(rows) > cached.writeTime) {
+      cache.asMap().remove(key, cached);
+    }
+  }
+
+  /** Invalidates a document following a write to it. */
+  public void invalidate(String keyspace, String collection, String id) {
+    if (!isEnabled(keyspace, collection)) {
+      return;
+    }
+    Key key = new Key(keyspace, collection, id);
+    generations.incrementAndGet(stripe(key));
+    cache.invalidate(key);
+  }
+
+  /** Invalidates all the documents of a collection, for instance when it is dropped. */
+  public void invalidateCollection(String keyspace, String collection) {
+    if (!isEnabled(keyspace, collection)) {
+      return;
+    }
+    for (int i = 0; i < GENERATION_STRIPES; i++) {
+      generations.incrementAndGet(i);
+    }
+    cache
+        .asMap()
+        .keySet()
+        .removeIf(k -> k.keyspace.equals(keyspace) && k.collection.equals(collection));
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /** The (approximate) number of documents currently cached. */
+  public long size() {
+    return cache.size();
+  }
+
+  /** The (approximate) total weight, in bytes, of the documents currently cached. */
+  public long weight() {
+    long weight = 0;
+    for (CachedDocument document : cache.asMap().values()) {
+      weight += document.weight;
+    }
+    return weight;
+  }
+
+  private static int stripe(Key key) {
+    return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+  }
+
+  private static long maxWriteTime(List<Row> rows) {
+    long max = Long.MIN_VALUE;
+    for (Row row : rows) {
+      max = Math.max(max, row.getLong("writetime(leaf)"));
+    }
+    return max;
+  }
+
+  private static int estimateWeight(JsonNode document) {
+    // Roughly the size of the serialized document, times 2 for the overhead of the node objects.
+    long weight = 2L * document.toString().length();
+    return (int) Math.min(weight, Integer.MAX_VALUE);
+  }
+
+  private static class Key {
+    private final String keyspace;
+    private final String collection;
+    private final String id;
+
+    private Key(String keyspace, String collection, String id) {
+      this.keyspace = keyspace;
+      this.collection = collection;
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return keyspace.equals(that.keyspace)
+          && collection.equals(that.collection)
+          && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(keyspace, collection, id);
+    }
+  }
+
+  private static class CachedDocument {
+    private final JsonNode document;
+    private final long writeTime;
+    private final int weight;
+
+    private CachedDocument(JsonNode document, long writeTime, int weight) {
+      this.document = document;
+      this.writeTime = writeTime;
+      this.weight = weight;
+    }
+  }
+}
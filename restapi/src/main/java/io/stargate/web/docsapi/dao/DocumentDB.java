@@ -4,11 +4,13 @@ import com.datastax.oss.driver.api.core.servererrors.AlreadyExistsException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import io.stargate.db.BatchType;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.PreparedStatement;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.query.QueryBuilder;
 import io.stargate.db.datastore.query.Where;
+import io.stargate.db.datastore.query.WhereCondition;
 import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Column.Type;
 import io.stargate.db.schema.Keyspace;
@@ -16,6 +18,7 @@ import io.stargate.web.docsapi.exception.DocumentAPIRequestException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
@@ -41,7 +44,22 @@ public class DocumentDB {
   public static final String EMPTY_OBJECT_MARKER = "EMPTYOBJ-bccbeee1-6173-4120-8492-7d7bafaefb1f";
   public static final String EMPTY_ARRAY_MARKER = "EMPTYARRAY-9df4802a-c135-42d6-8be3-d23d9520a4e7";
 
+  // By default, all the rows of a document write go in a single LOGGED batch. Since they all share
+  // the same partition key, they can instead be written as several UNLOGGED batches (sharing the
+  // write timestamp) bounded by both a number of statements and an estimated size in bytes.
+  // Document writes are then no longer isolated: while the chunks are being applied, concurrent
+  // reads can see a document that is part old and part new, and a failed write can leave it so.
+  public static final boolean UNLOGGED_CHUNKED_WRITES =
+      Boolean.getBoolean("stargate.document_unlogged_chunked_writes");
+  public static final Integer WRITE_CHUNK_MAX_STATEMENTS =
+      Integer.getInteger("stargate.document_write_chunk_max_statements", 256);
+  public static final Integer WRITE_CHUNK_MAX_BYTES =
+      Integer.getInteger("stargate.document_write_chunk_max_bytes", 32 * 1024);
+
   final DataStore dataStore;
+  private final boolean unloggedChunkedWrites;
+  private final int writeChunkMaxStatements;
+  private final int writeChunkMaxBytes;
 
   static {
     allColumnNames = new ArrayList<>();
@@ -74,7 +92,22 @@ public class DocumentDB {
   }
 
   public DocumentDB(DataStore dataStore) {
+    this(dataStore, UNLOGGED_CHUNKED_WRITES, WRITE_CHUNK_MAX_STATEMENTS, WRITE_CHUNK_MAX_BYTES);
+  }
+
+  @VisibleForTesting
+  DocumentDB(
+      DataStore dataStore,
+      boolean unloggedChunkedWrites,
+      int writeChunkMaxStatements,
+      int writeChunkMaxBytes) {
+    if (writeChunkMaxStatements <= 0 || writeChunkMaxBytes <= 0) {
+      throw new IllegalArgumentException("Document write chunk limits must be strictly positive");
+    }
     this.dataStore = dataStore;
+    this.unloggedChunkedWrites = unloggedChunkedWrites;
+    this.writeChunkMaxStatements = writeChunkMaxStatements;
+    this.writeChunkMaxBytes = writeChunkMaxBytes;
   }
 
   public static List<String> getForbiddenCharactersMessage() {
@@ -95,6 +128,49 @@ public class DocumentDB {
     return allColumns;
   }
 
+  /**
+   * The columns to select for a query restricted by @param predicates.
+   *
+   * <p>When the predicates pin every path column from some depth on to the empty string, all the
+   * returned rows end before that depth, so the deeper path columns are left out. The first of the
+   * pinned columns is still selected, so that readers walking a row's path (until the next segment
+   * is empty) never go past the selected columns.
+   */
+  @VisibleForTesting
+  static List<Column> columnsFor(List<Where<Object>> predicates) {
+    boolean[] pinnedToEmpty = new boolean[MAX_DEPTH];
+    for (Where<Object> where : predicates) {
+      if (!(where instanceof WhereCondition)) {
+        continue;
+      }
+      WhereCondition<?> condition = (WhereCondition<?>) where;
+      int pathIndex = allPathColumnNames.indexOf(condition.column().name());
+      if (pathIndex >= 0
+          && condition.predicate() == WhereCondition.Predicate.Eq
+          && "".equals(condition.value().orElse(null))) {
+        pinnedToEmpty[pathIndex] = true;
+      }
+    }
+
+    int depth = MAX_DEPTH;
+    while (depth > 0 && pinnedToEmpty[depth - 1]) {
+      depth--;
+    }
+    int selectedPathColumns = Math.min(Math.max(depth + 1, 2), MAX_DEPTH);
+    if (selectedPathColumns == MAX_DEPTH) {
+      return allColumns();
+    }
+
+    List<Column> columns = new ArrayList<>(selectedPathColumns + 5);
+    for (int i = 0; i < allColumnNames.size(); i++) {
+      // Path columns are at positions 1 to MAX_DEPTH
+      if (i <= selectedPathColumns || i > MAX_DEPTH) {
+        columns.add(Column.create(allColumnNames.get(i), allColumnTypes.get(i)));
+      }
+    }
+    return columns;
+  }
+
   public QueryBuilder builder() {
     return dataStore.query();
   }
@@ -264,14 +340,18 @@ public class DocumentDB {
 
   public void deleteTable(String keyspaceName, String tableName)
       throws InterruptedException, ExecutionException {
-    dataStore.query(String.format("DROP TABLE \"%s\".\"%s\"", keyspaceName, tableName)).get();
+    try {
+      dataStore.query(String.format("DROP TABLE \"%s\".\"%s\"", keyspaceName, tableName)).get();
+    } finally {
+      DocumentCache.instance().invalidateCollection(keyspaceName, tableName);
+    }
   }
 
   public ResultSet executeSelect(String keyspace, String collection, List<Where<Object>> predicates)
       throws ExecutionException, InterruptedException {
     return this.builder()
         .select()
-        .column(DocumentDB.allColumns())
+        .column(columnsFor(predicates))
         .from(keyspace, collection)
         .where(predicates)
         .withWriteTimeColumn("leaf")
@@ -283,7 +363,7 @@ public class DocumentDB {
       throws ExecutionException, InterruptedException {
     return this.builder()
         .select()
-        .column(DocumentDB.allColumns())
+        .column(columnsFor(predicates))
         .from(keyspace, collection)
         .where(predicates)
         .allowFiltering(allowFiltering)
@@ -291,6 +371,23 @@ public class DocumentDB {
         .execute();
   }
 
+  /**
+   * Checks whether a document exists by reading (at most) one of its rows. This is a cheap way to
+   * enforce the read permissions of the user on the collection, for instance before serving the
+   * document from {@link DocumentCache}.
+   */
+  public boolean documentExists(String keyspace, String collection, String id)
+      throws ExecutionException, InterruptedException {
+    return !dataStore
+        .query(
+            String.format(
+                "SELECT key FROM \"%s\".\"%s\" WHERE key = ? LIMIT 1", keyspace, collection),
+            id)
+        .get()
+        .rows()
+        .isEmpty();
+  }
+
   public ResultSet executeSelectAll(String keyspace, String collection)
       throws ExecutionException, InterruptedException {
     return this.builder()
@@ -307,6 +404,10 @@ public class DocumentDB {
 
   public PreparedStatement.Bound getInsertStatement(
       String keyspaceName, String tableName, long microsTimestamp, Object[] columnValues) {
+    return bindInsert(prepareInsert(keyspaceName, tableName), microsTimestamp, columnValues);
+  }
+
+  private PreparedStatement prepareInsert(String keyspaceName, String tableName) {
     String statement =
         String.format(
             "INSERT INTO \"%s\".\"%s\" (%s) VALUES (:%s) USING TIMESTAMP ?",
@@ -316,9 +417,14 @@ public class DocumentDB {
             String.join(", :", allColumnNames));
 
     logger.debug(statement);
+    return prepare(statement);
+  }
+
+  private PreparedStatement.Bound bindInsert(
+      PreparedStatement insert, long microsTimestamp, Object[] columnValues) {
     Object[] values = Arrays.copyOf(columnValues, columnValues.length + 1);
     values[values.length - 1] = microsTimestamp;
-    return prepare(statement).bind(values);
+    return insert.bind(values);
   }
 
   /** Deletes from @param tableName all rows that are prefixed by @param pathPrefixToDelete */
@@ -476,11 +582,12 @@ public class DocumentDB {
     statements.add(
         getPrefixDeleteStatement(keyspace, table, key, microsSinceEpoch - 1, pathToDelete));
 
+    PreparedStatement insert = prepareInsert(keyspace, table);
     for (Object[] values : vars) {
-      statements.add(getInsertStatement(keyspace, table, microsSinceEpoch, values));
+      statements.add(bindInsert(insert, microsSinceEpoch, values));
     }
 
-    dataStore.batch(statements, ConsistencyLevel.LOCAL_QUORUM).join();
+    executeWriteBatch(keyspace, table, key, statements);
   }
 
   /**
@@ -501,8 +608,9 @@ public class DocumentDB {
     long deleteTs = microsSinceEpoch - 1;
 
     List<PreparedStatement.Bound> statements = new ArrayList<>(vars.size() + 3);
+    PreparedStatement insert = prepareInsert(keyspace, table);
     for (Object[] values : vars) {
-      statements.add(getInsertStatement(keyspace, table, insertTs, values));
+      statements.add(bindInsert(insert, insertTs, values));
     }
 
     if (hasPath) {
@@ -525,15 +633,99 @@ public class DocumentDB {
       deleteVarsWithPathKeys[i + 2 + pathToDelete.size()] = patchedKeys.get(i);
     }
 
-    dataStore.batch(statements, ConsistencyLevel.LOCAL_QUORUM).join();
+    executeWriteBatch(keyspace, table, key, statements);
+  }
+
+  /**
+   * Executes the statements of a document write, all of which target the partition of the
+   * document.
+   *
+   * <p>Unless {@code stargate.document_unlogged_chunked_writes} is set, this is a single LOGGED
+   * batch. Otherwise, the statements are split, in order, into UNLOGGED batches of at most {@code
+   * stargate.document_write_chunk_max_statements} statements and (approximately) {@code
+   * stargate.document_write_chunk_max_bytes} bytes, which are all executed concurrently. Each chunk
+   * is a single-partition batch, so it is applied atomically by the replicas of the document and
+   * never goes through the batchlog. As all the inserts (resp. deletes) share the same timestamp,
+   * the end result does not depend on the order in which the chunks are applied. However, the
+   * write as a whole is neither atomic nor isolated: until all the chunks are applied, concurrent
+   * reads may see a mix of the old and new versions of the document, and a failed write may leave
+   * the document in that state until it is retried.
+   *
+   * <p>Once the write completes (successfully or not), the document is invalidated from {@link
+   * DocumentCache}.
+   */
+  private void executeWriteBatch(
+      String keyspace, String table, String key, List<PreparedStatement.Bound> statements) {
+    try {
+      if (unloggedChunkedWrites) {
+        executeUnloggedChunks(statements);
+      } else {
+        dataStore.batch(statements, ConsistencyLevel.LOCAL_QUORUM).join();
+      }
+    } finally {
+      DocumentCache.instance().invalidate(keyspace, table, key);
+    }
+  }
+
+  private void executeUnloggedChunks(List<PreparedStatement.Bound> statements) {
+    List<CompletableFuture<ResultSet>> chunks = new ArrayList<>();
+    List<PreparedStatement.Bound> chunk = new ArrayList<>();
+    long chunkBytes = 0;
+    for (PreparedStatement.Bound statement : statements) {
+      long statementBytes = estimatedSize(statement);
+      if (!chunk.isEmpty()
+          && (chunk.size() >= writeChunkMaxStatements
+              || chunkBytes + statementBytes > writeChunkMaxBytes)) {
+        chunks.add(executeUnloggedBatch(chunk));
+        chunk = new ArrayList<>();
+        chunkBytes = 0;
+      }
+      chunk.add(statement);
+      chunkBytes += statementBytes;
+    }
+    if (!chunk.isEmpty()) {
+      chunks.add(executeUnloggedBatch(chunk));
+    }
+
+    CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+  }
+
+  private CompletableFuture<ResultSet> executeUnloggedBatch(List<PreparedStatement.Bound> chunk) {
+    return dataStore.batch(
+        chunk, BatchType.UNLOGGED, p -> p.withConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM));
+  }
+
+  /**
+   * A rough estimate of the size of the mutation of the provided statement: the serialized size of
+   * its values, plus a fixed per-value overhead.
+   */
+  @VisibleForTesting
+  static long estimatedSize(PreparedStatement.Bound statement) {
+    long size = 0;
+    for (Object value : statement.values()) {
+      size += 4;
+      if (value instanceof String) {
+        // Exact for ASCII, which is the common case for path segments.
+        size += ((String) value).length();
+      } else if (value instanceof Long || value instanceof Double) {
+        size += 8;
+      } else if (value instanceof Boolean) {
+        size += 1;
+      }
+    }
+    return size;
   }
 
   public void delete(
       String keyspace, String table, String key, List<String> pathToDelete, long microsSinceEpoch) {
 
-    getPrefixDeleteStatement(keyspace, table, key, microsSinceEpoch, pathToDelete)
-        .execute(ConsistencyLevel.LOCAL_QUORUM)
-        .join();
+    try {
+      getPrefixDeleteStatement(keyspace, table, key, microsSinceEpoch, pathToDelete)
+          .execute(ConsistencyLevel.LOCAL_QUORUM)
+          .join();
+    } finally {
+      DocumentCache.instance().invalidate(keyspace, table, key);
+    }
   }
 
   public void deleteDeadLeaves(
@@ -591,25 +783,4 @@ public class DocumentDB {
     // Fire this off in a future
     dataStore.batch(statements, ConsistencyLevel.LOCAL_QUORUM);
   }
-
-  public Map<String, Object> newBindMap(List<String> path) {
-    Map<String, Object> bindMap = new LinkedHashMap<>(MAX_DEPTH + 7);
-
-    bindMap.put("key", DataStore.UNSET);
-
-    for (int i = 0; i < MAX_DEPTH; i++) {
-      String value = "";
-      if (i < path.size()) {
-        value = path.get(i);
-      }
-      bindMap.put("p" + i, value);
-    }
-
-    bindMap.put("leaf", DataStore.UNSET);
-    bindMap.put("text_value", DataStore.UNSET);
-    bindMap.put("dbl_value", DataStore.UNSET);
-    bindMap.put("bool_value", DataStore.UNSET);
-
-    return bindMap;
-  }
 }
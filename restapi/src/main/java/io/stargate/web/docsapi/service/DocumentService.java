@@ -3,9 +3,7 @@ package io.stargate.web.docsapi.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.*;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.google.gson.*;
 import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.Row;
@@ -13,8 +11,8 @@ import io.stargate.db.datastore.query.ImmutableWhereCondition;
 import io.stargate.db.datastore.query.Where;
 import io.stargate.db.datastore.query.WhereCondition;
 import io.stargate.db.schema.Column;
+import io.stargate.web.docsapi.dao.DocumentCache;
 import io.stargate.web.docsapi.dao.DocumentDB;
-import io.stargate.web.docsapi.exception.DocumentAPIErrorHandlingStrategy;
 import io.stargate.web.docsapi.exception.DocumentAPIRequestException;
 import io.stargate.web.docsapi.service.filter.FilterCondition;
 import io.stargate.web.docsapi.service.filter.FilterOp;
@@ -26,15 +24,11 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.ws.rs.core.PathSegment;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.jsfr.json.JsonSurfer;
-import org.jsfr.json.JsonSurferGson;
-import org.jsfr.json.compiler.JsonPathCompiler;
-import org.jsfr.json.path.JsonPath;
-import org.jsfr.json.path.PathOperator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,32 +36,6 @@ public class DocumentService {
   private static final Logger logger = LoggerFactory.getLogger(DocumentService.class);
   private static final ObjectMapper mapper = new ObjectMapper();
 
-  /*
-   * Converts a JSON path string (e.g. "$.a.b.c[0]") into a JSON path string
-   * that only uses square brackets to denote pathing (e.g. "$['a']['b']['c'][0]".
-   * This is to allow escaping of certain characters, such as space, $, and @.
-   */
-  private String convertToBracketedPath(String path) {
-    String[] parts = path.split("\\.");
-    StringBuilder newPath = new StringBuilder();
-    for (int i = 0; i < parts.length; i++) {
-      String part = parts[i];
-      if (part.startsWith("$") && i == 0) {
-        newPath.append(part);
-      } else {
-        int indexOfBrace = part.indexOf('[');
-        if (indexOfBrace < 0) {
-          newPath.append("['").append(part).append("']");
-        } else {
-          String keyPart = part.substring(0, indexOfBrace);
-          String arrayPart = part.substring(indexOfBrace);
-          newPath.append("['").append(keyPart).append("']").append(arrayPart);
-        }
-      }
-    }
-    return newPath.toString();
-  }
-
   private String leftPadTo6(String value) {
     String padded = "";
     for (int pad = 0; pad < 6 - value.length(); pad++) {
@@ -89,23 +57,9 @@ public class DocumentService {
     return path;
   }
 
-  private boolean isEmptyObject(Object v) {
-    return v instanceof JsonElement
-        && ((JsonElement) v).isJsonObject()
-        && ((JsonObject) v).size() == 0;
-  }
-
-  private boolean isEmptyArray(Object v) {
-    return v instanceof JsonElement
-        && ((JsonElement) v).isJsonArray()
-        && ((JsonArray) v).size() == 0;
-  }
-
   /**
    * Transforms a JSON payload into a set of bind variables to send to Cassandra.
    *
-   * @param surfer
-   * @param db
    * @param path The path within the document that is being written to. If empty, writes to the root
    *     of the document.
    * @param key The name of the document that will be written
@@ -114,121 +68,11 @@ public class DocumentService {
    *     of extra validation if true)
    * @return The full bind variable list for the subsequent inserts, and all first-level keys, as an
    *     ImmutablePair.
+   * @see DocumentShredder
    */
   private ImmutablePair<List<Object[]>, List<String>> shredPayload(
-      JsonSurfer surfer,
-      DocumentDB db,
-      List<String> path,
-      String key,
-      String payload,
-      boolean patching) {
-    List<Object[]> bindVariableList = new ArrayList<>();
-    List<String> firstLevelKeys = new ArrayList<>();
-    surfer
-        .configBuilder()
-        .bind(
-            "$..*",
-            (v, parsingContext) -> {
-              String fieldName = parsingContext.getCurrentFieldName();
-              if (fieldName != null && (DocumentDB.containsIllegalChars(fieldName))) {
-                throw new DocumentAPIRequestException(
-                    String.format(
-                        "The characters %s are not permitted in JSON field names, invalid field %s",
-                        DocumentDB.getForbiddenCharactersMessage(), fieldName));
-              }
-
-              if (v instanceof JsonPrimitive
-                  || v instanceof JsonNull
-                  || isEmptyObject(v)
-                  || isEmptyArray(v)) {
-                JsonPath p =
-                    JsonPathCompiler.compile(convertToBracketedPath(parsingContext.getJsonPath()));
-                int i = path.size();
-                Map<String, Object> bindMap = db.newBindMap(path);
-
-                bindMap.put("key", key);
-
-                Iterator<PathOperator> it = p.iterator();
-                String leaf = null;
-                while (it.hasNext()) {
-                  if (i >= DocumentDB.MAX_DEPTH) {
-                    throw new DocumentAPIRequestException(
-                        String.format("Max depth of %s exceeded", DocumentDB.MAX_DEPTH));
-                  }
-
-                  PathOperator op = it.next();
-                  String pv = op.toString();
-
-                  if (pv.equals("$")) continue;
-
-                  // pv always starts with a square brace because of the above conversion
-                  String innerPath = pv.substring(1, pv.length() - 1);
-                  boolean isArrayElement = op.getType() == PathOperator.Type.ARRAY;
-                  if (isArrayElement) {
-                    if (i == path.size() && patching) {
-                      throw new DocumentAPIRequestException(
-                          "A patch operation must be done with a JSON object, not an array.");
-                    }
-
-                    int idx = Integer.parseInt(innerPath);
-                    if (idx > DocumentDB.MAX_ARRAY_LENGTH - 1) {
-                      throw new DocumentAPIRequestException(
-                          String.format(
-                              "Max array length of %s exceeded.", DocumentDB.MAX_ARRAY_LENGTH));
-                    }
-
-                    // left-pad the array element to 6 characters
-                    pv = "[" + leftPadTo6(innerPath) + "]";
-                  } else if (i == path.size()) {
-                    firstLevelKeys.add(innerPath);
-                    pv = innerPath;
-                  } else {
-                    pv = innerPath;
-                  }
-
-                  bindMap.put("p" + i++, pv);
-                  leaf = pv;
-                }
-
-                bindMap.put("leaf", leaf);
-
-                if (v instanceof JsonPrimitive) {
-                  JsonPrimitive value = (JsonPrimitive) v;
-
-                  if (value.isNumber()) {
-                    bindMap.put("dbl_value", value.getAsDouble());
-                    bindMap.put("bool_value", null);
-                    bindMap.put("text_value", null);
-                  } else if (value.isBoolean()) {
-                    bindMap.put("dbl_value", null);
-                    bindMap.put("bool_value", value.getAsBoolean());
-                    bindMap.put("text_value", null);
-                  } else {
-                    bindMap.put("dbl_value", null);
-                    bindMap.put("bool_value", null);
-                    bindMap.put("text_value", value.getAsString());
-                  }
-                } else if (isEmptyObject(v)) {
-                  bindMap.put("dbl_value", null);
-                  bindMap.put("bool_value", null);
-                  bindMap.put("text_value", DocumentDB.EMPTY_OBJECT_MARKER);
-                } else if (isEmptyArray(v)) {
-                  bindMap.put("dbl_value", null);
-                  bindMap.put("bool_value", null);
-                  bindMap.put("text_value", DocumentDB.EMPTY_ARRAY_MARKER);
-                } else {
-                  bindMap.put("dbl_value", null);
-                  bindMap.put("bool_value", null);
-                  bindMap.put("text_value", null);
-                }
-
-                logger.debug("{}", bindMap.values());
-                bindVariableList.add(bindMap.values().toArray());
-              }
-            })
-        .withErrorStrategy(new DocumentAPIErrorHandlingStrategy())
-        .buildAndSurf(payload);
-    return ImmutablePair.of(bindVariableList, firstLevelKeys);
+      List<String> path, String key, String payload, boolean patching) {
+    return new DocumentShredder(path, key, patching).shred(payload);
   }
 
   public void putAtPath(
@@ -243,8 +87,6 @@ public class DocumentService {
       throws UnauthorizedException {
     DocumentDB db = dbFactory.getDocDataStoreForToken(authToken);
 
-    JsonSurfer surfer = JsonSurferGson.INSTANCE;
-
     boolean created = db.maybeCreateTable(keyspace, collection);
     // After creating the table, it can take up to 2 seconds for permissions cache to be updated,
     // but we can force the permissions refetch by logging in again.
@@ -261,7 +103,7 @@ public class DocumentService {
     }
 
     ImmutablePair<List<Object[]>, List<String>> shreddingResults =
-        shredPayload(surfer, db, convertedPath, id, payload, patching);
+        shredPayload(convertedPath, id, payload, patching);
 
     List<Object[]> bindVariableList = shreddingResults.left;
     List<String> firstLevelKeys = shreddingResults.right;
@@ -314,16 +156,18 @@ public class DocumentService {
       }
     }
 
-    ResultSet r = db.executeSelect(keyspace, collection, predicates);
-    List<Row> rows = r.rows();
-
-    if (rows.size() == 0) return null;
-    ImmutablePair<JsonNode, Map<String, List<JsonNode>>> result = convertToJsonDoc(rows, false);
-    if (!result.right.isEmpty()) {
-      logger.info(String.format("Deleting %d dead leaves", result.right.size()));
-      db.deleteDeadLeaves(keyspace, collection, id, result.right);
+    JsonNode doc;
+    DocumentCache cache = DocumentCache.instance();
+    if (cache.isEnabled(keyspace, collection)) {
+      // Always fetch (and cache) the whole document, only the key predicate applies.
+      doc = getCachedDocument(db, cache, keyspace, collection, id, predicates.subList(0, 1));
+    } else {
+      List<Row> rows = db.executeSelect(keyspace, collection, predicates).rows();
+      doc = rows.isEmpty() ? null : reassembleDocument(db, keyspace, collection, id, rows);
     }
-    JsonNode node = result.left.at(pathStr.toString());
+
+    if (doc == null) return null;
+    JsonNode node = doc.at(pathStr.toString());
     if (node.isMissingNode()) {
       return null;
     }
@@ -331,6 +175,47 @@ public class DocumentService {
     return node;
   }
 
+  /**
+   * Returns the whole document from {@link DocumentCache}, loading it (and caching it) if
+   * necessary.
+   */
+  private JsonNode getCachedDocument(
+      DocumentDB db,
+      DocumentCache cache,
+      String keyspace,
+      String collection,
+      String id,
+      List<Where<Object>> keyPredicate)
+      throws ExecutionException, InterruptedException {
+    JsonNode doc = cache.get(keyspace, collection, id);
+    if (doc != null) {
+      // Serving from the cache bypasses the permission checks done when reading the rows, so we
+      // still read a single row, which also catches deletions from other nodes.
+      if (db.documentExists(keyspace, collection, id)) {
+        return doc;
+      }
+      cache.invalidate(keyspace, collection, id);
+      return null;
+    }
+
+    long generation = cache.generation(keyspace, collection, id);
+    List<Row> rows = db.executeSelect(keyspace, collection, keyPredicate).rows();
+    if (rows.isEmpty()) return null;
+    doc = reassembleDocument(db, keyspace, collection, id, rows);
+    cache.put(keyspace, collection, id, generation, rows, doc);
+    return doc;
+  }
+
+  private JsonNode reassembleDocument(
+      DocumentDB db, String keyspace, String collection, String id, List<Row> rows) {
+    ImmutablePair<JsonNode, Map<String, List<JsonNode>>> result = convertToJsonDoc(rows, false);
+    if (!result.right.isEmpty()) {
+      logger.info(String.format("Deleting %d dead leaves", result.right.size()));
+      db.deleteDeadLeaves(keyspace, collection, id, result.right);
+    }
+    return result.left;
+  }
+
   private void validateOpAndValue(String op, JsonNode value, String fieldName) {
     Optional<FilterOp> filterOpt = FilterOp.getByRawValue(op);
     // Further down the line, a nicer error message will be made if the filterOp is invalid
@@ -593,38 +478,136 @@ public class DocumentService {
     return ImmutablePair.of(docsResult, pageState);
   }
 
-  private void addRowsToMap(Map<String, List<Row>> rowsByDoc, List<Row> rows) {
-    for (Row row : rows) {
-      String key = row.getString("key");
-      List<Row> rowsAtKey = rowsByDoc.getOrDefault(key, new ArrayList<>());
-      rowsAtKey.add(row);
-      rowsByDoc.put(key, rowsAtKey);
+  /**
+   * Scans the collection, starting at the paging state {@code db} was created with, and collects
+   * the rows of the first {@code limit} documents accepted by {@code accepts}.
+   *
+   * <p>The scan is a single query, whose result set is consumed page by page. As each document is a
+   * partition, its rows are contiguous in the scan, and a document is complete as soon as a row of
+   * another one shows up. A document is accepted if any of its rows is accepted.
+   *
+   * @return the accepted documents and their rows, in scan order, and the paging state that resumes
+   *     the scan right after the last of them if the collection has more accepted documents ({@code
+   *     null} otherwise).
+   */
+  private ImmutablePair<LinkedHashMap<String, List<Row>>, ByteBuffer> scanDocuments(
+      Db dbFactory,
+      DocumentDB db,
+      String authToken,
+      String keyspace,
+      String collection,
+      ByteBuffer initialPagingState,
+      int limit,
+      Predicate<Row> accepts)
+      throws ExecutionException, InterruptedException, UnauthorizedException {
+    LinkedHashMap<String, List<Row>> rowsByDoc = new LinkedHashMap<>();
+    String currentKey = null;
+    List<Row> currentRows = new ArrayList<>();
+    boolean currentAccepted = false;
+    // Where the document following the last collected one starts: the paging state of its page,
+    // and its index within that page.
+    ByteBuffer boundaryPageState = null;
+    int boundaryIndex = -1;
+
+    ResultSet resultSet = db.executeSelectAll(keyspace, collection);
+    ByteBuffer pageState = initialPagingState;
+    // This waits for each page, but walking through them with fetchNextPageAsync() lets the result
+    // set read the next page ahead while the current one is processed.
+    List<Row> page = resultSet.fetchNextPageAsync().get();
+    while (true) {
+      for (int i = 0; i < page.size(); i++) {
+        Row row = page.get(i);
+        String key = row.getString("key");
+        if (!key.equals(currentKey)) {
+          if (currentAccepted) {
+            rowsByDoc.put(currentKey, currentRows);
+            if (rowsByDoc.size() == limit) {
+              boundaryPageState = pageState;
+              boundaryIndex = i;
+            }
+          }
+          currentKey = key;
+          currentRows = new ArrayList<>();
+          currentAccepted = false;
+        }
+
+        if (!currentAccepted && accepts.test(row)) {
+          currentAccepted = true;
+          if (rowsByDoc.size() == limit) {
+            // There are more documents than requested.
+            return ImmutablePair.of(
+                rowsByDoc,
+                pagingStateAt(
+                    dbFactory, authToken, keyspace, collection, boundaryPageState, boundaryIndex));
+          }
+        }
+        if (rowsByDoc.size() < limit) {
+          currentRows.add(row);
+        }
+      }
+
+      ByteBuffer nextPageState = resultSet.getPagingState();
+      if (nextPageState == null) {
+        break;
+      }
+      pageState = nextPageState.duplicate();
+      page = resultSet.fetchNextPageAsync().get();
+    }
+
+    if (currentAccepted) {
+      rowsByDoc.put(currentKey, currentRows);
     }
+    return ImmutablePair.of(rowsByDoc, null);
   }
 
-  private void updateExistenceForMap(
-      Map<String, Boolean> existsByDoc,
-      Map<String, Integer> countsByDoc,
-      List<Row> rows,
-      List<FilterCondition> filters) {
-    List<Row> filteredRows = applyInMemoryFilters(rows, filters, 1);
-    for (Row row : filteredRows) {
-      String key = row.getString("key");
-      if (!existsByDoc.getOrDefault(key, false)) {
-        existsByDoc.put(key, true);
-      }
+  /**
+   * The paging state that resumes a scan of the collection at the {@code index}-th row of the page
+   * that starts at {@code pageState}.
+   *
+   * <p>Paging states are opaque, so unless that row starts its page, this re-reads the {@code
+   * index} rows that precede it in its page (and only those).
+   */
+  private ByteBuffer pagingStateAt(
+      Db dbFactory,
+      String authToken,
+      String keyspace,
+      String collection,
+      ByteBuffer pageState,
+      int index)
+      throws ExecutionException, InterruptedException, UnauthorizedException {
+    if (index == 0) {
+      return pageState;
     }
+    DocumentDB db = dbFactory.getDocDataStoreForToken(authToken, index, pageState);
+    return db.executeSelectAll(keyspace, collection).getPagingState();
+  }
 
-    for (Row row : rows) {
-      String key = row.getString("key");
-      int value = countsByDoc.getOrDefault(key, 0);
-      countsByDoc.put(key, value + 1);
+  private JsonNode toJsonDocs(
+      String keyspace, String collection, Map<String, List<Row>> rowsByDoc, List<String> fields) {
+    // Any of these rows may reveal a write more recent than a cached document.
+    DocumentCache cache = DocumentCache.instance();
+
+    ObjectNode docsResult = mapper.createObjectNode();
+    for (Map.Entry<String, List<Row>> e : rowsByDoc.entrySet()) {
+      cache.invalidateIfNewer(keyspace, collection, e.getKey(), e.getValue());
+      List<Row> rows = new ArrayList<>();
+      for (Row row : e.getValue()) {
+        if (fields.isEmpty() || fields.contains(row.getString("p0"))) rows.add(row);
+      }
+      // Documents that have none of the selected fields are still part of the result.
+      docsResult.set(e.getKey(), convertToJsonDoc(rows, false).left);
     }
+    return docsResult;
   }
 
   /**
-   * This method gets all the rows for @param limit documents, by fetching result sets sequentially
-   * and stringing them together. This is NOT expected to perform well for large documents.
+   * This method gets all the rows for @param limit documents, by scanning the collection from
+   * {@code initialPagingState} (see {@link #scanDocuments}). This is NOT expected to perform well
+   * for large documents.
+   *
+   * <p>Note that @param fields is applied in memory: documents are discovered by scanning their
+   * rows, so restricting the scan to the selected fields would skip the documents that have none
+   * of them.
    */
   public ImmutablePair<JsonNode, ByteBuffer> getFullDocuments(
       Db dbFactory,
@@ -637,72 +620,17 @@ public class DocumentService {
       int pageSize,
       int limit)
       throws ExecutionException, InterruptedException, UnauthorizedException {
-    ObjectNode docsResult = mapper.createObjectNode();
-    LinkedHashMap<String, List<Row>> rowsByDoc = new LinkedHashMap<>();
-
-    ImmutablePair<List<Row>, ByteBuffer> page;
-    do {
-      page =
-          searchRows(
-              keyspace,
-              collection,
-              db,
-              new ArrayList<>(),
-              new ArrayList<>(),
-              new ArrayList<>(),
-              false,
-              null);
-      addRowsToMap(rowsByDoc, page.left);
-      db = dbFactory.getDocDataStoreForToken(authToken, pageSize, page.right);
-    } while (rowsByDoc.keySet().size() <= limit && page.right != null);
-
-    // Either we've reached the end of all rows in the collection, or we have enough rows
-    // in memory to build the final result.
-    Set<String> docNames = rowsByDoc.keySet();
-    if (docNames.size() > limit) {
-      int totalSize = 0;
-      Iterator<Map.Entry<String, List<Row>>> iter = rowsByDoc.entrySet().iterator();
-      for (int i = 0; i < limit; i++) {
-        Map.Entry<String, List<Row>> e = iter.next();
-        totalSize += e.getValue().size();
-        List<Row> rows = new ArrayList<>();
-        for (Row row : e.getValue()) {
-          if (fields.isEmpty() || fields.contains(row.getString("p0"))) rows.add(row);
-        }
-        docsResult.set(e.getKey(), convertToJsonDoc(rows, false).left);
-      }
-      db = dbFactory.getDocDataStoreForToken(authToken, totalSize, initialPagingState);
-      ByteBuffer finalPagingState =
-          searchRows(
-                  keyspace,
-                  collection,
-                  db,
-                  new ArrayList<>(),
-                  new ArrayList<>(),
-                  new ArrayList<>(),
-                  false,
-                  null)
-              .right;
-      return ImmutablePair.of(docsResult, finalPagingState);
-    } else {
-      Iterator<Map.Entry<String, List<Row>>> iter = rowsByDoc.entrySet().iterator();
-      while (iter.hasNext()) {
-        Map.Entry<String, List<Row>> e = iter.next();
-        List<Row> rows = new ArrayList<>();
-        for (Row row : e.getValue()) {
-          if (fields.isEmpty() || fields.contains(row.getString("p0"))) rows.add(row);
-        }
-        docsResult.set(e.getKey(), convertToJsonDoc(rows, false).left);
-      }
-      return ImmutablePair.of(docsResult, null);
-    }
+    ImmutablePair<LinkedHashMap<String, List<Row>>, ByteBuffer> scan =
+        scanDocuments(
+            dbFactory, db, authToken, keyspace, collection, initialPagingState, limit, row -> true);
+    return ImmutablePair.of(toJsonDocs(keyspace, collection, scan.left, fields), scan.right);
   }
 
   /**
-   * This method gets all the rows for @param limit documents, by fetching result sets sequentially
-   * and stringing them together. After getting all the data out, it will pare down the document to
-   * just the relevant result set, while maintaining page state. This is expected to be even more
-   * intensive than getFullDocuments.
+   * This method gets all the rows for @param limit documents that match @param filters, by
+   * scanning the collection from {@code initialPagingState} (see {@link #scanDocuments}) and
+   * evaluating the filters in memory. This is expected to be even more intensive than
+   * getFullDocuments, as it may scan many documents that don't match.
    */
   public ImmutablePair<JsonNode, ByteBuffer> getFullDocumentsFiltered(
       Db dbFactory,
@@ -716,88 +644,22 @@ public class DocumentService {
       int pageSize,
       int limit)
       throws ExecutionException, InterruptedException, UnauthorizedException {
-    ObjectNode docsResult = mapper.createObjectNode();
-    LinkedHashMap<String, Boolean> existsByDoc = new LinkedHashMap<>();
-    LinkedHashMap<String, Integer> countsByDoc = new LinkedHashMap<>();
-
-    ImmutablePair<List<Row>, ByteBuffer> page;
-    do {
-      page =
-          searchRows(
-              keyspace,
-              collection,
-              db,
-              new ArrayList<>(),
-              new ArrayList<>(),
-              new ArrayList<>(),
-              false,
-              null);
-      updateExistenceForMap(existsByDoc, countsByDoc, page.left, filters);
-      db = dbFactory.getDocDataStoreForToken(authToken, pageSize, page.right);
-    } while (existsByDoc.keySet().size() <= limit && page.right != null);
-
-    // Either we've reached the end of all rows in the collection, or we have enough rows
-    // in memory to build the final result.
-    Set<String> docNames = existsByDoc.keySet();
-    ByteBuffer finalPagingState;
-    if (docNames.size() > limit) {
-      int totalSize = 0;
-      docNames = new HashSet<>();
-      Iterator<Map.Entry<String, Integer>> iter = countsByDoc.entrySet().iterator();
-      int i = 0;
-      while (i < limit) {
-        Map.Entry<String, Integer> e = iter.next();
-        totalSize += e.getValue();
-        if (existsByDoc.containsKey(e.getKey())) {
-          docNames.add(e.getKey());
-          i++;
-        }
-      }
-      db = dbFactory.getDocDataStoreForToken(authToken, totalSize, initialPagingState);
-      finalPagingState =
-          searchRows(
-                  keyspace,
-                  collection,
-                  db,
-                  new ArrayList<>(),
-                  new ArrayList<>(),
-                  new ArrayList<>(),
-                  false,
-                  null)
-              .right;
-    } else {
-      finalPagingState = null;
-    }
-
-    List<Where<Object>> predicate =
-        ImmutableList.of(
-            ImmutableWhereCondition.builder()
-                .column("key")
-                .predicate(WhereCondition.Predicate.In)
-                .value(new ArrayList<>(docNames))
-                .build());
-
-    db = dbFactory.getDocDataStoreForToken(authToken);
-    List<Row> rows = db.executeSelect(keyspace, collection, predicate).rows();
-    Map<String, List<Row>> rowsByDoc = new HashMap<>();
-    for (Row row : rows) {
-      String key = row.getString("key");
-      List<Row> rowsAtKey = rowsByDoc.getOrDefault(key, new ArrayList<>());
-      if (fields.isEmpty() || fields.contains(row.getString("p0"))) rowsAtKey.add(row);
-      rowsByDoc.put(key, rowsAtKey);
-    }
-
-    for (Map.Entry<String, List<Row>> entry : rowsByDoc.entrySet()) {
-      docsResult.set(entry.getKey(), convertToJsonDoc(entry.getValue(), false).left);
-    }
-
-    return ImmutablePair.of(docsResult, finalPagingState);
+    ImmutablePair<LinkedHashMap<String, List<Row>>, ByteBuffer> scan =
+        scanDocuments(
+            dbFactory,
+            db,
+            authToken,
+            keyspace,
+            collection,
+            initialPagingState,
+            limit,
+            row -> !applyInMemoryFilters(Collections.singletonList(row), filters, 1).isEmpty());
+    return ImmutablePair.of(toJsonDocs(keyspace, collection, scan.left, fields), scan.right);
   }
 
   /**
    * Searches a document collection for particular results. If `fields` is non-empty, queries
-   * Cassandra for any data that matches `path` and then does matching of the selection set and
-   * filtering in memory.
+   * Cassandra for the selected fields at `path` and then does filtering in memory.
    *
    * <p>A major restriction: if `fields` is non-empty or `filters` includes a filter that has
    * "limited support" ($nin, $in, $ne), then the result set MUST fit in a single page. A requester
@@ -904,6 +766,14 @@ public class DocumentService {
               .predicate(WhereCondition.Predicate.Eq)
               .value(filters.get(0).getField())
               .build());
+    } else if (!path.isEmpty() && !fields.isEmpty()) {
+      // Only fetch the selected fields, rather than all the fields at that path.
+      predicates.add(
+          ImmutableWhereCondition.builder()
+              .column("p" + i++)
+              .predicate(WhereCondition.Predicate.In)
+              .value(new ArrayList<>(new LinkedHashSet<>(fields)))
+              .build());
     } else if (!path.isEmpty()) {
       predicates.add(
           ImmutableWhereCondition.builder()
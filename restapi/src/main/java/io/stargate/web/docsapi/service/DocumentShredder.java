@@ -0,0 +1,178 @@
+package io.stargate.web.docsapi.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.stargate.web.docsapi.dao.DocumentDB;
+import io.stargate.web.docsapi.exception.DocumentAPIRequestException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+
+/**
+ * Transforms a JSON payload into the rows (bind variables) of a Documents API table, in a single
+ * streaming pass.
+ *
+ * <p>The path of the current value is maintained as a stack of segments while reading the payload,
+ * and every leaf (primitive, null, empty object or empty array) becomes a row laid out as {@link
+ * DocumentDB#allColumns()}. Rows are copied from a template that already holds the document key and
+ * the path being written to, so only the segments below that path need to be filled in.
+ */
+class DocumentShredder {
+
+  // Positions in a row, following the column order of DocumentDB#allColumns()
+  private static final int KEY_INDEX = 0;
+  private static final int PATH_INDEX = 1;
+  private static final int LEAF_INDEX = PATH_INDEX + DocumentDB.MAX_DEPTH;
+  private static final int TEXT_VALUE_INDEX = LEAF_INDEX + 1;
+  private static final int DBL_VALUE_INDEX = LEAF_INDEX + 2;
+  private static final int BOOL_VALUE_INDEX = LEAF_INDEX + 3;
+  private static final int ROW_SIZE = LEAF_INDEX + 4;
+
+  // Array elements are left-padded to 6 digits; pre-compute the most common ones.
+  private static final String[] ARRAY_SEGMENTS = new String[1024];
+
+  static {
+    for (int i = 0; i < ARRAY_SEGMENTS.length; i++) {
+      ARRAY_SEGMENTS[i] = formatArraySegment(i);
+    }
+  }
+
+  private final int baseDepth;
+  private final boolean patching;
+  private final Object[] template;
+  private final String[] segments = new String[DocumentDB.MAX_DEPTH];
+  private final List<Object[]> rows = new ArrayList<>();
+  private final Set<String> firstLevelKeys = new LinkedHashSet<>();
+
+  /**
+   * @param path The path within the document that is being written to. If empty, writes to the
+   *     root of the document.
+   * @param key The name of the document that will be written
+   * @param patching If this payload meant to be part of a PATCH request (this causes a small amount
+   *     of extra validation if true)
+   */
+  DocumentShredder(List<String> path, String key, boolean patching) {
+    this.baseDepth = path.size();
+    this.patching = patching;
+    this.template = new Object[ROW_SIZE];
+    template[KEY_INDEX] = key;
+    for (int i = 0; i < DocumentDB.MAX_DEPTH; i++) {
+      template[PATH_INDEX + i] = i < baseDepth ? path.get(i) : "";
+    }
+  }
+
+  /**
+   * Shreds the provided payload.
+   *
+   * @return The full bind variable list for the subsequent inserts, and all first-level keys, as
+   *     an ImmutablePair.
+   */
+  ImmutablePair<List<Object[]>, List<String>> shred(String payload) {
+    try (JsonReader reader = new JsonReader(new StringReader(payload))) {
+      // Like the `$..*` JSON path, only the descendants of the root become rows.
+      shredValue(reader, baseDepth);
+    } catch (IOException e) {
+      throw new RuntimeException(e.getLocalizedMessage(), e);
+    }
+    return ImmutablePair.of(rows, new ArrayList<>(firstLevelKeys));
+  }
+
+  private void shredValue(JsonReader reader, int depth) throws IOException {
+    JsonToken token = reader.peek();
+    switch (token) {
+      case BEGIN_OBJECT:
+        reader.beginObject();
+        if (!reader.hasNext()) {
+          addRow(depth, DocumentDB.EMPTY_OBJECT_MARKER, null, null);
+        }
+        while (reader.hasNext()) {
+          String fieldName = reader.nextName();
+          if (DocumentDB.containsIllegalChars(fieldName)) {
+            throw new DocumentAPIRequestException(
+                String.format(
+                    "The characters %s are not permitted in JSON field names, invalid field %s",
+                    DocumentDB.getForbiddenCharactersMessage(), fieldName));
+          }
+          push(depth, fieldName);
+          if (depth == baseDepth) {
+            firstLevelKeys.add(fieldName);
+          }
+          shredValue(reader, depth + 1);
+        }
+        reader.endObject();
+        break;
+      case BEGIN_ARRAY:
+        reader.beginArray();
+        if (!reader.hasNext()) {
+          addRow(depth, DocumentDB.EMPTY_ARRAY_MARKER, null, null);
+        }
+        int index = 0;
+        while (reader.hasNext()) {
+          push(depth, arraySegment(depth, index++));
+          shredValue(reader, depth + 1);
+        }
+        reader.endArray();
+        break;
+      case NUMBER:
+        addRow(depth, null, reader.nextDouble(), null);
+        break;
+      case BOOLEAN:
+        addRow(depth, null, null, reader.nextBoolean());
+        break;
+      case NULL:
+        reader.nextNull();
+        addRow(depth, null, null, null);
+        break;
+      default:
+        addRow(depth, reader.nextString(), null, null);
+        break;
+    }
+  }
+
+  private void push(int depth, String segment) {
+    if (depth >= DocumentDB.MAX_DEPTH) {
+      throw new DocumentAPIRequestException(
+          String.format("Max depth of %s exceeded", DocumentDB.MAX_DEPTH));
+    }
+    segments[depth] = segment;
+  }
+
+  private String arraySegment(int depth, int index) {
+    if (depth == baseDepth && patching) {
+      throw new DocumentAPIRequestException(
+          "A patch operation must be done with a JSON object, not an array.");
+    }
+    if (index > DocumentDB.MAX_ARRAY_LENGTH - 1) {
+      throw new DocumentAPIRequestException(
+          String.format("Max array length of %s exceeded.", DocumentDB.MAX_ARRAY_LENGTH));
+    }
+    return index < ARRAY_SEGMENTS.length ? ARRAY_SEGMENTS[index] : formatArraySegment(index);
+  }
+
+  private static String formatArraySegment(int index) {
+    String digits = Integer.toString(index);
+    StringBuilder segment = new StringBuilder(8).append('[');
+    for (int pad = digits.length(); pad < 6; pad++) {
+      segment.append('0');
+    }
+    return segment.append(digits).append(']').toString();
+  }
+
+  private void addRow(int depth, String textValue, Double dblValue, Boolean boolValue) {
+    if (depth == baseDepth) {
+      // The root itself is never a leaf
+      return;
+    }
+    Object[] row = template.clone();
+    System.arraycopy(segments, baseDepth, row, PATH_INDEX + baseDepth, depth - baseDepth);
+    row[LEAF_INDEX] = segments[depth - 1];
+    row[TEXT_VALUE_INDEX] = textValue;
+    row[DBL_VALUE_INDEX] = dblValue;
+    row[BOOL_VALUE_INDEX] = boolValue;
+    rows.add(row);
+  }
+}
@@ -15,6 +15,9 @@
  */
 package io.stargate.web.impl;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.dropwizard.Application;
@@ -26,8 +29,10 @@ import io.dropwizard.util.JarLocation;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.Persistence;
+import io.stargate.db.datastore.PreparedStatementCache;
 import io.stargate.web.RestApiActivator;
 import io.stargate.web.config.ApplicationConfiguration;
+import io.stargate.web.docsapi.dao.DocumentCache;
 import io.stargate.web.docsapi.resources.CollectionsResource;
 import io.stargate.web.docsapi.resources.DocumentResourceV2;
 import io.stargate.web.docsapi.resources.NamespacesResource;
@@ -49,6 +54,8 @@ import io.swagger.jaxrs.listing.ApiListingResource;
 import io.swagger.jaxrs.listing.SwaggerSerializers;
 import java.io.IOException;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.servlet.DispatcherType;
 import javax.servlet.FilterRegistration;
 import org.eclipse.jetty.servlets.CrossOriginFilter;
@@ -61,6 +68,7 @@ public class Server extends Application<ApplicationConfiguration> {
   private final Persistence persistence;
   private final AuthenticationService authenticationService;
   private final Metrics metrics;
+  private final List<String> gaugeNames = new CopyOnWriteArrayList<>();
 
   public Server(
       Persistence persistence, AuthenticationService authenticationService, Metrics metrics) {
@@ -96,6 +104,21 @@ public class Server extends Application<ApplicationConfiguration> {
       throws IOException {
     final Db db = new Db(persistence, authenticationService);
 
+    MetricRegistry registry = environment.metrics();
+    PreparedStatementCache preparedCache = PreparedStatementCache.forPersistence(persistence);
+    registerGauge(registry, "prepared-statement-cache.hits", preparedCache::hitCount);
+    registerGauge(registry, "prepared-statement-cache.misses", preparedCache::missCount);
+    registerGauge(registry, "prepared-statement-cache.size", preparedCache::size);
+
+    DocumentCache documentCache = DocumentCache.instance();
+    registerGauge(registry, "document-cache.hits", () -> documentCache.stats().hitCount());
+    registerGauge(registry, "document-cache.misses", () -> documentCache.stats().missCount());
+    registerGauge(registry, "document-cache.hit-ratio", () -> documentCache.stats().hitRate());
+    registerGauge(
+        registry, "document-cache.evictions", () -> documentCache.stats().evictionCount());
+    registerGauge(registry, "document-cache.size", documentCache::size);
+    registerGauge(registry, "document-cache.weight", documentCache::weight);
+
     environment.getObjectMapper().configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
     environment.getObjectMapper().registerModule(new JavaTimeModule());
 
@@ -106,6 +129,7 @@ public class Server extends Application<ApplicationConfiguration> {
               @Override
               protected void configure() {
                 bind(db).to(Db.class);
+                bind(environment.getObjectMapper()).to(ObjectMapper.class);
               }
             });
     environment.jersey().register(KeyspaceResource.class);
@@ -140,6 +164,23 @@ public class Server extends Application<ApplicationConfiguration> {
     enableCors(environment);
   }
 
+  private <T> void registerGauge(MetricRegistry registry, String name, Gauge<T> gauge) {
+    registry.register(name, gauge);
+    gaugeNames.add(name);
+  }
+
+  /**
+   * Removes the gauges registered by this server. The "restapi" registry outlives the bundle, and
+   * registering a gauge again would fail on restart.
+   */
+  public void removeGauges() {
+    MetricRegistry registry = metrics.getRegistry("restapi");
+    for (String name : gaugeNames) {
+      registry.remove(name);
+    }
+    gaugeNames.clear();
+  }
+
   @Override
   public void initialize(final Bootstrap<ApplicationConfiguration> bootstrap) {
     super.initialize(bootstrap);
@@ -24,6 +24,7 @@ public class WebImpl {
   private Persistence persistence;
   private AuthenticationService authenticationService;
   private Metrics metrics;
+  private Server server;
 
   public Persistence getPersistence() {
     return persistence;
@@ -50,7 +51,14 @@ public class WebImpl {
   }
 
   public void start() throws Exception {
-    Server server = new Server(persistence, this.authenticationService, this.metrics);
+    server = new Server(persistence, this.authenticationService, this.metrics);
     server.run("server", "config.yaml");
   }
+
+  public void stop() {
+    if (server != null) {
+      server.removeGauges();
+      server = null;
+    }
+  }
 }
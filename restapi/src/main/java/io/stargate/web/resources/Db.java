@@ -21,7 +21,9 @@ import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.ImmutableParameters;
 import io.stargate.db.Parameters;
 import io.stargate.db.Persistence;
+import io.stargate.db.Workload;
 import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.RoleConnectionCache;
 import io.stargate.db.schema.Keyspace;
 import io.stargate.db.schema.Table;
 import io.stargate.web.docsapi.dao.DocumentDB;
@@ -31,9 +33,16 @@ import java.util.Optional;
 import javax.ws.rs.NotFoundException;
 
 public class Db {
+  private static final Parameters REST_PARAMETERS =
+      Parameters.builder().workload(Workload.REST).build();
+  private static final Parameters DOCUMENTS_PARAMETERS =
+      Parameters.builder().workload(Workload.DOCUMENTS).build();
+
   private final Persistence persistence;
   private final DataStore dataStore;
   private final AuthenticationService authenticationService;
+  // Logged-in connections, reused across the requests of each role.
+  private final RoleConnectionCache connections;
 
   public Collection<Table> getTables(DataStore dataStore, String keyspaceName) {
     Keyspace keyspace = dataStore.schema().keyspace(keyspaceName);
@@ -61,6 +70,7 @@ public class Db {
     this.authenticationService = authenticationService;
     this.persistence = persistence;
     this.dataStore = DataStore.create(persistence);
+    this.connections = new RoleConnectionCache(persistence);
   }
 
   public DataStore getDataStore() {
@@ -73,7 +83,7 @@ public class Db {
 
   public DataStore getDataStoreForToken(String token) throws UnauthorizedException {
     StoredCredentials storedCredentials = authenticationService.validateToken(token);
-    return DataStore.create(persistence, storedCredentials.getRoleName());
+    return connections.dataStore(storedCredentials.getRoleName(), REST_PARAMETERS);
   }
 
   public DataStore getDataStoreForToken(String token, int pageSize, ByteBuffer pagingState)
@@ -83,24 +93,29 @@ public class Db {
         ImmutableParameters.builder()
             .pageSize(pageSize)
             .pagingState(Optional.ofNullable(pagingState))
+            .workload(Workload.REST)
             .build();
 
-    return DataStore.create(this.persistence, storedCredentials.getRoleName(), parameters);
+    return connections.dataStore(storedCredentials.getRoleName(), parameters);
   }
 
   public DocumentDB getDocDataStoreForToken(String token) throws UnauthorizedException {
     StoredCredentials storedCredentials = authenticationService.validateToken(token);
-    return new DocumentDB(DataStore.create(persistence, storedCredentials.getRoleName()));
+    return new DocumentDB(
+        connections.dataStore(storedCredentials.getRoleName(), DOCUMENTS_PARAMETERS));
   }
 
   public DocumentDB getDocDataStoreForToken(String token, int pageSize, ByteBuffer pageState)
       throws UnauthorizedException {
     StoredCredentials storedCredentials = authenticationService.validateToken(token);
     Parameters parameters =
-        Parameters.builder().pageSize(pageSize).pagingState(Optional.ofNullable(pageState)).build();
+        Parameters.builder()
+            .pageSize(pageSize)
+            .pagingState(Optional.ofNullable(pageState))
+            .workload(Workload.DOCUMENTS)
+            .build();
 
-    return new DocumentDB(
-        DataStore.create(persistence, storedCredentials.getRoleName(), parameters));
+    return new DocumentDB(connections.dataStore(storedCredentials.getRoleName(), parameters));
   }
 
   public boolean isDse() {
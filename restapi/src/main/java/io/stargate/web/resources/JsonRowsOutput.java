@@ -0,0 +1,157 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.web.resources;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.stargate.db.datastore.Row;
+import io.stargate.db.schema.Column;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.UUID;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes a page of rows as JSON directly to the response stream.
+ *
+ * <p>This produces the same JSON as serializing the result of {@link Converters#row2Map} for each
+ * row, but without building those maps nor the whole response as a string. The way to write the
+ * value of each column is picked once per response from the column's type: the most common scalar
+ * types are written directly, and the others are delegated to the provided {@link ObjectMapper}.
+ */
+public class JsonRowsOutput implements StreamingOutput {
+
+  private final ObjectWriter writer;
+  private final List<Row> rows;
+  private final String rowsField;
+  private final String pageState;
+
+  private JsonRowsOutput(ObjectMapper mapper, List<Row> rows, String rowsField, String pageState) {
+    // Flushing after every value would defeat the purpose of the generator's buffer.
+    this.writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.rows = rows;
+    this.rowsField = rowsField;
+    this.pageState = pageState;
+  }
+
+  /** Writes the rows as a JSON array. */
+  public static JsonRowsOutput raw(ObjectMapper mapper, List<Row> rows) {
+    return new JsonRowsOutput(mapper, rows, null, null);
+  }
+
+  /**
+   * Writes the rows as a JSON object with a {@code count} field, a {@code pageState} field (omitted
+   * if null), and the rows as an array in the given field.
+   */
+  public static JsonRowsOutput wrapped(
+      ObjectMapper mapper, List<Row> rows, String pageState, String rowsField) {
+    return new JsonRowsOutput(mapper, rows, rowsField, pageState);
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    try (JsonGenerator generator = writer.getFactory().createGenerator(output)) {
+      // The container owns the response stream
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+      if (rowsField != null) {
+        generator.writeStartObject();
+        generator.writeNumberField("count", rows.size());
+        if (pageState != null) {
+          generator.writeStringField("pageState", pageState);
+        }
+        generator.writeFieldName(rowsField);
+      }
+      writeRows(generator);
+      if (rowsField != null) {
+        generator.writeEndObject();
+      }
+    }
+  }
+
+  private void writeRows(JsonGenerator generator) throws IOException {
+    generator.writeStartArray();
+    if (!rows.isEmpty()) {
+      // All the rows of a result set have the same columns
+      List<Column> columns = rows.get(0).columns();
+      String[] names = new String[columns.size()];
+      ValueWriter[] valueWriters = new ValueWriter[columns.size()];
+      for (int i = 0; i < names.length; i++) {
+        Column column = columns.get(i);
+        names[i] = column.name();
+        valueWriters[i] = valueWriter(column.type());
+      }
+
+      for (Row row : rows) {
+        generator.writeStartObject();
+        for (int i = 0; i < names.length; i++) {
+          generator.writeFieldName(names[i]);
+          Object value = row.getObject(names[i]);
+          if (value == null) {
+            generator.writeNull();
+          } else {
+            valueWriters[i].write(generator, value);
+          }
+        }
+        generator.writeEndObject();
+      }
+    }
+    generator.writeEndArray();
+  }
+
+  private ValueWriter valueWriter(Column.ColumnType type) {
+    if (type == null) {
+      return this::writeGeneric;
+    }
+    switch (type.rawType()) {
+      case Ascii:
+      case Text:
+      case Varchar:
+        return (generator, value) -> generator.writeString((String) value);
+      case Boolean:
+        return (generator, value) -> generator.writeBoolean((Boolean) value);
+      case Tinyint:
+      case Smallint:
+      case Int:
+        return (generator, value) -> generator.writeNumber(((Number) value).intValue());
+      case Bigint:
+      case Counter:
+        return (generator, value) -> generator.writeNumber((Long) value);
+      case Float:
+        return (generator, value) -> generator.writeNumber((Float) value);
+      case Double:
+        return (generator, value) -> generator.writeNumber((Double) value);
+      case Uuid:
+      case Timeuuid:
+        return (generator, value) -> generator.writeString(((UUID) value).toString());
+      default:
+        return this::writeGeneric;
+    }
+  }
+
+  private void writeGeneric(JsonGenerator generator, Object value) throws IOException {
+    // Arrays and lists serialize the same way, so no need for Converters' list conversion.
+    writer.writeValue(generator, value);
+  }
+
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(JsonGenerator generator, Object value) throws IOException;
+  }
+}
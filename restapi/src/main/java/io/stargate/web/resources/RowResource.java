@@ -16,6 +16,7 @@
 package io.stargate.web.resources;
 
 import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.query.Value;
@@ -26,7 +27,6 @@ import io.stargate.web.models.Error;
 import io.stargate.web.models.Filter;
 import io.stargate.web.models.Query;
 import io.stargate.web.models.RowAdd;
-import io.stargate.web.models.RowResponse;
 import io.stargate.web.models.RowUpdate;
 import io.stargate.web.models.Rows;
 import io.stargate.web.models.RowsResponse;
@@ -44,7 +44,6 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -79,6 +78,7 @@ public class RowResource {
   private static final Logger logger = LoggerFactory.getLogger(RowResource.class);
 
   @Inject private Db db;
+  @Inject private ObjectMapper objectMapper;
 
   private int DEFAULT_PAGE_SIZE = 100;
 
@@ -132,11 +132,8 @@ public class RowResource {
                   .consistencyLevel(ConsistencyLevel.LOCAL_QUORUM)
                   .execute();
 
-          final List<Map<String, Object>> rows =
-              r.rows().stream().map(Converters::row2Map).collect(Collectors.toList());
-
           return Response.status(Response.Status.OK)
-              .entity(new RowResponse(rows.size(), rows))
+              .entity(JsonRowsOutput.wrapped(objectMapper, r.rows(), null, "rows"))
               .build();
         });
   }
@@ -196,15 +193,13 @@ public class RowResource {
                   .consistencyLevel(ConsistencyLevel.LOCAL_QUORUM)
                   .execute();
 
-          final List<Map<String, Object>> rows =
-              r.currentPageRows().stream().map(Converters::row2Map).collect(Collectors.toList());
-
           String newPagingState =
               r.getPagingState() != null
                   ? Base64.getEncoder().encodeToString(r.getPagingState().array())
                   : null;
           return Response.status(Response.Status.OK)
-              .entity(new Rows(rows.size(), newPagingState, rows))
+              .entity(
+                  JsonRowsOutput.wrapped(objectMapper, r.currentPageRows(), newPagingState, "rows"))
               .build();
         });
   }
@@ -312,15 +307,13 @@ public class RowResource {
               localDB.query(query.trim(), ConsistencyLevel.LOCAL_QUORUM, values.toArray());
 
           ResultSet r = selectQuery.get();
-          final List<Map<String, Object>> rows =
-              r.currentPageRows().stream().map(Converters::row2Map).collect(Collectors.toList());
-
           String newPagingState =
               r.getPagingState() != null
                   ? Base64.getEncoder().encodeToString(r.getPagingState().array())
                   : null;
           return Response.status(Response.Status.OK)
-              .entity(new Rows(rows.size(), newPagingState, rows))
+              .entity(
+                  JsonRowsOutput.wrapped(objectMapper, r.currentPageRows(), newPagingState, "rows"))
               .build();
         });
   }
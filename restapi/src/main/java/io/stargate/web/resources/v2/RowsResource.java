@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.datastore.Row;
 import io.stargate.db.datastore.query.ColumnOrder;
 import io.stargate.db.datastore.query.ImmutableColumnOrder;
 import io.stargate.db.datastore.query.Value;
@@ -32,6 +33,7 @@ import io.stargate.web.models.GetResponseWrapper;
 import io.stargate.web.models.ResponseWrapper;
 import io.stargate.web.resources.Converters;
 import io.stargate.web.resources.Db;
+import io.stargate.web.resources.JsonRowsOutput;
 import io.stargate.web.resources.RequestHandler;
 import io.stargate.web.service.WhereParser;
 import io.swagger.annotations.Api;
@@ -63,6 +65,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.PathSegment;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -151,7 +154,7 @@ public class RowsResource {
           DataStore localDB = db.getDataStoreForToken(token, pageSize, pageState);
           final Table tableMetadata = db.getTable(localDB, keyspaceName, tableName);
 
-          Object response =
+          StreamingOutput response =
               getRows(
                   fields,
                   raw,
@@ -159,9 +162,7 @@ public class RowsResource {
                   localDB,
                   tableMetadata,
                   WhereParser.parseWhere(where, tableMetadata));
-          return Response.status(Response.Status.OK)
-              .entity(Converters.writeResponse(response))
-              .build();
+          return Response.status(Response.Status.OK).entity(response).build();
         });
   }
 
@@ -237,10 +238,8 @@ public class RowsResource {
                 .build();
           }
 
-          Object response = getRows(fields, raw, sort, localDB, tableMetadata, where);
-          return Response.status(Response.Status.OK)
-              .entity(Converters.writeResponse(response))
-              .build();
+          StreamingOutput response = getRows(fields, raw, sort, localDB, tableMetadata, where);
+          return Response.status(Response.Status.OK).entity(response).build();
         });
   }
 
@@ -492,7 +491,7 @@ public class RowsResource {
     return Response.status(Response.Status.OK).entity(Converters.writeResponse(response)).build();
   }
 
-  private Object getRows(
+  private StreamingOutput getRows(
       String fields,
       boolean raw,
       String sort,
@@ -519,13 +518,15 @@ public class RowsResource {
             .consistencyLevel(ConsistencyLevel.LOCAL_QUORUM)
             .execute();
 
-    List<Map<String, Object>> rows =
-        r.currentPageRows().stream().map(Converters::row2Map).collect(Collectors.toList());
+    List<Row> rows = r.currentPageRows();
+    if (raw) {
+      return JsonRowsOutput.raw(mapper, rows);
+    }
     String newPagingState =
         r.getPagingState() != null
             ? Base64.getEncoder().encodeToString(r.getPagingState().array())
             : null;
-    return raw ? rows : new GetResponseWrapper(rows.size(), newPagingState, rows);
+    return JsonRowsOutput.wrapped(mapper, rows, newPagingState, "data");
   }
 
   private List<ColumnOrder> buildSortOrder(String sort)
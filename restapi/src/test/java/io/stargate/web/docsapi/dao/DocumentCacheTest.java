@@ -0,0 +1,117 @@
+package io.stargate.web.docsapi.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.stargate.db.datastore.Row;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DocumentCacheTest {
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private DocumentCache cache;
+
+  @Before
+  public void setup() {
+    cache = new DocumentCache(ImmutableSet.of("ks.cached"), 1024 * 1024, 60);
+  }
+
+  private static List<Row> rowsWrittenAt(long... writeTimes) {
+    ImmutableList.Builder<Row> rows = ImmutableList.builder();
+    for (long writeTime : writeTimes) {
+      Row row = mock(Row.class);
+      when(row.getLong("writetime(leaf)")).thenReturn(writeTime);
+      rows.add(row);
+    }
+    return rows.build();
+  }
+
+  private static JsonNode doc(String json) throws Exception {
+    return mapper.readTree(json);
+  }
+
+  @Test
+  public void putAndGet() throws Exception {
+    assertThat(cache.isEnabled("ks", "cached")).isTrue();
+    assertThat(cache.isEnabled("ks", "other")).isFalse();
+    assertThat(cache.get("ks", "cached", "id")).isNull();
+
+    long generation = cache.generation("ks", "cached", "id");
+    cache.put("ks", "cached", "id", generation, rowsWrittenAt(1, 2), doc("{\"a\": 1}"));
+
+    assertThat(cache.get("ks", "cached", "id")).isEqualTo(doc("{\"a\": 1}"));
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.weight()).isGreaterThan(0);
+    assertThat(cache.stats().hitCount()).isEqualTo(1);
+    assertThat(cache.stats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void invalidateOnWrite() throws Exception {
+    long generation = cache.generation("ks", "cached", "id");
+    cache.put("ks", "cached", "id", generation, rowsWrittenAt(1), doc("{\"a\": 1}"));
+
+    cache.invalidate("ks", "cached", "id");
+    assertThat(cache.get("ks", "cached", "id")).isNull();
+  }
+
+  @Test
+  public void doNotCacheLoadRacingWithWrite() throws Exception {
+    long generation = cache.generation("ks", "cached", "id");
+    // A write completes while the rows are being read.
+    cache.invalidate("ks", "cached", "id");
+    cache.put("ks", "cached", "id", generation, rowsWrittenAt(1), doc("{\"a\": 1}"));
+
+    assertThat(cache.get("ks", "cached", "id")).isNull();
+  }
+
+  @Test
+  public void doNotReplaceWithOlderVersion() throws Exception {
+    long generation = cache.generation("ks", "cached", "id");
+    cache.put("ks", "cached", "id", generation, rowsWrittenAt(1, 5), doc("{\"a\": 2}"));
+    cache.put("ks", "cached", "id", generation, rowsWrittenAt(1, 3), doc("{\"a\": 1}"));
+
+    assertThat(cache.get("ks", "cached", "id")).isEqualTo(doc("{\"a\": 2}"));
+  }
+
+  @Test
+  public void invalidateIfNewer() throws Exception {
+    long generation = cache.generation("ks", "cached", "id");
+    cache.put("ks", "cached", "id", generation, rowsWrittenAt(1, 5), doc("{\"a\": 1}"));
+
+    cache.invalidateIfNewer("ks", "cached", "id", rowsWrittenAt(5));
+    assertThat(cache.get("ks", "cached", "id")).isNotNull();
+
+    cache.invalidateIfNewer("ks", "cached", "id", rowsWrittenAt(1, 6));
+    assertThat(cache.get("ks", "cached", "id")).isNull();
+  }
+
+  @Test
+  public void invalidateCollection() throws Exception {
+    cache.put(
+        "ks",
+        "cached",
+        "id1",
+        cache.generation("ks", "cached", "id1"),
+        rowsWrittenAt(1),
+        doc("{\"a\": 1}"));
+    cache.put(
+        "ks",
+        "cached",
+        "id2",
+        cache.generation("ks", "cached", "id2"),
+        rowsWrittenAt(1),
+        doc("{\"a\": 2}"));
+
+    cache.invalidateCollection("ks", "cached");
+    assertThat(cache.get("ks", "cached", "id1")).isNull();
+    assertThat(cache.get("ks", "cached", "id2")).isNull();
+  }
+}
@@ -16,10 +16,15 @@ import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.PreparedStatement;
 import io.stargate.db.datastore.PreparedStatement.Bound;
 import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.datastore.query.ImmutableWhereCondition;
+import io.stargate.db.datastore.query.Where;
+import io.stargate.db.datastore.query.WhereCondition;
+import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Schema;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import org.apache.cassandra.stargate.transport.ProtocolVersion;
 import org.junit.Before;
 import org.junit.Test;
@@ -118,6 +123,48 @@ public class DocumentDBTest {
     assertThat(stmt.preparedQueryString()).isEqualTo(expected);
   }
 
+  private static Where<Object> pathEq(int i, String value) {
+    return ImmutableWhereCondition.builder()
+        .column("p" + i)
+        .predicate(WhereCondition.Predicate.Eq)
+        .value(value)
+        .build();
+  }
+
+  private static List<String> names(List<Column> columns) {
+    return columns.stream().map(Column::name).collect(Collectors.toList());
+  }
+
+  @Test
+  public void columnsFor() {
+    List<Where<Object>> predicates = new ArrayList<>();
+    predicates.add(
+        ImmutableWhereCondition.builder()
+            .column("key")
+            .predicate(WhereCondition.Predicate.Eq)
+            .value("k")
+            .build());
+    predicates.add(pathEq(0, "a"));
+    assertThat(DocumentDB.columnsFor(predicates)).isEqualTo(DocumentDB.allColumns());
+
+    // Every path column after p1 is pinned to '': p2 is still selected to mark the end of paths.
+    predicates.add(
+        ImmutableWhereCondition.builder()
+            .column("p1")
+            .predicate(WhereCondition.Predicate.Gt)
+            .value("")
+            .build());
+    for (int i = 2; i < DocumentDB.MAX_DEPTH; i++) {
+      predicates.add(pathEq(i, ""));
+    }
+    assertThat(names(DocumentDB.columnsFor(predicates)))
+        .containsExactly("key", "p0", "p1", "p2", "leaf", "text_value", "dbl_value", "bool_value");
+
+    // A hole in the pinned columns disables the projection past it.
+    predicates.set(predicates.size() - 1, pathEq(DocumentDB.MAX_DEPTH - 1, "z"));
+    assertThat(DocumentDB.columnsFor(predicates)).isEqualTo(DocumentDB.allColumns());
+  }
+
   // Args are either "normal" value, Object[] or List<Object>. In the latter cases, we "inline" the
   // array/list.
   private static Object[] makeValues(Object... valuesOrArraysOfValues) {
@@ -134,12 +181,33 @@ public class DocumentDBTest {
     return Collections.singletonList(value);
   }
 
+  private static Map<String, Object> bindMap(List<String> path) {
+    Map<String, Object> bindMap = new LinkedHashMap<>(DocumentDB.MAX_DEPTH + 7);
+
+    bindMap.put("key", DataStore.UNSET);
+
+    for (int i = 0; i < DocumentDB.MAX_DEPTH; i++) {
+      String value = "";
+      if (i < path.size()) {
+        value = path.get(i);
+      }
+      bindMap.put("p" + i, value);
+    }
+
+    bindMap.put("leaf", DataStore.UNSET);
+    bindMap.put("text_value", DataStore.UNSET);
+    bindMap.put("dbl_value", DataStore.UNSET);
+    bindMap.put("bool_value", DataStore.UNSET);
+
+    return bindMap;
+  }
+
   @Test
   public void deleteThenInsertBatch() {
     ds = new TestDataStore();
     documentDB = new DocumentDB(ds);
     List<String> path = ImmutableList.of("a", "b", "c");
-    Map<String, Object> map = documentDB.newBindMap(path);
+    Map<String, Object> map = bindMap(path);
     map.put("bool_value", true);
     map.put("dbl_value", null);
     map.put("text_value", null);
@@ -166,7 +234,7 @@ public class DocumentDBTest {
     documentDB = new DocumentDB(ds);
     List<String> path = ImmutableList.of("a", "b", "c");
     List<String> patchedKeys = ImmutableList.of("eric");
-    Map<String, Object> map = documentDB.newBindMap(path);
+    Map<String, Object> map = bindMap(path);
     map.put("bool_value", null);
     map.put("dbl_value", 3.0);
     map.put("text_value", null);
@@ -194,6 +262,58 @@ public class DocumentDBTest {
     assertThat(ds.getRecentStatements()).isEqualTo(expectedStmts);
   }
 
+  @Test
+  public void deleteThenInsertBatchInUnloggedChunks() {
+    ds = new TestDataStore();
+    documentDB = new DocumentDB(ds, true, 2, Integer.MAX_VALUE);
+    List<String> path = ImmutableList.of("a");
+    List<Object[]> vars = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Map<String, Object> map = bindMap(path);
+      map.put("key", "key");
+      map.put("dbl_value", (double) i);
+      vars.add(map.values().toArray());
+    }
+    documentDB.deleteThenInsertBatch("keyspace", "table", "key", vars, path, 1L);
+
+    // The prefix delete and the 4 inserts, in order, 2 by 2.
+    assertThat(ds.recentBatchTypes)
+        .containsExactly(BatchType.UNLOGGED, BatchType.UNLOGGED, BatchType.UNLOGGED);
+    assertThat(ds.getRecentBatchSizes()).containsExactly(2, 2, 1);
+    List<PreparedStatement.Bound> statements = ds.getRecentStatements();
+    assertThat(statements.get(0).preparedStatement().preparedQueryString()).startsWith("DELETE");
+    for (int i = 1; i < statements.size(); i++) {
+      assertThat(statements.get(i).values()).containsSequence(vars.get(i - 1)).endsWith(1L);
+    }
+  }
+
+  @Test
+  public void deletePatchedPathsThenInsertBatchInUnloggedChunksBySize() {
+    ds = new TestDataStore();
+    List<String> path = ImmutableList.of("a", "b", "c");
+    Map<String, Object> map = bindMap(path);
+    map.put("key", "key");
+    map.put("text_value", "some text");
+    Object[] values = map.values().toArray();
+    Bound insert = new DocumentDB(ds).getInsertStatement("keyspace", "table", 1L, values);
+
+    // Room for exactly 2 inserts per chunk, the (smaller) deletes all fit with the last insert.
+    long maxBytes = 2 * DocumentDB.estimatedSize(insert);
+    documentDB = new DocumentDB(ds, true, Integer.MAX_VALUE, (int) maxBytes);
+    documentDB.deletePatchedPathsThenInsertBatch(
+        "keyspace",
+        "table",
+        "key",
+        ImmutableList.of(values, values, values),
+        path,
+        ImmutableList.of("eric"),
+        1L);
+
+    assertThat(ds.recentBatchTypes).containsOnly(BatchType.UNLOGGED);
+    assertThat(ds.getRecentBatchSizes()).containsExactly(2, 4);
+    assertThat(ds.getRecentStatements()).hasSize(6);
+  }
+
   @Test
   public void delete() {
     ds = new TestDataStore();
@@ -335,6 +455,8 @@ public class DocumentDBTest {
 
   private class TestDataStore implements DataStore {
     private final List<PreparedStatement.Bound> recentStatements = new ArrayList<>();
+    private final List<Integer> recentBatchSizes = new ArrayList<>();
+    private final List<BatchType> recentBatchTypes = new ArrayList<>();
 
     @Override
     public CompletableFuture<ResultSet> query(
@@ -352,6 +474,8 @@ public class DocumentDBTest {
         List<Bound> statements, BatchType batchType, UnaryOperator<Parameters> parametersModifier) {
       System.out.println(statements);
       this.recentStatements.addAll(statements);
+      this.recentBatchSizes.add(statements.size());
+      this.recentBatchTypes.add(batchType);
       return CompletableFuture.completedFuture(ResultSet.empty());
     }
 
@@ -381,5 +505,11 @@ public class DocumentDBTest {
       this.recentStatements.clear();
       return recent;
     }
+
+    public List<Integer> getRecentBatchSizes() {
+      List<Integer> recent = new ArrayList<>(this.recentBatchSizes);
+      this.recentBatchSizes.clear();
+      return recent;
+    }
   }
 }
@@ -13,14 +13,12 @@ import com.fasterxml.jackson.databind.node.IntNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonNull;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
 import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.datastore.ArrayListBackedRow;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.Row;
+import io.stargate.db.datastore.query.Where;
+import io.stargate.db.datastore.query.WhereCondition;
 import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Column.Type;
 import io.stargate.web.docsapi.dao.DocumentDB;
@@ -33,15 +31,15 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.PathSegment;
 import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.jsfr.json.JsonSurfer;
-import org.jsfr.json.JsonSurferGson;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -50,15 +48,10 @@ import org.powermock.modules.junit4.PowerMockRunner;
 @PrepareForTest(DocumentService.class)
 public class DocumentServiceTest {
   private DocumentService service;
-  private Method convertToBracketedPath;
   private Method leftPadTo6;
   private Method convertArrayPath;
-  private Method isEmptyObject;
-  private Method isEmptyArray;
   private Method shredPayload;
   private Method validateOpAndValue;
-  private Method addRowsToMap;
-  private Method updateExistenceForMap;
   private Method getParentPathFromRow;
   private Method filterToSelectionSet;
   private Method applyInMemoryFilters;
@@ -73,37 +66,18 @@ public class DocumentServiceTest {
   public void setup() throws NoSuchMethodException {
     service = new DocumentService();
 
-    convertToBracketedPath =
-        DocumentService.class.getDeclaredMethod("convertToBracketedPath", String.class);
-    convertToBracketedPath.setAccessible(true);
     leftPadTo6 = DocumentService.class.getDeclaredMethod("leftPadTo6", String.class);
     leftPadTo6.setAccessible(true);
     convertArrayPath = DocumentService.class.getDeclaredMethod("convertArrayPath", String.class);
     convertArrayPath.setAccessible(true);
-    isEmptyObject = DocumentService.class.getDeclaredMethod("isEmptyObject", Object.class);
-    isEmptyObject.setAccessible(true);
-    isEmptyArray = DocumentService.class.getDeclaredMethod("isEmptyArray", Object.class);
-    isEmptyArray.setAccessible(true);
     shredPayload =
         DocumentService.class.getDeclaredMethod(
-            "shredPayload",
-            JsonSurfer.class,
-            DocumentDB.class,
-            List.class,
-            String.class,
-            String.class,
-            boolean.class);
+            "shredPayload", List.class, String.class, String.class, boolean.class);
     shredPayload.setAccessible(true);
     validateOpAndValue =
         DocumentService.class.getDeclaredMethod(
             "validateOpAndValue", String.class, JsonNode.class, String.class);
     validateOpAndValue.setAccessible(true);
-    addRowsToMap = DocumentService.class.getDeclaredMethod("addRowsToMap", Map.class, List.class);
-    addRowsToMap.setAccessible(true);
-    updateExistenceForMap =
-        DocumentService.class.getDeclaredMethod(
-            "updateExistenceForMap", Map.class, Map.class, List.class, List.class);
-    updateExistenceForMap.setAccessible(true);
     getParentPathFromRow =
         DocumentService.class.getDeclaredMethod("getParentPathFromRow", Row.class);
     getParentPathFromRow.setAccessible(true);
@@ -150,42 +124,6 @@ public class DocumentServiceTest {
     searchRows.setAccessible(true);
   }
 
-  @Test
-  public void convertToBracketedPath() throws IllegalAccessException, InvocationTargetException {
-    String input = "$.a.b";
-    String res = (String) convertToBracketedPath.invoke(service, input);
-    assertThat(res).isEqualTo("$['a']['b']");
-
-    input = "a.b";
-    res = (String) convertToBracketedPath.invoke(service, input);
-    assertThat(res).isEqualTo("['a']['b']");
-
-    input = "$.$.c";
-    res = (String) convertToBracketedPath.invoke(service, input);
-    assertThat(res).isEqualTo("$['$']['c']");
-
-    input = "$.a.b[0].c";
-    res = (String) convertToBracketedPath.invoke(service, input);
-    assertThat(res).isEqualTo("$['a']['b'][0]['c']");
-
-    input = "$.a.I need some space.c";
-    res = (String) convertToBracketedPath.invoke(service, input);
-    assertThat(res).isEqualTo("$['a']['I need some space']['c']");
-
-    input = "$.a.0[0].c";
-    res = (String) convertToBracketedPath.invoke(service, input);
-    assertThat(res).isEqualTo("$['a']['0'][0]['c']");
-
-    input = "$.@.23.f";
-    res = (String) convertToBracketedPath.invoke(service, input);
-    assertThat(res).isEqualTo("$['@']['23']['f']");
-
-    // This should really never be sent to this function...but it does "work"
-    input = "$..a";
-    res = (String) convertToBracketedPath.invoke(service, input);
-    assertThat(res).isEqualTo("$['']['a']");
-  }
-
   @Test
   public void leftPadTo6() throws InvocationTargetException, IllegalAccessException {
     String result = (String) leftPadTo6.invoke(service, "");
@@ -246,48 +184,14 @@ public class DocumentServiceTest {
         .hasMessage("Max array length of 1000000 exceeded.");
   }
 
-  @Test
-  public void isEmptyObject() throws InvocationTargetException, IllegalAccessException {
-    assertThat(isEmptyObject.invoke(service, "a")).isEqualTo(false);
-    assertThat(isEmptyObject.invoke(service, (Object) null)).isEqualTo(false);
-    assertThat(isEmptyObject.invoke(service, JsonNull.INSTANCE)).isEqualTo(false);
-    assertThat(isEmptyObject.invoke(service, new JsonArray())).isEqualTo(false);
-    JsonArray nonEmptyArray = new JsonArray();
-    nonEmptyArray.add("something");
-    assertThat(isEmptyObject.invoke(service, nonEmptyArray)).isEqualTo(false);
-    JsonObject nonEmptyObj = new JsonObject();
-    nonEmptyObj.add("key", new JsonPrimitive("something"));
-    assertThat(isEmptyObject.invoke(service, nonEmptyObj)).isEqualTo(false);
-    assertThat(isEmptyObject.invoke(service, new JsonObject())).isEqualTo(true);
-  }
-
-  @Test
-  public void isEmptyArray() throws InvocationTargetException, IllegalAccessException {
-    assertThat(isEmptyArray.invoke(service, "a")).isEqualTo(false);
-    assertThat(isEmptyArray.invoke(service, (Object) null)).isEqualTo(false);
-    assertThat(isEmptyArray.invoke(service, JsonNull.INSTANCE)).isEqualTo(false);
-    JsonObject nonEmptyObj = new JsonObject();
-    nonEmptyObj.add("key", new JsonPrimitive("something"));
-    assertThat(isEmptyArray.invoke(service, nonEmptyObj)).isEqualTo(false);
-    assertThat(isEmptyArray.invoke(service, new JsonObject())).isEqualTo(false);
-    JsonArray nonEmptyArray = new JsonArray();
-    nonEmptyArray.add("something");
-    assertThat(isEmptyArray.invoke(service, nonEmptyArray)).isEqualTo(false);
-    assertThat(isEmptyArray.invoke(service, new JsonArray())).isEqualTo(true);
-  }
-
   @Test
   public void shredPayload_booleanLeaf() throws InvocationTargetException, IllegalAccessException {
-    DocumentDB dbMock = mock(DocumentDB.class);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
-
     List<String> path = new ArrayList<>();
     String key = "eric";
     String payload = "{\"cool\": {\"document\": true}}";
     ImmutablePair<List<Object[]>, List<String>> shredResult =
         (ImmutablePair<List<Object[]>, List<String>>)
-            shredPayload.invoke(
-                service, JsonSurferGson.INSTANCE, dbMock, path, key, payload, false);
+            shredPayload.invoke(service, path, key, payload, false);
     List<Object[]> bindVariables = shredResult.left;
     List<String> topLevelKeys = shredResult.right;
     assertThat(bindVariables.size()).isEqualTo(1);
@@ -374,16 +278,12 @@ public class DocumentServiceTest {
 
   @Test
   public void shredPayload_numberLeaf() throws InvocationTargetException, IllegalAccessException {
-    DocumentDB dbMock = mock(DocumentDB.class);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
-
     List<String> path = new ArrayList<>();
     String key = "eric";
     String payload = "{\"cool\": {\"document\": 3}}";
     ImmutablePair<List<Object[]>, List<String>> shredResult =
         (ImmutablePair<List<Object[]>, List<String>>)
-            shredPayload.invoke(
-                service, JsonSurferGson.INSTANCE, dbMock, path, key, payload, false);
+            shredPayload.invoke(service, path, key, payload, false);
     List<Object[]> bindVariables = shredResult.left;
     List<String> topLevelKeys = shredResult.right;
     assertThat(bindVariables.size()).isEqualTo(1);
@@ -470,16 +370,12 @@ public class DocumentServiceTest {
 
   @Test
   public void shredPayload_stringLeaf() throws InvocationTargetException, IllegalAccessException {
-    DocumentDB dbMock = mock(DocumentDB.class);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
-
     List<String> path = new ArrayList<>();
     String key = "eric";
     String payload = "{\"cool\": {\"document\": \"leaf\"}}";
     ImmutablePair<List<Object[]>, List<String>> shredResult =
         (ImmutablePair<List<Object[]>, List<String>>)
-            shredPayload.invoke(
-                service, JsonSurferGson.INSTANCE, dbMock, path, key, payload, false);
+            shredPayload.invoke(service, path, key, payload, false);
     List<Object[]> bindVariables = shredResult.left;
     List<String> topLevelKeys = shredResult.right;
     assertThat(bindVariables.size()).isEqualTo(1);
@@ -567,16 +463,12 @@ public class DocumentServiceTest {
   @Test
   public void shredPayload_emptyObjectLeaf()
       throws InvocationTargetException, IllegalAccessException {
-    DocumentDB dbMock = mock(DocumentDB.class);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
-
     List<String> path = new ArrayList<>();
     String key = "eric";
     String payload = "{\"cool\": {\"document\": {}}}";
     ImmutablePair<List<Object[]>, List<String>> shredResult =
         (ImmutablePair<List<Object[]>, List<String>>)
-            shredPayload.invoke(
-                service, JsonSurferGson.INSTANCE, dbMock, path, key, payload, false);
+            shredPayload.invoke(service, path, key, payload, false);
     List<Object[]> bindVariables = shredResult.left;
     List<String> topLevelKeys = shredResult.right;
     assertThat(bindVariables.size()).isEqualTo(1);
@@ -664,16 +556,12 @@ public class DocumentServiceTest {
   @Test
   public void shredPayload_emptyArrayLeaf()
       throws InvocationTargetException, IllegalAccessException {
-    DocumentDB dbMock = mock(DocumentDB.class);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
-
     List<String> path = new ArrayList<>();
     String key = "eric";
     String payload = "{\"cool\": {\"document\": []}}";
     ImmutablePair<List<Object[]>, List<String>> shredResult =
         (ImmutablePair<List<Object[]>, List<String>>)
-            shredPayload.invoke(
-                service, JsonSurferGson.INSTANCE, dbMock, path, key, payload, false);
+            shredPayload.invoke(service, path, key, payload, false);
     List<Object[]> bindVariables = shredResult.left;
     List<String> topLevelKeys = shredResult.right;
     assertThat(bindVariables.size()).isEqualTo(1);
@@ -760,16 +648,12 @@ public class DocumentServiceTest {
 
   @Test
   public void shredPayload_nullLeaf() throws InvocationTargetException, IllegalAccessException {
-    DocumentDB dbMock = mock(DocumentDB.class);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
-
     List<String> path = new ArrayList<>();
     String key = "eric";
     String payload = "{\"cool\": {\"document\": null}}";
     ImmutablePair<List<Object[]>, List<String>> shredResult =
         (ImmutablePair<List<Object[]>, List<String>>)
-            shredPayload.invoke(
-                service, JsonSurferGson.INSTANCE, dbMock, path, key, payload, false);
+            shredPayload.invoke(service, path, key, payload, false);
     List<Object[]> bindVariables = shredResult.left;
     List<String> topLevelKeys = shredResult.right;
     assertThat(bindVariables.size()).isEqualTo(1);
@@ -856,17 +740,11 @@ public class DocumentServiceTest {
 
   @Test
   public void shredPayload_invalidKeys() {
-    DocumentDB dbMock = mock(DocumentDB.class);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
-
     List<String> path = new ArrayList<>();
     String key = "eric";
     String payload = "{\"coo]\": {\"document\": null}}";
     Throwable thrown =
-        catchThrowable(
-            () ->
-                shredPayload.invoke(
-                    service, JsonSurferGson.INSTANCE, dbMock, path, key, payload, false));
+        catchThrowable(() -> shredPayload.invoke(service, path, key, payload, false));
     assertThat(thrown.getCause())
         .isInstanceOf(DocumentAPIRequestException.class)
         .hasMessageContaining("are not permitted in JSON field names, invalid field coo]");
@@ -875,29 +753,101 @@ public class DocumentServiceTest {
 
   @Test
   public void shredPayload_patchingArrayInvalid() {
-    DocumentDB dbMock = mock(DocumentDB.class);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
-
     List<String> path = new ArrayList<>();
     String key = "eric";
     String payload = "[1, 2, 3]";
     Throwable thrown =
-        catchThrowable(
-            () ->
-                shredPayload.invoke(
-                    service, JsonSurferGson.INSTANCE, dbMock, path, key, payload, true));
+        catchThrowable(() -> shredPayload.invoke(service, path, key, payload, true));
     assertThat(thrown.getCause())
         .isInstanceOf(DocumentAPIRequestException.class)
         .hasMessageContaining("A patch operation must be done with a JSON object, not an array.");
     ;
   }
 
+  @Test
+  public void shredPayload_nestedAtPath() throws InvocationTargetException, IllegalAccessException {
+    List<String> path = ImmutableList.of("a", "[000002]");
+    String key = "eric";
+    String payload = "{\"b\": [1, {\"c\": \"x\"}], \"d\": {}}";
+    ImmutablePair<List<Object[]>, List<String>> shredResult =
+        (ImmutablePair<List<Object[]>, List<String>>)
+            shredPayload.invoke(service, path, key, payload, false);
+    List<Object[]> bindVariables = shredResult.left;
+    assertThat(bindVariables.size()).isEqualTo(3);
+
+    Object[] first = bindVariables.get(0);
+    assertThat(Arrays.copyOfRange(first, 0, 6))
+        .containsExactly("eric", "a", "[000002]", "b", "[000000]", "");
+    assertThat(Arrays.copyOfRange(first, 65, 69)).containsExactly("[000000]", null, 1.0, null);
+
+    Object[] second = bindVariables.get(1);
+    assertThat(Arrays.copyOfRange(second, 0, 7))
+        .containsExactly("eric", "a", "[000002]", "b", "[000001]", "c", "");
+    assertThat(Arrays.copyOfRange(second, 65, 69)).containsExactly("c", "x", null, null);
+
+    Object[] third = bindVariables.get(2);
+    assertThat(Arrays.copyOfRange(third, 0, 5)).containsExactly("eric", "a", "[000002]", "d", "");
+    assertThat(Arrays.copyOfRange(third, 65, 69))
+        .containsExactly("d", DocumentDB.EMPTY_OBJECT_MARKER, null, null);
+
+    assertThat(shredResult.right).containsExactly("b", "d");
+  }
+
+  @Test
+  public void shredPayload_maxDepth() throws InvocationTargetException, IllegalAccessException {
+    // The root array is not a path segment: MAX_DEPTH + 1 levels use exactly MAX_DEPTH segments.
+    String payload = nestedArrays(DocumentDB.MAX_DEPTH + 1);
+    ImmutablePair<List<Object[]>, List<String>> shredResult =
+        (ImmutablePair<List<Object[]>, List<String>>)
+            shredPayload.invoke(service, new ArrayList<>(), "eric", payload, false);
+
+    assertThat(shredResult.left).hasSize(1);
+    Object[] row = shredResult.left.get(0);
+    assertThat(row[DocumentDB.MAX_DEPTH]).isEqualTo("[000000]");
+    assertThat(row[DocumentDB.MAX_DEPTH + 1]).isEqualTo("[000000]");
+    assertThat(row[DocumentDB.MAX_DEPTH + 2]).isEqualTo(DocumentDB.EMPTY_ARRAY_MARKER);
+  }
+
+  @Test
+  public void shredPayload_maxDepthExceeded() {
+    String payload = nestedArrays(DocumentDB.MAX_DEPTH + 2);
+    Throwable thrown =
+        catchThrowable(
+            () -> shredPayload.invoke(service, new ArrayList<>(), "eric", payload, false));
+    assertThat(thrown).isInstanceOf(InvocationTargetException.class);
+    assertThat(thrown.getCause())
+        .isInstanceOf(DocumentAPIRequestException.class)
+        .hasMessage("Max depth of " + DocumentDB.MAX_DEPTH + " exceeded");
+  }
+
+  @Test
+  public void shredPayload_maxDepthExceededBelowPath() {
+    // The segments of the target path count towards the depth
+    List<String> path = Collections.singletonList("a");
+    String payload = nestedArrays(DocumentDB.MAX_DEPTH + 1);
+    Throwable thrown =
+        catchThrowable(() -> shredPayload.invoke(service, path, "eric", payload, false));
+    assertThat(thrown.getCause())
+        .isInstanceOf(DocumentAPIRequestException.class)
+        .hasMessage("Max depth of " + DocumentDB.MAX_DEPTH + " exceeded");
+  }
+
+  private static String nestedArrays(int levels) {
+    StringBuilder payload = new StringBuilder();
+    for (int i = 0; i < levels; i++) {
+      payload.append('[');
+    }
+    for (int i = 0; i < levels; i++) {
+      payload.append(']');
+    }
+    return payload.toString();
+  }
+
   @Test
   public void putAtPath() throws UnauthorizedException {
     DocumentDB dbMock = mock(DocumentDB.class);
     Db dbFactoryMock = mock(Db.class);
     when(dbFactoryMock.getDocDataStoreForToken(anyString())).thenReturn(dbMock);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
 
     service.putAtPath(
         "authToken",
@@ -928,7 +878,6 @@ public class DocumentServiceTest {
     DocumentDB dbMock = mock(DocumentDB.class);
     Db dbFactoryMock = mock(Db.class);
     when(dbFactoryMock.getDocDataStoreForToken(anyString())).thenReturn(dbMock);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
 
     service.putAtPath(
         "authToken",
@@ -959,7 +908,6 @@ public class DocumentServiceTest {
     DocumentDB dbMock = mock(DocumentDB.class);
     Db dbFactoryMock = mock(Db.class);
     when(dbFactoryMock.getDocDataStoreForToken(anyString())).thenReturn(dbMock);
-    when(dbMock.newBindMap(anyObject())).thenCallRealMethod();
 
     Throwable thrown =
         catchThrowable(
@@ -1268,60 +1216,82 @@ public class DocumentServiceTest {
   }
 
   @Test
-  public void addRowsToMap() throws InvocationTargetException, IllegalAccessException {
-    Map<String, List<Row>> rowsByDoc = new HashMap<>();
+  public void getFullDocuments_lessThanLimit() throws Exception {
+    Db dbFactoryMock = mock(Db.class);
+    DocumentDB dbMock = mock(DocumentDB.class);
+    ResultSet rsMock = mock(ResultSet.class);
     List<Row> rows = makeInitialRowData();
-    addRowsToMap.invoke(service, rowsByDoc, rows);
-    assertThat(rowsByDoc.get("1")).isEqualTo(rows);
+    when(dbMock.executeSelectAll(anyString(), anyString())).thenReturn(rsMock);
+    when(rsMock.fetchNextPageAsync()).thenReturn(CompletableFuture.completedFuture(rows));
+
+    ImmutablePair<JsonNode, ByteBuffer> result =
+        service.getFullDocuments(
+            dbFactoryMock,
+            dbMock,
+            "authToken",
+            "keyspace",
+            "collection",
+            new ArrayList<>(),
+            null,
+            100,
+            2);
+    assertThat(result.right).isNull();
+    assertThat(result.left.size()).isEqualTo(1);
+    assertThat(result.left.get("1")).isEqualTo(service.convertToJsonDoc(rows, false).left);
+    verifyZeroInteractions(dbFactoryMock);
   }
 
   @Test
-  public void updateExistenceForMap() throws InvocationTargetException, IllegalAccessException {
-    Map<String, Boolean> existenceByDoc = new HashMap<>();
-    Map<String, Integer> countsByDoc = new HashMap<>();
-    List<Row> rows = makeInitialRowData();
-    updateExistenceForMap.invoke(service, existenceByDoc, countsByDoc, rows, new ArrayList<>());
-    assertThat(existenceByDoc.get("1")).isTrue();
-    assertThat(countsByDoc.get("1")).isEqualTo(3);
+  public void getFullDocuments_greaterThanLimit() throws Exception {
+    Db dbFactoryMock = mock(Db.class);
+    DocumentDB dbMock = mock(DocumentDB.class);
+    DocumentDB boundaryDbMock = mock(DocumentDB.class);
+    ResultSet rsMock = mock(ResultSet.class);
+    ResultSet boundaryRsMock = mock(ResultSet.class);
+    List<Row> firstDocRows = makeInitialRowData();
+    List<Row> twoDocsRows = new ArrayList<>(firstDocRows);
+    twoDocsRows.addAll(makeRowDataForSecondDoc());
+    ByteBuffer initialState = ByteBuffer.wrap(new byte[] {1});
+    ByteBuffer boundaryState = ByteBuffer.wrap(new byte[] {2});
+    when(dbMock.executeSelectAll(anyString(), anyString())).thenReturn(rsMock);
+    when(rsMock.fetchNextPageAsync()).thenReturn(CompletableFuture.completedFuture(twoDocsRows));
+    when(dbFactoryMock.getDocDataStoreForToken("authToken", 3, initialState))
+        .thenReturn(boundaryDbMock);
+    when(boundaryDbMock.executeSelectAll(anyString(), anyString())).thenReturn(boundaryRsMock);
+    when(boundaryRsMock.getPagingState()).thenReturn(boundaryState);
+
+    ImmutablePair<JsonNode, ByteBuffer> result =
+        service.getFullDocuments(
+            dbFactoryMock,
+            dbMock,
+            "authToken",
+            "keyspace",
+            "collection",
+            new ArrayList<>(),
+            initialState,
+            100,
+            1);
+    // Only the rows of the first document are read again, to get the paging state after them.
+    assertThat(result.right).isEqualTo(boundaryState);
+    assertThat(result.left.size()).isEqualTo(1);
+    assertThat(result.left.get("1")).isEqualTo(service.convertToJsonDoc(firstDocRows, false).left);
   }
 
   @Test
-  public void getFullDocuments_lessThanLimit() throws Exception {
-    Db dbFactoryMock = PowerMockito.mock(Db.class);
-    DocumentDB dbMock = PowerMockito.mock(DocumentDB.class);
-    DocumentService serviceMock = PowerMockito.mock(DocumentService.class);
-    PowerMockito.when(dbFactoryMock.getDocDataStoreForToken(anyString(), anyInt(), anyObject()))
-        .thenReturn(dbMock);
-    PowerMockito.when(
-            serviceMock,
-            "searchRows",
-            anyString(),
-            anyString(),
-            anyObject(),
-            anyList(),
-            anyList(),
-            anyList(),
-            anyBoolean(),
-            anyString())
-        .thenReturn(ImmutablePair.of(makeInitialRowData(), null));
-    PowerMockito.when(
-            serviceMock.getFullDocuments(
-                anyObject(),
-                anyObject(),
-                anyString(),
-                anyString(),
-                anyString(),
-                anyList(),
-                anyObject(),
-                anyInt(),
-                anyInt()))
-        .thenCallRealMethod();
-    PowerMockito.when(serviceMock, "addRowsToMap", anyMap(), anyList()).thenCallRealMethod();
-    PowerMockito.when(serviceMock.convertToJsonDoc(anyObject(), anyBoolean()))
-        .thenReturn(ImmutablePair.of(mapper.readTree("{\"a\": 1}"), new HashMap<>()));
+  public void getFullDocuments_limitOnPageBoundary() throws Exception {
+    Db dbFactoryMock = mock(Db.class);
+    DocumentDB dbMock = mock(DocumentDB.class);
+    ResultSet rsMock = mock(ResultSet.class);
+    ByteBuffer secondPageState = ByteBuffer.wrap(new byte[] {1});
+    when(dbMock.executeSelectAll(anyString(), anyString())).thenReturn(rsMock);
+    when(rsMock.getPagingState()).thenReturn(secondPageState);
+    when(rsMock.fetchNextPageAsync())
+        .thenReturn(
+            CompletableFuture.completedFuture(makeInitialRowData()),
+            CompletableFuture.completedFuture(makeRowDataForSecondDoc()));
 
     ImmutablePair<JsonNode, ByteBuffer> result =
-        serviceMock.getFullDocuments(
+        service.getFullDocuments(
             dbFactoryMock,
             dbMock,
             "authToken",
@@ -1329,62 +1299,43 @@ public class DocumentServiceTest {
             "collection",
             new ArrayList<>(),
             null,
-            100,
+            3,
             1);
-    assertThat(result.right).isNull();
-    assertThat(result.left).isEqualTo(mapper.readTree("{\"1\": {\"a\": 1}}"));
+    assertThat(result.right).isEqualTo(secondPageState);
+    assertThat(result.left.size()).isEqualTo(1);
+    assertThat(result.left.has("1")).isTrue();
+    verifyZeroInteractions(dbFactoryMock);
   }
 
   @Test
-  public void getFullDocuments_greaterThanLimit() throws Exception {
-    Db dbFactoryMock = PowerMockito.mock(Db.class);
-    DocumentDB dbMock = PowerMockito.mock(DocumentDB.class);
-    DocumentService serviceMock = PowerMockito.mock(DocumentService.class);
-    List<Row> twoDocsRows = makeInitialRowData();
-    twoDocsRows.addAll(makeRowDataForSecondDoc());
-    PowerMockito.when(dbFactoryMock.getDocDataStoreForToken(anyString(), anyInt(), anyObject()))
-        .thenReturn(dbMock);
-    PowerMockito.when(
-            serviceMock,
-            "searchRows",
-            anyString(),
-            anyString(),
-            anyObject(),
-            anyList(),
-            anyList(),
-            anyList(),
-            anyBoolean(),
-            anyString())
-        .thenReturn(ImmutablePair.of(twoDocsRows, null));
-    PowerMockito.when(
-            serviceMock.getFullDocuments(
-                anyObject(),
-                anyObject(),
-                anyString(),
-                anyString(),
-                anyString(),
-                anyList(),
-                anyObject(),
-                anyInt(),
-                anyInt()))
-        .thenCallRealMethod();
-    PowerMockito.when(serviceMock, "addRowsToMap", anyMap(), anyList()).thenCallRealMethod();
-    PowerMockito.when(serviceMock.convertToJsonDoc(anyObject(), anyBoolean()))
-        .thenReturn(ImmutablePair.of(mapper.readTree("{\"a\": 1}"), new HashMap<>()));
+  public void getFullDocumentsFiltered_skipsNonMatchingDocuments() throws Exception {
+    Db dbFactoryMock = mock(Db.class);
+    DocumentDB dbMock = mock(DocumentDB.class);
+    ResultSet rsMock = mock(ResultSet.class);
+    List<Row> matchingDocRows = makeInitialRowData();
+    List<Row> twoDocsRows = new ArrayList<>(makeRowDataForSecondDoc());
+    twoDocsRows.addAll(matchingDocRows);
+    when(dbMock.executeSelectAll(anyString(), anyString())).thenReturn(rsMock);
+    when(rsMock.fetchNextPageAsync()).thenReturn(CompletableFuture.completedFuture(twoDocsRows));
 
+    List<FilterCondition> filters =
+        ImmutableList.of(new SingleFilterCondition(ImmutableList.of("a", "b", "c"), "$eq", true));
     ImmutablePair<JsonNode, ByteBuffer> result =
-        serviceMock.getFullDocuments(
+        service.getFullDocumentsFiltered(
             dbFactoryMock,
             dbMock,
             "authToken",
             "keyspace",
             "collection",
+            filters,
             new ArrayList<>(),
             null,
             100,
             1);
     assertThat(result.right).isNull();
-    assertThat(result.left).isEqualTo(mapper.readTree("{\"1\": {\"a\": 1}}"));
+    assertThat(result.left.size()).isEqualTo(1);
+    assertThat(result.left.get("1"))
+        .isEqualTo(service.convertToJsonDoc(matchingDocRows, false).left);
   }
 
   @Test
@@ -1435,6 +1386,36 @@ public class DocumentServiceTest {
     assertThat(result.left).isEqualTo(rows);
   }
 
+  @Test
+  public void searchRows_fieldsPushedDown() throws Exception {
+    DocumentDB dbMock = mock(DocumentDB.class);
+    ResultSet rsMock = mock(ResultSet.class);
+    ArgumentCaptor<List> predicatesCaptor = ArgumentCaptor.forClass(List.class);
+    when(dbMock.executeSelect(anyString(), anyString(), predicatesCaptor.capture(), anyBoolean()))
+        .thenReturn(rsMock);
+    when(rsMock.currentPageRows()).thenReturn(new ArrayList<>());
+
+    List<FilterCondition> filters =
+        ImmutableList.of(new SingleFilterCondition(ImmutableList.of("a", "x"), "$eq", true));
+    searchRows.invoke(
+        service,
+        "keyspace",
+        "collection",
+        dbMock,
+        filters,
+        ImmutableList.of("x", "y", "x"),
+        ImmutableList.of("a"),
+        false,
+        null);
+
+    List<Where<Object>> predicates = predicatesCaptor.getValue();
+    assertThat(predicates).hasSize(DocumentDB.MAX_DEPTH);
+    WhereCondition<?> selection = (WhereCondition<?>) predicates.get(1);
+    assertThat(selection.column().name()).isEqualTo("p1");
+    assertThat(selection.predicate()).isEqualTo(WhereCondition.Predicate.In);
+    assertThat(selection.value()).contains(ImmutableList.of("x", "y"));
+  }
+
   @Test
   public void searchRows_invalid() throws ExecutionException, InterruptedException {
     DocumentDB dbMock = mock(DocumentDB.class);
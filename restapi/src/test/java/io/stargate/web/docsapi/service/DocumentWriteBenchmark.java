@@ -0,0 +1,179 @@
+package io.stargate.web.docsapi.service;
+
+import io.stargate.db.BatchType;
+import io.stargate.db.BoundStatement;
+import io.stargate.db.Parameters;
+import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.PreparedStatement;
+import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.schema.Schema;
+import io.stargate.web.docsapi.dao.DocumentDB;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.apache.cassandra.stargate.transport.ProtocolVersion;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the client-side cost of a document write: shredding the JSON payload into rows with
+ * {@link DocumentShredder}, then preparing, binding and batching those rows with {@link
+ * DocumentDB#deleteThenInsertBatch}.
+ *
+ * <p>The data store completes every statement immediately, so this excludes the cluster round
+ * trips. The payload holds {@code items} objects of 4 leaves each, so it is written as {@code 4 *
+ * items} rows.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.stargate.web.docsapi.service.DocumentWriteBenchmark} or from the IDE.
+ * Writes use a single LOGGED batch by default. Add {@code
+ * -Dstargate.document_unlogged_chunked_writes=true} (and optionally {@code
+ * -Dstargate.document_write_chunk_max_statements=N}) to measure chunked writes; the forked JVM
+ * inherits them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentWriteBenchmark {
+
+  private static final String KEY = "a9fb1f04-0394-4c74-b77b-49b4e0ef7900";
+
+  @Param({"25", "500"})
+  public int items;
+
+  private String payload;
+  private DocumentDB documentDB;
+
+  @Setup
+  public void setup() {
+    StringBuilder json = new StringBuilder("{\"items\": [");
+    for (int i = 0; i < items; i++) {
+      if (i > 0) {
+        json.append(", ");
+      }
+      json.append(
+          String.format(
+              "{\"id\": %d, \"name\": \"item %d\", \"active\": %b, \"note\": null}",
+              i, i, i % 2 == 0));
+    }
+    payload = json.append("]}").toString();
+    documentDB = new DocumentDB(new ImmediateDataStore());
+  }
+
+  private ImmutablePair<List<Object[]>, List<String>> shred() {
+    return new DocumentShredder(Collections.emptyList(), KEY, false).shred(payload);
+  }
+
+  @Benchmark
+  public void shred(Blackhole bh) {
+    bh.consume(shred());
+  }
+
+  @Benchmark
+  public void shredAndWrite() {
+    documentDB.deleteThenInsertBatch(
+        "keyspace", "table", KEY, shred().left, Collections.emptyList(), 1L);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(DocumentWriteBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  private static class ImmediateDataStore implements DataStore {
+    @Override
+    public CompletableFuture<ResultSet> query(
+        String queryString, UnaryOperator<Parameters> parametersModifier, Object... values) {
+      return CompletableFuture.completedFuture(ResultSet.empty());
+    }
+
+    @Override
+    public CompletableFuture<PreparedStatement> prepare(String queryString) {
+      return CompletableFuture.completedFuture(new ImmediatePreparedStatement(queryString));
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> batch(
+        List<PreparedStatement.Bound> statements,
+        BatchType batchType,
+        UnaryOperator<Parameters> parametersModifier) {
+      return CompletableFuture.completedFuture(ResultSet.empty());
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> batch(List<String> queries) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Schema schema() {
+      return null;
+    }
+
+    @Override
+    public boolean isInSchemaAgreement() {
+      return true;
+    }
+
+    @Override
+    public void waitForSchemaAgreement() {}
+  }
+
+  private static class ImmediatePreparedStatement implements PreparedStatement {
+    private final String queryString;
+
+    private ImmediatePreparedStatement(String queryString) {
+      this.queryString = queryString;
+    }
+
+    @Override
+    public String preparedQueryString() {
+      return queryString;
+    }
+
+    @Override
+    public Bound bind(Object... values) {
+      return new Bound() {
+        @Override
+        public PreparedStatement preparedStatement() {
+          return ImmediatePreparedStatement.this;
+        }
+
+        @Override
+        public List<Object> values() {
+          return Arrays.asList(values);
+        }
+
+        @Override
+        public CompletableFuture<ResultSet> execute(UnaryOperator<Parameters> parametersModifier) {
+          return CompletableFuture.completedFuture(ResultSet.empty());
+        }
+
+        @Override
+        public BoundStatement toPersistenceStatement(ProtocolVersion protocolVersion) {
+          return null;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.web.resources;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.stargate.db.datastore.ArrayListBackedRow;
+import io.stargate.db.datastore.Row;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.ImmutableColumn;
+import io.stargate.web.models.GetResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class JsonRowsOutputTest {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private static final List<Column> COLUMNS =
+      ImmutableList.of(
+          ImmutableColumn.create("text", Column.Kind.PartitionKey, Column.Type.Text),
+          ImmutableColumn.create("int", Column.Kind.Regular, Column.Type.Int),
+          ImmutableColumn.create("bigint", Column.Kind.Regular, Column.Type.Bigint),
+          ImmutableColumn.create("boolean", Column.Kind.Regular, Column.Type.Boolean),
+          ImmutableColumn.create("double", Column.Kind.Regular, Column.Type.Double),
+          ImmutableColumn.create("uuid", Column.Kind.Regular, Column.Type.Uuid),
+          ImmutableColumn.create("decimal", Column.Kind.Regular, Column.Type.Decimal),
+          ImmutableColumn.create(
+              "map", Column.Kind.Regular, Column.Type.Map.of(Column.Type.Text, Column.Type.Int)));
+
+  @Test
+  public void writesSameJsonAsRowMaps() throws IOException {
+    List<Row> rows =
+        ImmutableList.of(
+            row(
+                "a",
+                1,
+                2L,
+                true,
+                1.5,
+                UUID.randomUUID(),
+                new BigDecimal("3.14"),
+                ImmutableMap.of("k", 1)),
+            row("b", null, null, null, null, null, null, null));
+
+    assertThat(write(JsonRowsOutput.raw(mapper, rows))).isEqualTo(expected(rowMaps(rows)));
+    assertThat(write(JsonRowsOutput.wrapped(mapper, rows, "state", "data")))
+        .isEqualTo(expected(new GetResponseWrapper<>(2, "state", rowMaps(rows))));
+    assertThat(write(JsonRowsOutput.wrapped(mapper, rows, null, "data")))
+        .isEqualTo(expected(new GetResponseWrapper<>(2, null, rowMaps(rows))));
+  }
+
+  @Test
+  public void writesEmptyPages() throws IOException {
+    assertThat(write(JsonRowsOutput.raw(mapper, Collections.emptyList())).size()).isZero();
+    assertThat(write(JsonRowsOutput.wrapped(mapper, Collections.emptyList(), null, "rows")))
+        .isEqualTo(mapper.readTree("{\"count\":0,\"rows\":[]}"));
+  }
+
+  private static Row row(Object... values) {
+    List<ByteBuffer> encoded = new ArrayList<>(values.length);
+    ProtocolVersion version = ProtocolVersion.DEFAULT;
+    for (int i = 0; i < values.length; i++) {
+      Object v = values[i];
+      encoded.add(v == null ? null : COLUMNS.get(i).type().codec().encode(v, version));
+    }
+    return new ArrayListBackedRow(COLUMNS, encoded, version);
+  }
+
+  private static List<Map<String, Object>> rowMaps(List<Row> rows) {
+    return rows.stream().map(Converters::row2Map).collect(Collectors.toList());
+  }
+
+  private static JsonNode expected(Object response) throws IOException {
+    return mapper.readTree(Converters.writeResponse(response));
+  }
+
+  private static JsonNode write(JsonRowsOutput output) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    output.write(bytes);
+    return mapper.readTree(bytes.toByteArray());
+  }
+}